@@ -33,7 +33,7 @@ import org.revapi.Archive;
  *
  * @since 0.2
  */
-final class FileArchive implements Archive {
+final class FileArchive implements Archive.FileBacked {
 
     public static FileArchive[] from(FileSet fileSet) {
         if (fileSet == null) {
@@ -68,6 +68,11 @@ final class FileArchive implements Archive {
         return new FileInputStream(file);
     }
 
+    @Override
+    public File getFile() {
+        return file;
+    }
+
     private static File[] scanFileSet(FileSet fs) {
         Project prj = fs.getProject();
         DirectoryScanner scanner = fs.getDirectoryScanner(prj);
@@ -17,13 +17,11 @@
 package org.revapi.basic;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -45,8 +43,9 @@ import org.revapi.TransformationResult;
 public abstract class AbstractDifferenceReferringTransform<E extends Element<E>> implements DifferenceTransform<E> {
 
     private final String extensionId;
-    private Collection<DifferenceMatchRecipe> configuredRecipes;
-    private Collection<MatchingProgress<?>> activeRecipes;
+    private List<DifferenceMatchRecipe> configuredRecipes;
+    private RecipeIndex recipeIndex;
+    private RecipeIndex.Traversal<?> activeTraversal;
     private Pattern[] codes;
     private List<Predicate<String>> predicates;
     protected AnalysisContext analysisContext;
@@ -92,6 +91,7 @@ public abstract class AbstractDifferenceReferringTransform<E extends Element<E>>
         if (!myNode.isArray()) {
             this.codes = new Pattern[0];
             this.predicates = Collections.emptyList();
+            this.recipeIndex = new RecipeIndex(configuredRecipes);
             return;
         }
 
@@ -108,72 +108,47 @@ public abstract class AbstractDifferenceReferringTransform<E extends Element<E>>
         }
         this.codes = codes.toArray(new Pattern[0]);
         this.predicates = predicates;
+        this.recipeIndex = new RecipeIndex(configuredRecipes);
     }
 
     @Override
     public TransformationResult tryTransform(@Nullable E oldElement, @Nullable E newElement, Difference difference) {
 
-        if (activeRecipes == null) {
+        RecipeIndex.Traversal<?> traversal = activeTraversal;
+        if (traversal == null) {
             return TransformationResult.keep();
         }
 
-        for (MatchingProgress<?> r : activeRecipes) {
-            if (r.matches(difference, oldElement, newElement)) {
-                Difference d = r.transformMatching(difference, oldElement, newElement);
-                if (d == null) {
-                    return TransformationResult.discard();
-                } else if (d == difference) {
-                    return TransformationResult.keep();
-                } else {
-                    return TransformationResult.replaceWith(d);
-                }
-            }
+        MatchingProgress<?> r = traversal.findMatch(difference, oldElement, newElement);
+        if (r == null) {
+            return TransformationResult.keep();
         }
 
-        return TransformationResult.keep();
+        Difference d = r.transformMatching(difference, oldElement, newElement);
+        if (d == null) {
+            return TransformationResult.discard();
+        } else if (d == difference) {
+            return TransformationResult.keep();
+        } else {
+            return TransformationResult.replaceWith(d);
+        }
     }
 
     @Override
     public <X extends Element<X>> Optional<TraversalTracker<X>> startTraversal(ApiAnalyzer<X> apiAnalyzer,
             ArchiveAnalyzer<X> oldArchiveAnalyzer, ArchiveAnalyzer<X> newArchiveAnalyzer) {
-        if (configuredRecipes == null) {
+        if (recipeIndex == null) {
             return Optional.empty();
         }
 
-        List<MatchingProgress<X>> recipes = configuredRecipes.stream()
-                .map(r -> r.startWithAnalyzers(oldArchiveAnalyzer, newArchiveAnalyzer)).collect(Collectors.toList());
-
-        // noinspection unchecked,rawtypes,rawtypes
-        activeRecipes = (Collection<MatchingProgress<?>>) (Collection) recipes;
-
-        return Optional.of(new TraversalTracker<X>() {
-            @Override
-            public boolean startElements(@Nullable X oldElement, @Nullable X newElement) {
-                boolean ret = false;
-                for (MatchingProgress<X> p : recipes) {
-                    ret |= p.startElements(oldElement, newElement);
-                }
-                return ret;
-            }
-
-            @Override
-            public void endElements(@Nullable X oldElement, @Nullable X newElement) {
-                for (MatchingProgress<X> p : recipes) {
-                    p.endElements(oldElement, newElement);
-                }
-            }
-
-            @Override
-            public void endTraversal() {
-                for (MatchingProgress<X> p : recipes) {
-                    p.endTraversal();
-                }
-            }
-        });
+        RecipeIndex.Traversal<X> traversal = recipeIndex.startTraversal(oldArchiveAnalyzer, newArchiveAnalyzer);
+        activeTraversal = traversal;
+
+        return Optional.of(traversal);
     }
 
     @Override
     public void endTraversal(TraversalTracker<?> tracker) {
-        activeRecipes = null;
+        activeTraversal = null;
     }
 }
@@ -51,6 +51,8 @@ public abstract class DifferenceMatchRecipe {
     final Pattern codeRegex;
     final ElementMatcher.CompiledRecipe oldRecipe;
     final ElementMatcher.CompiledRecipe newRecipe;
+    final String oldExactMatch;
+    final String newExactMatch;
     final Map<String, String> attachments;
     final Map<String, Pattern> attachmentRegexes;
 
@@ -72,6 +74,8 @@ public abstract class DifferenceMatchRecipe {
         codeRegex = regex ? Pattern.compile(code) : null;
         oldRecipe = getRecipe(regex, config.path("old"), matchers);
         newRecipe = getRecipe(regex, config.path("new"), matchers);
+        oldExactMatch = getExactMatch(regex, config.path("old"), matchers);
+        newExactMatch = getExactMatch(regex, config.path("new"), matchers);
         attachments = getAttachments(config, reservedProperties);
         if (regex) {
             attachmentRegexes = attachments.entrySet().stream()
@@ -118,6 +122,22 @@ public abstract class DifferenceMatchRecipe {
         }
     }
 
+    /**
+     * @return the full human readable representation the element needs to have to match the recipe or null if the
+     *         element is not matched exactly
+     */
+    @Nullable
+    private static String getExactMatch(boolean regex, JsonNode elementRoot, Map<String, ElementMatcher> matchers) {
+        if (elementRoot.isTextual()) {
+            return regex ? null : elementRoot.asText();
+        } else if (elementRoot.isObject()
+                && matchers.get(elementRoot.path("matcher").asText()) instanceof ExactElementMatcher) {
+            return elementRoot.path("match").asText();
+        } else {
+            return null;
+        }
+    }
+
     private static Map<String, String> getAttachments(JsonNode elementRoot, Set<String> reservedProperties) {
         if (JSONUtil.isNullOrUndefined(elementRoot)) {
             return Collections.emptyMap();
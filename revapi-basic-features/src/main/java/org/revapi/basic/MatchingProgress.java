@@ -126,10 +126,13 @@ public abstract class MatchingProgress<E extends Element<E>> implements Differen
 
         boolean codeMatch = regex ? codeRegex.matcher(difference.code).matches() : code.equals(difference.code);
 
-        if (!codeMatch) {
-            return false;
-        }
+        return codeMatch && matchesElements(oldElement, newElement) && matchesAttachments(difference);
+    }
 
+    /**
+     * Checks whether the provided elements or any of their parents were matched during the traversal.
+     */
+    boolean matchesElements(@Nullable Element<?> oldElement, @Nullable Element<?> newElement) {
         Set<E> news = decidedlyMatchingElementPairs.get(oldElement);
         boolean elementsMatch = news != null && news.contains(newElement);
 
@@ -145,10 +148,10 @@ public abstract class MatchingProgress<E extends Element<E>> implements Differen
             elementsMatch = news != null && news.contains(newElement);
         }
 
-        if (!elementsMatch) {
-            return false;
-        }
+        return elementsMatch;
+    }
 
+    boolean matchesAttachments(Difference difference) {
         if (regex) {
             // regexes empty | attachments empty | allMatched
             // 0 | 0 | each regex matches
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.basic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.Difference;
+import org.revapi.DifferenceTransform;
+import org.revapi.Element;
+
+/**
+ * The difference match recipes of a transform compiled into an index, so that the transform doesn't need to try all the
+ * recipes on every difference and on every traversed pair of elements.
+ *
+ * <p>
+ * The recipes are identified by their position in the configuration and the sets of them are kept in bitsets, so that
+ * the first matching recipe is the lowest set bit. The recipes matching a difference code are looked up only once per
+ * code. The recipes with the same {@code old} and {@code new} matches form a group which is tracked only once during
+ * the traversal. The groups matching the elements exactly by their full human readable representations are not tracked
+ * using the tree filters at all - the traversed elements are looked up in them by their representations.
+ *
+ * @author Lukas Krejci
+ */
+final class RecipeIndex {
+    private final List<DifferenceMatchRecipe> recipes;
+    private final int[] groupOfRecipe;
+    private final List<BitSet> recipesOfGroup = new ArrayList<>();
+
+    private final Map<String, BitSet> recipesByExactCode = new HashMap<>();
+    private final Map<String, CodePattern> codePatterns = new HashMap<>();
+    private final Map<String, BitSet> recipesByCode = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the exactly matching groups keyed by the old and new elements representations. The null keys stand for
+     * the unspecified elements. Several groups can match the same pair of representations, e.g. if the recipes use
+     * different forms of the exact match.
+     */
+    private final Map<String, Map<String, BitSet>> exactGroups = new HashMap<>();
+
+    /**
+     * The groups that need to track the traversal using the tree filters.
+     */
+    private final BitSet filteredGroups = new BitSet();
+
+    /**
+     * The recipes that either match any elements or need to be checked by their filtered groups.
+     */
+    private final BitSet recipesNotMatchedExactly = new BitSet();
+
+    RecipeIndex(List<DifferenceMatchRecipe> recipes) {
+        this.recipes = recipes;
+        this.groupOfRecipe = new int[recipes.size()];
+
+        Map<List<Object>, Integer> groupIds = new HashMap<>();
+
+        for (int i = 0; i < recipes.size(); ++i) {
+            DifferenceMatchRecipe r = recipes.get(i);
+
+            if (r.codeRegex == null) {
+                recipesByExactCode.computeIfAbsent(r.code, __ -> new BitSet()).set(i);
+            } else {
+                codePatterns.computeIfAbsent(r.codeRegex.pattern(), __ -> new CodePattern(r.codeRegex)).recipes.set(i);
+            }
+
+            boolean exact = isMatchedExactly(r);
+
+            List<Object> groupKey = Arrays.asList(r.regex, r.config.path("old"), r.config.path("new"));
+            Integer group = groupIds.get(groupKey);
+            if (group == null) {
+                group = recipesOfGroup.size();
+                groupIds.put(groupKey, group);
+                recipesOfGroup.add(new BitSet());
+
+                if (exact) {
+                    exactGroups.computeIfAbsent(r.oldExactMatch, __ -> new HashMap<>())
+                            .computeIfAbsent(r.newExactMatch, __ -> new BitSet()).set(group);
+                } else if (r.oldRecipe != null || r.newRecipe != null) {
+                    filteredGroups.set(group);
+                }
+            }
+
+            groupOfRecipe[i] = group;
+            recipesOfGroup.get(group).set(i);
+            if (!exact) {
+                recipesNotMatchedExactly.set(i);
+            }
+        }
+    }
+
+    /**
+     * @return true if the recipe specifies at least one of the elements and matches all the specified elements by their
+     *         exact full human readable representations
+     */
+    private static boolean isMatchedExactly(DifferenceMatchRecipe r) {
+        return (r.oldRecipe != null || r.newRecipe != null) && (r.oldRecipe == null || r.oldExactMatch != null)
+                && (r.newRecipe == null || r.newExactMatch != null);
+    }
+
+    <E extends Element<E>> Traversal<E> startTraversal(ArchiveAnalyzer<E> oldArchiveAnalyzer,
+            ArchiveAnalyzer<E> newArchiveAnalyzer) {
+        return new Traversal<>(oldArchiveAnalyzer, newArchiveAnalyzer);
+    }
+
+    private BitSet getRecipesByCode(String code) {
+        BitSet ret = recipesByCode.get(code);
+        if (ret == null) {
+            ret = recipesByCode.computeIfAbsent(code, c -> {
+                BitSet matching = new BitSet(recipes.size());
+                BitSet exact = recipesByExactCode.get(c);
+                if (exact != null) {
+                    matching.or(exact);
+                }
+
+                for (CodePattern p : codePatterns.values()) {
+                    if (p.pattern.matcher(c).matches()) {
+                        matching.or(p.recipes);
+                    }
+                }
+
+                return matching;
+            });
+        }
+
+        return ret;
+    }
+
+    /**
+     * The recipes sharing the same code regex.
+     */
+    private static final class CodePattern {
+        final Pattern pattern;
+        final BitSet recipes = new BitSet();
+
+        CodePattern(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * Tracks the traversal of the elements for all the recipes in the index and finds the recipes matching the
+     * differences found during it.
+     */
+    final class Traversal<E extends Element<E>> implements DifferenceTransform.TraversalTracker<E> {
+        private final MatchingProgress<E>[] progresses;
+        private final List<MatchingProgress<E>> groupTrackers = new ArrayList<>();
+        private final Map<E, Map<E, BitSet>> exactlyMatchingElementPairs = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private Traversal(ArchiveAnalyzer<E> oldArchiveAnalyzer, ArchiveAnalyzer<E> newArchiveAnalyzer) {
+            progresses = (MatchingProgress<E>[]) new MatchingProgress[recipes.size()];
+
+            for (int g = 0; g < recipesOfGroup.size(); ++g) {
+                BitSet members = recipesOfGroup.get(g);
+
+                // the recipes in the group share the filters of the first of them
+                int first = members.nextSetBit(0);
+                MatchingProgress<E> leader = recipes.get(first).startWithAnalyzers(oldArchiveAnalyzer,
+                        newArchiveAnalyzer);
+                progresses[first] = leader;
+
+                for (int i = members.nextSetBit(first + 1); i >= 0; i = members.nextSetBit(i + 1)) {
+                    progresses[i] = recipes.get(i).createMatchingProgress(leader.oldFilter, leader.newFilter);
+                }
+
+                groupTrackers.add(filteredGroups.get(g) ? leader : null);
+            }
+        }
+
+        @Override
+        public boolean startElements(@Nullable E oldElement, @Nullable E newElement) {
+            if (!exactGroups.isEmpty()) {
+                BitSet groups = findExactGroups(oldElement, newElement);
+                if (groups != null) {
+                    exactlyMatchingElementPairs.computeIfAbsent(oldElement, __ -> new HashMap<>()).merge(newElement,
+                            groups, (a, b) -> {
+                                a.or(b);
+                                return a;
+                            });
+                }
+            }
+
+            for (MatchingProgress<E> t : groupTrackers) {
+                if (t != null) {
+                    t.startElements(oldElement, newElement);
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public void endElements(@Nullable E oldElement, @Nullable E newElement) {
+            for (MatchingProgress<E> t : groupTrackers) {
+                if (t != null) {
+                    t.endElements(oldElement, newElement);
+                }
+            }
+        }
+
+        @Override
+        public void endTraversal() {
+            for (MatchingProgress<E> t : groupTrackers) {
+                if (t != null) {
+                    t.endTraversal();
+                }
+            }
+        }
+
+        /**
+         * Finds the first recipe matching the difference found on the provided elements.
+         *
+         * @return the matching progress of the first matching recipe or null if there is none
+         */
+        @Nullable
+        MatchingProgress<E> findMatch(Difference difference, @Nullable Element<?> oldElement,
+                @Nullable Element<?> newElement) {
+            BitSet byCode = getRecipesByCode(difference.code);
+            if (byCode.isEmpty()) {
+                return null;
+            }
+
+            BitSet candidates = (BitSet) recipesNotMatchedExactly.clone();
+
+            // the exact matches of the elements or any of their parents
+            Element<?> o = oldElement;
+            Element<?> n = newElement;
+            do {
+                Map<E, BitSet> news = exactlyMatchingElementPairs.get(o);
+                BitSet groups = news == null ? null : news.get(n);
+                if (groups != null) {
+                    for (int g = groups.nextSetBit(0); g >= 0; g = groups.nextSetBit(g + 1)) {
+                        candidates.or(recipesOfGroup.get(g));
+                    }
+                }
+
+                o = o == null ? null : o.getParent();
+                n = n == null ? null : n.getParent();
+            } while (o != null || n != null);
+
+            candidates.and(byCode);
+
+            BitSet checkedGroups = null;
+            BitSet matchingGroups = null;
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                int g = groupOfRecipe[i];
+                MatchingProgress<E> tracker = groupTrackers.get(g);
+                if (tracker != null) {
+                    if (checkedGroups == null) {
+                        checkedGroups = new BitSet();
+                        matchingGroups = new BitSet();
+                    }
+
+                    if (!checkedGroups.get(g)) {
+                        checkedGroups.set(g);
+                        matchingGroups.set(g, tracker.matchesElements(oldElement, newElement));
+                    }
+
+                    if (!matchingGroups.get(g)) {
+                        continue;
+                    }
+                }
+
+                MatchingProgress<E> progress = progresses[i];
+                if (progress.matchesAttachments(difference)) {
+                    return progress;
+                }
+            }
+
+            return null;
+        }
+
+        @Nullable
+        private BitSet findExactGroups(@Nullable E oldElement, @Nullable E newElement) {
+            String oldString = oldElement == null ? null : oldElement.getFullHumanReadableString();
+            String newString = newElement == null ? null : newElement.getFullHumanReadableString();
+
+            BitSet ret = null;
+            if (oldString != null) {
+                ret = addExactGroups(ret, exactGroups.get(oldString), newString);
+            }
+
+            return addExactGroups(ret, exactGroups.get(null), newString);
+        }
+
+        @Nullable
+        private BitSet addExactGroups(@Nullable BitSet groups, @Nullable Map<String, BitSet> byNewString,
+                @Nullable String newString) {
+            if (byNewString == null) {
+                return groups;
+            }
+
+            if (newString != null) {
+                groups = addGroups(groups, byNewString.get(newString));
+            }
+
+            return addGroups(groups, byNewString.get(null));
+        }
+
+        @Nullable
+        private BitSet addGroups(@Nullable BitSet groups, @Nullable BitSet added) {
+            if (added == null) {
+                return groups;
+            }
+
+            if (groups == null) {
+                groups = new BitSet();
+            }
+
+            groups.or(added);
+            return groups;
+        }
+    }
+}
@@ -39,6 +39,7 @@ import static org.revapi.DifferenceSeverity.POTENTIALLY_BREAKING;
 import java.util.Optional;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Test;
@@ -445,6 +446,81 @@ public class DifferencesTransformTest {
         assertEquals("matched", res.getDifferences().iterator().next().justification);
     }
 
+    @Test
+    public void testFirstMatchingRecipeWinsWithManyRecipes() throws Exception {
+        ArrayNode differences = JsonNodeFactory.instance.arrayNode();
+        differences.add(JsonNodeFactory.instance.objectNode().put("regex", true).put("code", "co.e")
+                .put("old", "el-9.*").put("justification", "regex"));
+        for (int i = 0; i < 1000; ++i) {
+            differences.add(JsonNodeFactory.instance.objectNode().put("code", "code").put("old", "el-" + i)
+                    .put("justification", "exact-" + i));
+        }
+        differences.add(JsonNodeFactory.instance.objectNode().put("code", "code").put("old", "el-500")
+                .put("justification", "duplicate"));
+        differences.add(JsonNodeFactory.instance.objectNode().put("code", "code").put("justification", "any"));
+
+        DifferencesTransform<DummyElement> tr = new DifferencesTransform<>();
+        tr.initialize(context(JsonNodeFactory.instance.objectNode().set("differences", differences)));
+
+        DummyElement el500 = mock(DummyElement.class);
+        when(el500.getFullHumanReadableString()).thenReturn("el-500");
+        DummyElement el950 = mock(DummyElement.class);
+        when(el950.getFullHumanReadableString()).thenReturn("el-950");
+        DummyElement el2000 = mock(DummyElement.class);
+        when(el2000.getFullHumanReadableString()).thenReturn("el-2000");
+
+        tr.startTraversal((ApiAnalyzer<DummyElement>) null, null, null).ifPresent(r -> {
+            for (DummyElement e : new DummyElement[] { el500, el950, el2000 }) {
+                r.startElements(e, newEl);
+                r.endElements(e, newEl);
+            }
+            r.endTraversal();
+        });
+
+        assertEquals("exact-500", transformedJustification(tr, el500, "code"));
+        assertEquals("regex", transformedJustification(tr, el950, "code"));
+        assertEquals("any", transformedJustification(tr, el2000, "code"));
+        assertNull(transformedJustification(tr, el500, "other"));
+    }
+
+    @Test
+    public void testExactMatchesInDifferentFormsOnSameElement() throws Exception {
+        ArrayNode differences = JsonNodeFactory.instance.arrayNode();
+        differences.add(
+                JsonNodeFactory.instance.objectNode().put("code", "a").put("old", "el").put("justification", "text"));
+        ObjectNode old = JsonNodeFactory.instance.objectNode().put("matcher", "exact").put("match", "el");
+        differences.add(
+                JsonNodeFactory.instance.objectNode().put("code", "b").put("justification", "matcher").set("old", old));
+
+        DifferencesTransform<DummyElement> tr = new DifferencesTransform<>();
+        tr.initialize(context(JsonNodeFactory.instance.objectNode().set("differences", differences))
+                .copyWithMatchers(singleton(new ExactElementMatcher())));
+
+        when(oldEl.getFullHumanReadableString()).thenReturn("el");
+
+        tr.startTraversal((ApiAnalyzer<DummyElement>) null, null, null).ifPresent(r -> {
+            r.startElements(oldEl, newEl);
+            r.endElements(oldEl, newEl);
+            r.endTraversal();
+        });
+
+        assertEquals("text", transformedJustification(tr, oldEl, "a"));
+        assertEquals("matcher", transformedJustification(tr, oldEl, "b"));
+    }
+
+    private String transformedJustification(DifferencesTransform<DummyElement> tr, DummyElement oldElement,
+            String code) {
+        TransformationResult res = tr.tryTransform(oldElement, newEl, Difference.builder().withCode(code).build());
+        if (res.getResolution() == TransformationResult.Resolution.KEEP) {
+            return null;
+        }
+
+        assertEquals(TransformationResult.Resolution.REPLACE, res.getResolution());
+        assertNotNull(res.getDifferences());
+        assertEquals(1, res.getDifferences().size());
+        return res.getDifferences().iterator().next().justification;
+    }
+
     private static AnalysisContext context(JsonNode configuration) {
         return AnalysisContext.builder().withOldAPI(EMPTY_API).withNewAPI(EMPTY_API).build()
                 .copyWithConfiguration(configuration);
@@ -28,16 +28,26 @@ import javax.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.revapi.API;
 import org.revapi.AnalysisContext;
 import org.revapi.CorrespondenceComparatorDeducer;
 import org.revapi.base.BaseApiAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public abstract class JacksonApiAnalyzer<E extends JacksonElement<E>> extends BaseApiAnalyzer<E> {
+    private static final Logger LOG = LoggerFactory.getLogger(JacksonApiAnalyzer.class);
+
     @Nullable
     protected Pattern pathMatcher;
     protected Charset charset;
     protected final ObjectMapper objectMapper;
+    protected boolean skipIdenticalSubtrees;
     private final CorrespondenceComparatorDeducer<E> arrayDiff;
+    private @Nullable API oldApi;
+    private @Nullable API newApi;
+    private @Nullable JacksonArchiveAnalyzer<E> oldArchiveAnalyzer;
+    private @Nullable JacksonArchiveAnalyzer<E> newArchiveAnalyzer;
 
     public JacksonApiAnalyzer(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -56,6 +66,7 @@ public abstract class JacksonApiAnalyzer<E extends JacksonElement<E>> extends Ba
     public void initialize(AnalysisContext analysisContext) {
         JsonNode charsetNode = analysisContext.getConfigurationNode().path("charset");
         JsonNode pattern = analysisContext.getConfigurationNode().path("pathRegex");
+        JsonNode skipIdentical = analysisContext.getConfigurationNode().path("skipIdenticalSubtrees");
 
         if (charsetNode.isTextual()) {
             this.charset = Charset.forName(charsetNode.asText());
@@ -64,6 +75,64 @@ public abstract class JacksonApiAnalyzer<E extends JacksonElement<E>> extends Ba
         if (pattern.isTextual()) {
             this.pathMatcher = Pattern.compile(pattern.asText());
         }
+
+        this.skipIdenticalSubtrees = skipIdentical.asBoolean(false);
+
+        synchronized (this) {
+            this.oldApi = analysisContext.getOldApi();
+            this.newApi = analysisContext.getNewApi();
+            this.oldArchiveAnalyzer = null;
+            this.newArchiveAnalyzer = null;
+        }
+    }
+
+    /**
+     * Called by the archive analyzers created by this API analyzer so that the analyzers of the old and new API can
+     * find each other. The first archive analyzer created for the old API of the analysis is paired with the first one
+     * created for the new API. Any other archive analyzer is left without a counterpart.
+     * <p>
+     * This only remembers the archive analyzer, it doesn't call any of its methods, so it is safe to call from its
+     * constructor.
+     */
+    synchronized void register(JacksonArchiveAnalyzer<E> archiveAnalyzer) {
+        API api = archiveAnalyzer.getApi();
+        if (oldArchiveAnalyzer == null && api == oldApi) {
+            oldArchiveAnalyzer = archiveAnalyzer;
+        } else if (newArchiveAnalyzer == null && api == newApi) {
+            newArchiveAnalyzer = archiveAnalyzer;
+        }
+    }
+
+    /**
+     * If configured to skip the identical subtrees, the archive analyzers of the old and new API compare the parsed
+     * documents with each other and don't create the elements for the subtrees that are the same in both of them. Such
+     * elements could never produce any difference anyway.
+     *
+     * @param archiveAnalyzer
+     *            the archive analyzer to find the counterpart of
+     *
+     * @return the archive analyzer of the other API or null if identical subtrees should not be skipped or the archive
+     *         analyzer is not paired with any other
+     */
+    @Nullable
+    synchronized JacksonArchiveAnalyzer<E> getCounterpart(JacksonArchiveAnalyzer<E> archiveAnalyzer) {
+        if (!skipIdenticalSubtrees) {
+            return null;
+        }
+
+        JacksonArchiveAnalyzer<E> ret = null;
+        if (archiveAnalyzer == oldArchiveAnalyzer) {
+            ret = newArchiveAnalyzer;
+        } else if (archiveAnalyzer == newArchiveAnalyzer) {
+            ret = oldArchiveAnalyzer;
+        }
+
+        if (ret == null) {
+            LOG.warn("Could not find the archive analyzer of the other API to pair {} of {} with. The identical"
+                    + " subtrees will not be skipped.", archiveAnalyzer, archiveAnalyzer.getApi());
+        }
+
+        return ret;
     }
 
     @Override
@@ -92,6 +161,10 @@ public abstract class JacksonApiAnalyzer<E extends JacksonElement<E>> extends Ba
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        oldApi = null;
+        newApi = null;
+        oldArchiveAnalyzer = null;
+        newArchiveAnalyzer = null;
     }
 }
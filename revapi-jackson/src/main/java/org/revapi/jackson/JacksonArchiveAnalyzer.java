@@ -17,6 +17,7 @@
 package org.revapi.jackson;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 
@@ -25,9 +26,19 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
-import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.ZipEntry;
 
 import javax.annotation.Nullable;
@@ -46,11 +57,20 @@ public abstract class JacksonArchiveAnalyzer<E extends JacksonElement<E>>
     private final ObjectMapper objectMapper;
     private final Charset charset;
 
+    // the state used when skipping the identical subtrees, see JacksonApiAnalyzer#getCounterpart
+    private final Map<TreeNode, Long> subtreeHashes = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<TreeNode, TreeNode> counterpartNodes = new IdentityHashMap<>();
+    private @Nullable ParsedApi<E> parsedApi;
+    private boolean counterpartResolved;
+    private @Nullable JacksonArchiveAnalyzer<E> counterpart;
+    private volatile boolean finished;
+
     protected JacksonArchiveAnalyzer(JacksonApiAnalyzer<E> apiAnalyzer, API api, @Nullable Pattern pathMatcher,
             ObjectMapper objectMapper, Charset charset) {
         super(apiAnalyzer, api, pathMatcher == null ? emptyList() : singletonList(pathMatcher));
         this.objectMapper = objectMapper.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
         this.charset = charset;
+        apiAnalyzer.register(this);
     }
 
     @Override
@@ -58,53 +78,229 @@ public abstract class JacksonArchiveAnalyzer<E extends JacksonElement<E>>
         return new BaseElementForest<>(getApi());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The files are parsed by the thread-safe object mapper, so this returns true. The subclasses need to make sure
+     * that their {@code toElement} methods can be called concurrently, too.
+     */
+    @Override
+    protected boolean isParallelEntryParsingSupported() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * If {@link JacksonApiAnalyzer#getCounterpart(JacksonArchiveAnalyzer) skipping the identical subtrees} is enabled,
+     * the files that are identical in both APIs are left out.
+     */
+    @Override
+    protected Set<E> createElements(Archive archive) {
+        JacksonArchiveAnalyzer<E> counterpart = getCounterpart();
+        if (counterpart == null) {
+            return super.createElements(archive);
+        }
+
+        ParsedApi<E> mine = getParsedApi();
+        ParsedApi<E> theirs = counterpart.getParsedApi();
+
+        Set<E> ret = new HashSet<>();
+        for (E root : mine.rootsByArchive.getOrDefault(archive, emptySet())) {
+            E other = mine.ambiguousPaths.contains(root.filePath) ? null : theirs.rootsByPath.get(root.filePath);
+            if (other != null) {
+                if (isIdentical(root.node, counterpart, other.node)) {
+                    continue;
+                }
+                rememberCounterpart(root.node, other.node);
+            }
+            ret.add(root);
+        }
+
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * This implementation only creates the root element of the parsed file. The elements are created from the parsed
+     * tree only once the tree filter descends into their parent, see {@link #discoverElements(Object, JacksonElement)}.
+     */
     @Override
     protected Set<E> createElements(Archive a, @Nullable ZipEntry entry, InputStream data) throws IOException {
         JsonNode tree = parseStream(data);
         String filePath = entry == null ? a.getName() : entry.getName();
 
-        E root = toElement(a, filePath, tree, filePath);
+        return singleton(toElement(a, filePath, tree, filePath));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The children are created on demand from the parsed tree node of the parent.
+     */
+    @Override
+    protected Stream<E> discoverElements(@Nullable Object context, E parent) {
+        TreeNode tree = parent.node;
+        TreeNode otherTree = counterpartNodes.remove(tree);
         if (tree.isArray()) {
-            for (int idx = 0; idx < tree.size(); ++idx) {
-                add(a, root.filePath, root.getChildren(), tree.get(idx), idx);
-            }
+            // the array items are paired using the edit distance of the whole arrays, so we cannot leave out any of
+            // them
+            return IntStream.range(0, tree.size())
+                    .mapToObj(idx -> toElement(parent.getArchive(), parent.filePath, tree.get(idx), idx));
         } else if (tree.isObject()) {
-            tree.fieldNames().forEachRemaining(f -> add(a, root.filePath, root.getChildren(), tree.get(f), f));
+            Stream<String> fields = StreamSupport
+                    .stream(Spliterators.spliterator(tree.fieldNames(), tree.size(), Spliterator.ORDERED), false);
+
+            JacksonArchiveAnalyzer<E> counterpart = otherTree == null ? null : getCounterpart();
+            if (counterpart != null) {
+                fields = fields.filter(f -> {
+                    TreeNode child = tree.get(f);
+                    TreeNode otherChild = otherTree.get(f);
+                    if (otherChild == null) {
+                        return true;
+                    }
+
+                    if (isIdentical(child, counterpart, otherChild)) {
+                        return false;
+                    }
+
+                    rememberCounterpart(child, otherChild);
+                    return true;
+                });
+            }
+
+            return fields.map(f -> toElement(parent.getArchive(), parent.filePath, tree.get(f), f));
+        } else {
+            return Stream.empty();
         }
+    }
+
+    @Override
+    protected void postAnalyze(@Nullable Object context) {
+        counterpartNodes.clear();
+        finished = true;
 
-        return singleton(root);
+        JacksonArchiveAnalyzer<E> counterpart = getCounterpart();
+        if (counterpart != null && counterpart.finished) {
+            // both analyzers are done with the parsed documents and their hashes
+            releaseParsedApi();
+            counterpart.releaseParsedApi();
+        }
     }
 
-    private JsonNode parseStream(InputStream data) throws IOException {
-        Reader rdr = new InputStreamReader(data, charset);
-        return objectMapper.readTree(rdr);
+    /**
+     * The counterpart is only looked up once per analyzer so that a failure to find it is only reported once.
+     */
+    @Nullable
+    private synchronized JacksonArchiveAnalyzer<E> getCounterpart() {
+        if (!counterpartResolved) {
+            @SuppressWarnings("unchecked")
+            JacksonApiAnalyzer<E> apiAnalyzer = (JacksonApiAnalyzer<E>) getApiAnalyzer();
+            counterpart = apiAnalyzer.getCounterpart(this);
+            counterpartResolved = true;
+        }
+
+        return counterpart;
     }
 
-    private void add(E el, SortedSet<E> siblings) {
-        siblings.add(el);
+    /**
+     * Parses all the files of the API once. The parsed roots are used by both this analyzer and its counterpart.
+     */
+    private synchronized ParsedApi<E> getParsedApi() {
+        if (parsedApi == null) {
+            ParsedApi<E> parsed = new ParsedApi<>();
+            for (Archive archive : getApi().getArchives()) {
+                Set<E> roots = super.createElements(archive);
+                parsed.rootsByArchive.put(archive, roots);
+                for (E root : roots) {
+                    if (parsed.rootsByPath.putIfAbsent(root.filePath, root) != null) {
+                        parsed.ambiguousPaths.add(root.filePath);
+                    }
+                }
+            }
+            parsed.rootsByPath.keySet().removeAll(parsed.ambiguousPaths);
+            parsedApi = parsed;
+        }
 
-        TreeNode tree = el.node;
-        if (tree.isArray()) {
-            for (int idx = 0; idx < tree.size(); ++idx) {
-                add(el.getArchive(), el.filePath, el.getChildren(), tree.get(idx), idx);
+        return parsedApi;
+    }
+
+    private synchronized void releaseParsedApi() {
+        parsedApi = null;
+        subtreeHashes.clear();
+    }
+
+    private void rememberCounterpart(TreeNode node, TreeNode otherNode) {
+        // only the objects are looked into for identical subtrees
+        if (node.isObject() && otherNode.isObject()) {
+            counterpartNodes.put(node, otherNode);
+        }
+    }
+
+    private boolean isIdentical(TreeNode node, JacksonArchiveAnalyzer<E> counterpart, TreeNode otherNode) {
+        return hashOf(node) == counterpart.hashOf(otherNode) && node.equals(otherNode);
+    }
+
+    /**
+     * A structural hash of the subtree that is stable between the two parsed documents. The hashes of the container
+     * nodes are remembered so that each subtree is only hashed once during the whole analysis.
+     */
+    private long hashOf(TreeNode node) {
+        if (!node.isContainerNode()) {
+            return mix(node.hashCode());
+        }
+
+        Long cached = subtreeHashes.get(node);
+        if (cached != null) {
+            return cached;
+        }
+
+        long hash;
+        if (node.isArray()) {
+            hash = 1;
+            for (int i = 0; i < node.size(); ++i) {
+                hash = mix(hash * 31 + hashOf(node.get(i)));
+            }
+        } else {
+            // the order of the fields doesn't make a difference in the equality of the objects
+            hash = 2;
+            Iterator<String> it = node.fieldNames();
+            while (it.hasNext()) {
+                String field = it.next();
+                hash += mix(field.hashCode() * 31L + hashOf(node.get(field)));
             }
-        } else if (tree.isObject()) {
-            tree.fieldNames()
-                    .forEachRemaining(f -> add(el.getArchive(), el.filePath, el.getChildren(), tree.get(f), f));
         }
+
+        subtreeHashes.put(node, hash);
+        return hash;
     }
 
-    private void add(Archive archive, String filePath, SortedSet<E> siblings, TreeNode tree, String keyInParent) {
-        E el = toElement(archive, filePath, tree, keyInParent);
-        add(el, siblings);
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
     }
 
-    private void add(Archive archive, String filePath, SortedSet<E> siblings, TreeNode tree, int indexInParent) {
-        E el = toElement(archive, filePath, tree, indexInParent);
-        add(el, siblings);
+    private JsonNode parseStream(InputStream data) throws IOException {
+        Reader rdr = new InputStreamReader(data, charset);
+        return objectMapper.readTree(rdr);
     }
 
     protected abstract E toElement(Archive archive, String filePath, TreeNode node, String keyInParent);
 
     protected abstract E toElement(Archive archive, String filePath, TreeNode node, int indexInParent);
+
+    private static final class ParsedApi<E> {
+        final Map<Archive, Set<E>> rootsByArchive = new HashMap<>();
+        final Map<String, E> rootsByPath = new HashMap<>();
+        final Set<String> ambiguousPaths = new HashSet<>();
+    }
 }
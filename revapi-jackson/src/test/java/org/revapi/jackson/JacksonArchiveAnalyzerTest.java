@@ -16,14 +16,22 @@
  */
 package org.revapi.jackson;
 
+import static java.util.Collections.emptyMap;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -33,7 +41,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import org.junit.jupiter.api.Test;
 import org.revapi.API;
+import org.revapi.AnalysisContext;
 import org.revapi.Archive;
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.DifferenceAnalyzer;
+import org.revapi.FilterFinishResult;
+import org.revapi.FilterStartResult;
+import org.revapi.Ternary;
 import org.revapi.TreeFilter;
 import org.revapi.base.BaseElementForest;
 import org.revapi.base.InputStreamArchive;
@@ -109,6 +123,134 @@ class JacksonArchiveAnalyzerTest {
         assertEquals(JsonNodeFactory.instance.arrayNode().add(1).add(2).add(true), it.next().getNode());
     }
 
+    @Test
+    void testCreatesChildrenOnlyWhenDescending() {
+        API api = API
+                .of(new InputStreamArchive("object",
+                        () -> new ByteArrayInputStream(
+                                "{\"a\": {\"x\": [1, 2]}, \"b\": {\"y\": [3, 4]}}".getBytes(StandardCharsets.UTF_8))))
+                .build();
+
+        @SuppressWarnings("unchecked")
+        TestAnalyzer analyzer = new TestAnalyzer(mock(JacksonApiAnalyzer.class), api, null, new ObjectMapper(),
+                StandardCharsets.UTF_8);
+
+        BaseElementForest<TestElement> forest = analyzer.analyze(new TreeFilter<TestElement>() {
+            @Override
+            public FilterStartResult start(TestElement element) {
+                return FilterStartResult.direct(Ternary.TRUE, Ternary.fromBoolean(!"b".equals(element.keyInParent)));
+            }
+
+            @Override
+            public FilterFinishResult finish(TestElement element) {
+                return FilterFinishResult.matches();
+            }
+
+            @Override
+            public Map<TestElement, FilterFinishResult> finish() {
+                return emptyMap();
+            }
+        });
+
+        // root, a, a/x, a/x/0, a/x/1 and b
+        assertEquals(6, analyzer.createdElements);
+
+        TestElement root = forest.getRoots().first();
+        assertEquals(2, root.getChildren().size());
+
+        TestElement a = root.getChildren().first();
+        assertEquals("/a", a.getPath());
+        assertEquals(2, a.getChildren().first().getChildren().size());
+        assertEquals("/a/x/1", a.getChildren().first().getChildren().last().getPath());
+
+        TestElement b = root.getChildren().last();
+        assertEquals("/b", b.getPath());
+        assertTrue(b.getChildren().isEmpty());
+    }
+
+    @Test
+    void testSkipsIdenticalSubtrees() {
+        API oldApi = API.of(
+                new InputStreamArchive("same",
+                        () -> new ByteArrayInputStream("{\"a\": [1, 2]}".getBytes(StandardCharsets.UTF_8))),
+                new InputStreamArchive("object", () -> new ByteArrayInputStream(
+                        "{\"a\": {\"x\": [1, 2]}, \"b\": {\"y\": [3, 4]}, \"c\": 1}".getBytes(StandardCharsets.UTF_8))))
+                .build();
+        API newApi = API.of(
+                new InputStreamArchive("same",
+                        () -> new ByteArrayInputStream("{\"a\": [1, 2]}".getBytes(StandardCharsets.UTF_8))),
+                new InputStreamArchive("object", () -> new ByteArrayInputStream(
+                        "{\"b\": {\"y\": [3, 4]}, \"a\": {\"x\": [1, 3]}, \"c\": 2}".getBytes(StandardCharsets.UTF_8))))
+                .build();
+
+        @SuppressWarnings("unchecked")
+        JacksonApiAnalyzer<TestElement> apiAnalyzer = mock(JacksonApiAnalyzer.class);
+
+        TestAnalyzer oldAnalyzer = new TestAnalyzer(apiAnalyzer, oldApi, null, new ObjectMapper(),
+                StandardCharsets.UTF_8);
+        TestAnalyzer newAnalyzer = new TestAnalyzer(apiAnalyzer, newApi, null, new ObjectMapper(),
+                StandardCharsets.UTF_8);
+
+        when(apiAnalyzer.getCounterpart(oldAnalyzer)).thenReturn(newAnalyzer);
+        when(apiAnalyzer.getCounterpart(newAnalyzer)).thenReturn(oldAnalyzer);
+
+        BaseElementForest<TestElement> oldForest = oldAnalyzer.analyze(TreeFilter.matchAndDescend());
+        BaseElementForest<TestElement> newForest = newAnalyzer.analyze(TreeFilter.matchAndDescend());
+
+        for (BaseElementForest<TestElement> forest : Arrays.asList(oldForest, newForest)) {
+            // the identical file is left out
+            assertEquals(1, forest.getRoots().size());
+
+            TestElement root = forest.getRoots().first();
+            assertEquals("object", root.filePath);
+
+            // "b" is the same in both files
+            assertEquals(2, root.getChildren().size());
+            Iterator<TestElement> it = root.getChildren().iterator();
+            TestElement a = it.next();
+            assertEquals("/a", a.getPath());
+            assertEquals("/c", it.next().getPath());
+
+            // all the array items are kept so that they can be paired
+            TestElement x = a.getChildren().first();
+            assertEquals(2, x.getChildren().size());
+        }
+
+        // the roots of both files, a, a/x, a/x/0, a/x/1 and c
+        assertEquals(7, oldAnalyzer.createdElements);
+        assertEquals(7, newAnalyzer.createdElements);
+    }
+
+    @Test
+    void testPairsOnlyTheFirstArchiveAnalyzersOfOldAndNewApi() {
+        API oldApi = API.of(new InputStreamArchive("same",
+                () -> new ByteArrayInputStream("{\"a\": [1, 2]}".getBytes(StandardCharsets.UTF_8)))).build();
+        API newApi = API.of(new InputStreamArchive("same",
+                () -> new ByteArrayInputStream("{\"a\": [1, 2]}".getBytes(StandardCharsets.UTF_8)))).build();
+
+        TestApiAnalyzer apiAnalyzer = new TestApiAnalyzer();
+        apiAnalyzer.initialize(AnalysisContext.builder().withOldAPI(oldApi).withNewAPI(newApi).build()
+                .copyWithConfiguration(JsonNodeFactory.instance.objectNode().put("skipIdenticalSubtrees", true)));
+
+        TestAnalyzer oldAnalyzer = apiAnalyzer.getArchiveAnalyzer(oldApi);
+        TestAnalyzer newAnalyzer = apiAnalyzer.getArchiveAnalyzer(newApi);
+        TestAnalyzer thirdAnalyzer = apiAnalyzer.getArchiveAnalyzer(newApi);
+
+        assertSame(newAnalyzer, apiAnalyzer.getCounterpart(oldAnalyzer));
+        assertSame(oldAnalyzer, apiAnalyzer.getCounterpart(newAnalyzer));
+        assertNull(apiAnalyzer.getCounterpart(thirdAnalyzer));
+
+        // the analyzer without a counterpart cannot skip anything
+        assertEquals(1, thirdAnalyzer.analyze(TreeFilter.matchAndDescend()).getRoots().size());
+        assertEquals(0, oldAnalyzer.analyze(TreeFilter.matchAndDescend()).getRoots().size());
+        assertEquals(0, newAnalyzer.analyze(TreeFilter.matchAndDescend()).getRoots().size());
+
+        apiAnalyzer.close();
+
+        assertNull(apiAnalyzer.getCounterpart(oldAnalyzer));
+        assertNull(apiAnalyzer.getCounterpart(newAnalyzer));
+    }
+
     private static final class TestElement extends JacksonElement<TestElement> {
         public TestElement(API api, Archive archive, String filePath, TreeNode node, String key) {
             super(api, archive, filePath, node, key);
@@ -119,7 +261,30 @@ class JacksonArchiveAnalyzerTest {
         }
     }
 
+    private static final class TestApiAnalyzer extends JacksonApiAnalyzer<TestElement> {
+        TestApiAnalyzer() {
+            super(new ObjectMapper());
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "test";
+        }
+
+        @Override
+        public TestAnalyzer getArchiveAnalyzer(API api) {
+            return new TestAnalyzer(this, api, pathMatcher, objectMapper, charset);
+        }
+
+        @Override
+        public DifferenceAnalyzer<TestElement> getDifferenceAnalyzer(ArchiveAnalyzer<TestElement> oldArchive,
+                ArchiveAnalyzer<TestElement> newArchive) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private static final class TestAnalyzer extends JacksonArchiveAnalyzer<TestElement> {
+        int createdElements;
 
         TestAnalyzer(JacksonApiAnalyzer<TestElement> apiAnalyzer, API api, Pattern pathMatcher,
                 ObjectMapper objectMapper, Charset charset) {
@@ -128,11 +293,13 @@ class JacksonArchiveAnalyzerTest {
 
         @Override
         protected TestElement toElement(Archive archive, String filePath, TreeNode node, String keyInParent) {
+            createdElements++;
             return new TestElement(getApi(), archive, filePath, node, keyInParent);
         }
 
         @Override
         protected TestElement toElement(Archive archive, String filePath, TreeNode node, int indexInParent) {
+            createdElements++;
             return new TestElement(getApi(), archive, filePath, node, indexInParent);
         }
     }
@@ -16,6 +16,8 @@
  */
 package org.revapi.java.spi;
 
+import java.util.List;
+
 import javax.annotation.Nonnull;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
@@ -116,4 +118,83 @@ public interface TypeEnvironment {
             }
         }, null);
     }
+
+    /**
+     * Returns all the super classes of the provided type, as does {@link Util#getAllSuperClasses(Types, TypeMirror)}.
+     * The implementations are free to remember the results so that the hierarchies are not walked again by each check.
+     *
+     * @param type
+     *            the type from this environment
+     *
+     * @return the list of the super classes, which must not be modified
+     *
+     * @since 0.26.0
+     */
+    default List<TypeMirror> getAllSuperClasses(TypeMirror type) {
+        return Util.getAllSuperClasses(getTypeUtils(), type);
+    }
+
+    /**
+     * Returns all the super interfaces of the provided type, as does
+     * {@link Util#getAllSuperInterfaces(Types, TypeMirror)}. The implementations are free to remember the results so
+     * that the hierarchies are not walked again by each check.
+     *
+     * @param type
+     *            the type from this environment
+     *
+     * @return the list of the super interfaces, which must not be modified
+     *
+     * @since 0.26.0
+     */
+    default List<TypeMirror> getAllSuperInterfaces(TypeMirror type) {
+        return Util.getAllSuperInterfaces(getTypeUtils(), type);
+    }
+
+    /**
+     * Checks whether the provided type is a sub type of or is equal to one of the provided types, as does
+     * {@link Util#isSubtype(TypeMirror, List, Types)}. The super types can come from another type environment.
+     *
+     * @param type
+     *            the type from this environment
+     * @param superTypes
+     *            the supposed super types
+     *
+     * @return true if type is a sub type of one of the provided super types, false otherwise
+     *
+     * @since 0.26.0
+     */
+    default boolean isSubtype(TypeMirror type, List<? extends TypeMirror> superTypes) {
+        return Util.isSubtype(type, superTypes, getTypeUtils());
+    }
+
+    /**
+     * Returns the same string as {@link Util#toUniqueString(TypeMirror)}. The implementations are free to remember the
+     * strings of the types from this environment so that they're not constructed again each time they're needed.
+     *
+     * @param type
+     *            the type to convert to string
+     *
+     * @return the string representation of the type that is fit for equality comparisons
+     *
+     * @since 0.26.0
+     */
+    default String toUniqueString(TypeMirror type) {
+        return Util.toUniqueString(type);
+    }
+
+    /**
+     * Returns the same string as {@link Util#toHumanReadableString(javax.lang.model.AnnotatedConstruct)}. The
+     * implementations are free to remember the strings of the types from this environment so that they're not
+     * constructed again each time they're needed.
+     *
+     * @param type
+     *            the type to render
+     *
+     * @return a human readable representation of the type
+     *
+     * @since 0.26.0
+     */
+    default String toHumanReadableString(TypeMirror type) {
+        return Util.toHumanReadableString(type);
+    }
 }
@@ -16,6 +16,8 @@
  */
 package org.revapi.java;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -47,14 +49,34 @@ public final class AnalysisConfiguration {
     private final boolean ignoreMissingAnnotations;
     private final boolean matchOverloads;
     private final TreeFilter<JavaElement> filter;
+    private final @Nullable Path archiveCacheDirectory;
+    private final int archiveListingThreads;
+    private final @Nullable Path incrementalAnalysisCacheFile;
 
     AnalysisConfiguration(MissingClassReporting missingClassReporting, Set<String> useReportingCodes,
             boolean ignoreMissingAnnotations, boolean matchOverloads, @Nullable TreeFilter<JavaElement> filter) {
+        this(missingClassReporting, useReportingCodes, ignoreMissingAnnotations, matchOverloads, filter, null, 1);
+    }
+
+    AnalysisConfiguration(MissingClassReporting missingClassReporting, Set<String> useReportingCodes,
+            boolean ignoreMissingAnnotations, boolean matchOverloads, @Nullable TreeFilter<JavaElement> filter,
+            @Nullable Path archiveCacheDirectory, int archiveListingThreads) {
+        this(missingClassReporting, useReportingCodes, ignoreMissingAnnotations, matchOverloads, filter,
+                archiveCacheDirectory, archiveListingThreads, null);
+    }
+
+    AnalysisConfiguration(MissingClassReporting missingClassReporting, Set<String> useReportingCodes,
+            boolean ignoreMissingAnnotations, boolean matchOverloads, @Nullable TreeFilter<JavaElement> filter,
+            @Nullable Path archiveCacheDirectory, int archiveListingThreads,
+            @Nullable Path incrementalAnalysisCacheFile) {
         this.missingClassReporting = missingClassReporting;
         this.useReportingCodes = useReportingCodes;
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
         this.matchOverloads = matchOverloads;
         this.filter = filter;
+        this.archiveCacheDirectory = archiveCacheDirectory;
+        this.archiveListingThreads = archiveListingThreads;
+        this.incrementalAnalysisCacheFile = incrementalAnalysisCacheFile;
     }
 
     public static AnalysisConfiguration fromModel(JsonNode node) {
@@ -62,6 +84,9 @@ public final class AnalysisConfiguration {
         Set<String> useReportingCodes = readUseReportingCodes(node);
         boolean ignoreMissingAnnotations = readIgnoreMissingAnnotations(node);
         boolean matchOverloads = readMatchOverloads(node);
+        Path archiveCacheDirectory = readArchiveCacheDirectory(node);
+        int archiveListingThreads = node.path("archiveListingThreads").asInt(1);
+        Path incrementalAnalysisCacheFile = readIncrementalAnalysisCacheFile(node);
 
         JsonNode classesRegex = node.path("filter").path("classes").path("regex");
         JsonNode packagesRegex = node.path("filter").path("packages").path("regex");
@@ -99,7 +124,7 @@ public final class AnalysisConfiguration {
         }
 
         return new AnalysisConfiguration(reporting, useReportingCodes, ignoreMissingAnnotations, matchOverloads,
-                includeFilter);
+                includeFilter, archiveCacheDirectory, archiveListingThreads, incrementalAnalysisCacheFile);
     }
 
     public MissingClassReporting getMissingClassReporting() {
@@ -122,6 +147,31 @@ public final class AnalysisConfiguration {
         return matchOverloads;
     }
 
+    /**
+     * @return the directory to cache the archives handed over to the compiler in or null if the archives should not be
+     *         cached
+     */
+    @Nullable
+    public Path getArchiveCacheDirectory() {
+        return archiveCacheDirectory;
+    }
+
+    /**
+     * @return the number of threads to use for listing the classes in the primary archives
+     */
+    public int getArchiveListingThreads() {
+        return archiveListingThreads;
+    }
+
+    /**
+     * @return the file to store the state of the incremental analysis in or null if the analysis should not be
+     *         incremental
+     */
+    @Nullable
+    public Path getIncrementalAnalysisCacheFile() {
+        return incrementalAnalysisCacheFile;
+    }
+
     /**
      * @deprecated only supports the obsolete package and class name filtering before we can remove it.
      */
@@ -159,6 +209,16 @@ public final class AnalysisConfiguration {
         return analysisConfig.path("matchOverloads").asBoolean(true);
     }
 
+    private static @Nullable Path readArchiveCacheDirectory(JsonNode analysisConfig) {
+        JsonNode config = analysisConfig.path("archiveCache").path("directory");
+        return config.isTextual() ? Paths.get(config.asText()) : null;
+    }
+
+    private static @Nullable Path readIncrementalAnalysisCacheFile(JsonNode analysisConfig) {
+        JsonNode config = analysisConfig.path("incrementalAnalysis").path("cacheFile");
+        return config.isTextual() ? Paths.get(config.asText()) : null;
+    }
+
     private static @Nullable Set<String> readUseReportingCodes(JsonNode analysisConfig) {
         Set<String> ret = new HashSet<>(5);
         JsonNode config = analysisConfig.path("reportUsesFor");
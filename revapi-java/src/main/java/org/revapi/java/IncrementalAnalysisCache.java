@@ -0,0 +1,482 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.revapi.AnalysisContext;
+import org.revapi.CompatibilityType;
+import org.revapi.Criticality;
+import org.revapi.Difference;
+import org.revapi.DifferenceSeverity;
+import org.revapi.Reference;
+import org.revapi.java.compilation.ProbingEnvironment;
+import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.JavaElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the fingerprints of the analyzed top-level types together with the differences found in them so that the next
+ * analysis can skip the checks of the types that didn't change and just replay the stored differences.
+ *
+ * <p>
+ * The fingerprint of a type pair is computed from the CRC-32 checksums of the class files of the type, its nested
+ * types, all their supertypes and the types they directly use, the shape of the element tree under the type and the API
+ * flags of the types. The whole cache is only valid for the configuration fingerprint it was created with.
+ *
+ * <p>
+ * The differences are recorded as returned by the checks, i.e. before the example use chains are attached to them,
+ * because the use chains depend on the types outside of the fingerprinted ones.
+ *
+ * @author Lukas Krejci
+ */
+final class IncrementalAnalysisCache {
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalAnalysisCache.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final String configurationFingerprint;
+    private final Map<String, TypeRecord> previous;
+    private final Map<String, TypeRecord> current = new HashMap<>();
+
+    private IncrementalAnalysisCache(Path file, String configurationFingerprint, Map<String, TypeRecord> previous) {
+        this.file = file;
+        this.configurationFingerprint = configurationFingerprint;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the state of the previous analysis from the provided file. If the file doesn't exist, cannot be read or was
+     * produced with a different configuration, the returned cache is empty.
+     *
+     * @param file
+     *            the file to load the cache from and store it to
+     * @param configurationFingerprint
+     *            a string representing everything that influences the results of the checks apart from the analyzed
+     *            classes
+     * @param ctx
+     *            the analysis context used to resolve the criticalities of the stored differences
+     *
+     * @return the cache
+     */
+    static IncrementalAnalysisCache load(Path file, String configurationFingerprint, AnalysisContext ctx) {
+        Map<String, TypeRecord> types = new HashMap<>();
+
+        if (Files.isRegularFile(file)) {
+            try {
+                JsonNode root = new ObjectMapper().readTree(file.toFile());
+                if (root.path("version").asInt() == FORMAT_VERSION
+                        && configurationFingerprint.equals(root.path("configuration").asText())) {
+                    for (JsonNode type : root.path("types")) {
+                        TypeRecord rec = readType(type, ctx);
+                        types.put(rec.key, rec);
+                    }
+                } else {
+                    LOG.debug("The incremental analysis cache {} is outdated. Analyzing all types.", file);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Failed to read the incremental analysis cache " + file + ". Analyzing all types.", e);
+                types.clear();
+            }
+        }
+
+        return new IncrementalAnalysisCache(file, configurationFingerprint, types);
+    }
+
+    /**
+     * Starts the analysis of a pair of top-level types.
+     *
+     * @return the analysis of the type pair
+     */
+    TypeAnalysis start(ProbingEnvironment oldEnvironment, ProbingEnvironment newEnvironment,
+            @Nullable JavaElement oldType, @Nullable JavaElement newType) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported by the JVM.", e);
+        }
+
+        if (!fingerprint(oldEnvironment, oldType, digest) || !fingerprint(newEnvironment, newType, digest)) {
+            // the types (or some of their nested types) don't come from the analyzed archives, always check them
+            return new TypeAnalysis(oldType, newType, null, false);
+        }
+
+        String key = (oldType == null ? "-" : oldType.getFullHumanReadableString()) + " -> "
+                + (newType == null ? "-" : newType.getFullHumanReadableString());
+        String fingerprint = Base64.getEncoder().encodeToString(digest.digest());
+
+        TypeRecord prev = previous.get(key);
+        if (prev != null && prev.fingerprint.equals(fingerprint)) {
+            return new TypeAnalysis(oldType, newType, prev, true);
+        } else {
+            return new TypeAnalysis(oldType, newType, new TypeRecord(key, fingerprint, new ArrayList<>()), false);
+        }
+    }
+
+    /**
+     * Stores the records of the types analyzed since the cache was loaded. The records of the types that were not
+     * analyzed are dropped.
+     *
+     * @throws IOException
+     *             on failure to write the file
+     */
+    void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+
+        // write to a temporary file first so that a failure doesn't leave a corrupted cache behind
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp);
+                    JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeNumberField("version", FORMAT_VERSION);
+                gen.writeStringField("configuration", configurationFingerprint);
+                gen.writeArrayFieldStart("types");
+                for (TypeRecord rec : current.values()) {
+                    writeType(rec, gen);
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static boolean fingerprint(ProbingEnvironment env, @Nullable JavaElement element, MessageDigest digest) {
+        if (element == null) {
+            update(digest, "-");
+            return true;
+        }
+
+        update(digest, element.getClass().getSimpleName());
+        update(digest, Integer.toString(element.getChildren().size()));
+
+        Set<String> dependencies = new TreeSet<>();
+
+        if (element instanceof TypeElement) {
+            TypeElement type = (TypeElement) element;
+            Long crc = env.getClassFingerprint(type.getBinaryName());
+            if (crc == null) {
+                return false;
+            }
+
+            update(digest, type.getBinaryName());
+            update(digest, Long.toString(crc));
+            update(digest, String.valueOf(type.getArchive() == null ? null : type.getArchive().getName()));
+            update(digest, type.isInAPI() + "," + type.isInApiThroughUse());
+
+            collectSuperTypes(env.getElementUtils(), type.getDeclaringElement(), dependencies);
+        }
+
+        // after the pruning, the types used by the element are recorded as its references
+        for (Reference<JavaElement> ref : element.getReferencedElements()) {
+            if (ref.getElement() instanceof TypeElement) {
+                dependencies.add(((TypeElement) ref.getElement()).getBinaryName());
+            }
+        }
+
+        for (String dep : dependencies) {
+            update(digest, dep);
+            update(digest, String.valueOf(env.getClassFingerprint(dep)));
+        }
+
+        for (JavaElement child : element.getChildren()) {
+            if (!fingerprint(env, child, digest)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void collectSuperTypes(Elements elements, javax.lang.model.element.TypeElement type,
+            Set<String> names) {
+        List<TypeMirror> superTypes = new ArrayList<>(type.getInterfaces());
+        superTypes.add(type.getSuperclass());
+
+        for (TypeMirror t : superTypes) {
+            if (t.getKind() == TypeKind.DECLARED) {
+                Element e = ((DeclaredType) t).asElement();
+                if (e instanceof javax.lang.model.element.TypeElement) {
+                    javax.lang.model.element.TypeElement superType = (javax.lang.model.element.TypeElement) e;
+                    if (names.add(elements.getBinaryName(superType).toString())) {
+                        collectSuperTypes(elements, superType, names);
+                    }
+                }
+            } else if (t.getKind() == TypeKind.ERROR) {
+                names.add(t.toString());
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static TypeRecord readType(JsonNode node, AnalysisContext ctx) {
+        List<RecordedReport> reports = new ArrayList<>();
+        for (JsonNode report : node.path("reports")) {
+            List<Difference> differences = new ArrayList<>();
+            for (JsonNode diff : report.path("differences")) {
+                differences.add(readDifference(diff, ctx));
+            }
+
+            reports.add(new RecordedReport(report.path("index").asInt(), textOrNull(report.path("oldElement")),
+                    textOrNull(report.path("newElement")), differences));
+        }
+
+        return new TypeRecord(node.path("key").asText(), node.path("fingerprint").asText(), reports);
+    }
+
+    private static Difference readDifference(JsonNode node, AnalysisContext ctx) {
+        Difference.Builder bld = Difference.builder().withCode(node.path("code").asText())
+                .withName(textOrNull(node.path("name"))).withDescription(textOrNull(node.path("description")))
+                .withJustification(textOrNull(node.path("justification")));
+
+        String criticality = textOrNull(node.path("criticality"));
+        if (criticality != null) {
+            Criticality c = ctx.getCriticalityByName(criticality);
+            if (c == null) {
+                throw new IllegalArgumentException("Unknown criticality: " + criticality);
+            }
+            bld.withCriticality(c);
+        }
+
+        String documentationLink = textOrNull(node.path("documentationLink"));
+        if (documentationLink != null) {
+            bld.withDocumentationLink(URI.create(documentationLink));
+        }
+
+        node.path("classification").fields()
+                .forEachRemaining(e -> bld.addClassification(CompatibilityType.valueOf(e.getKey()),
+                        DifferenceSeverity.valueOf(e.getValue().asText())));
+
+        node.path("attachments").fields().forEachRemaining(e -> bld.addAttachment(e.getKey(), e.getValue().asText()));
+
+        List<String> identifyingAttachments = new ArrayList<>();
+        node.path("identifyingAttachments").forEach(a -> identifyingAttachments.add(a.asText()));
+        bld.withIdentifyingAttachments(identifyingAttachments);
+
+        return bld.build();
+    }
+
+    private static void writeType(TypeRecord rec, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("key", rec.key);
+        gen.writeStringField("fingerprint", rec.fingerprint);
+        gen.writeArrayFieldStart("reports");
+        for (RecordedReport report : rec.reports) {
+            gen.writeStartObject();
+            gen.writeNumberField("index", report.index);
+            gen.writeStringField("oldElement", report.oldElement);
+            gen.writeStringField("newElement", report.newElement);
+            gen.writeArrayFieldStart("differences");
+            for (Difference d : report.differences) {
+                writeDifference(d, gen);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private static void writeDifference(Difference d, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("code", d.code);
+        gen.writeStringField("name", d.name);
+        gen.writeStringField("description", d.description);
+        gen.writeStringField("justification", d.justification);
+        gen.writeStringField("criticality", d.criticality == null ? null : d.criticality.getName());
+        gen.writeStringField("documentationLink", d.documentationLink == null ? null : d.documentationLink.toString());
+
+        gen.writeObjectFieldStart("classification");
+        for (Map.Entry<CompatibilityType, DifferenceSeverity> e : d.classification.entrySet()) {
+            gen.writeStringField(e.getKey().name(), e.getValue().name());
+        }
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("attachments");
+        for (Map.Entry<String, String> e : d.attachments.entrySet()) {
+            gen.writeStringField(e.getKey(), e.getValue());
+        }
+        gen.writeEndObject();
+
+        gen.writeArrayFieldStart("identifyingAttachments");
+        for (String key : d.attachments.keySet()) {
+            if (d.isIdentifyingAttachment(key)) {
+                gen.writeString(key);
+            }
+        }
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+
+    private static @Nullable String textOrNull(JsonNode node) {
+        return node.isTextual() ? node.asText() : null;
+    }
+
+    private static @Nullable String toString(@Nullable JavaElement element) {
+        return element == null ? null : element.getFullHumanReadableString();
+    }
+
+    /**
+     * The analysis of a single pair of top-level types. It is notified about the end of the analysis of each element
+     * pair under (and including) the type pair, in the traversal order. If the types didn't change since the last
+     * analysis, it replays the differences found back then. Otherwise it records the found differences, unless the
+     * types couldn't be fingerprinted.
+     */
+    final class TypeAnalysis {
+        private final @Nullable JavaElement oldType;
+        private final @Nullable JavaElement newType;
+        private final @Nullable TypeRecord record;
+        private final boolean replaying;
+        private int index;
+        private int replayPosition;
+
+        private TypeAnalysis(@Nullable JavaElement oldType, @Nullable JavaElement newType, @Nullable TypeRecord record,
+                boolean replaying) {
+            this.oldType = oldType;
+            this.newType = newType;
+            this.record = record;
+            this.replaying = replaying;
+        }
+
+        /**
+         * @return true if the types didn't change and the checks don't need to be run on them
+         */
+        boolean isReplaying() {
+            return replaying;
+        }
+
+        boolean isTypePair(@Nullable JavaElement oldElement, @Nullable JavaElement newElement) {
+            return oldElement == oldType && newElement == newType;
+        }
+
+        /**
+         * @return the differences found in the provided elements during the last analysis
+         */
+        List<Difference> replay(@Nullable JavaElement oldElement, @Nullable JavaElement newElement) {
+            int idx = index++;
+
+            if (record == null || replayPosition == record.reports.size()
+                    || record.reports.get(replayPosition).index != idx) {
+                return Collections.emptyList();
+            }
+
+            RecordedReport report = record.reports.get(replayPosition++);
+            if (!(Objects.equals(report.oldElement, IncrementalAnalysisCache.toString(oldElement))
+                    && Objects.equals(report.newElement, IncrementalAnalysisCache.toString(newElement)))) {
+                LOG.debug("The recorded differences of {} and {} don't match the elements {} and {}. Ignoring them.",
+                        report.oldElement, report.newElement, oldElement, newElement);
+                return Collections.emptyList();
+            }
+
+            return new ArrayList<>(report.differences);
+        }
+
+        /**
+         * Records the differences found by the checks in the provided elements.
+         */
+        void record(@Nullable JavaElement oldElement, @Nullable JavaElement newElement, List<Difference> differences) {
+            int idx = index++;
+
+            if (record != null && !differences.isEmpty()) {
+                record.reports.add(new RecordedReport(idx, IncrementalAnalysisCache.toString(oldElement),
+                        IncrementalAnalysisCache.toString(newElement), new ArrayList<>(differences)));
+            }
+        }
+
+        /**
+         * Marks the analysis of the type pair as finished so that it is included in the saved cache.
+         */
+        void finish() {
+            if (record != null) {
+                current.put(record.key, record);
+            }
+        }
+    }
+
+    private static final class TypeRecord {
+        final String key;
+        final String fingerprint;
+        final List<RecordedReport> reports;
+
+        TypeRecord(String key, String fingerprint, List<RecordedReport> reports) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.reports = reports;
+        }
+    }
+
+    private static final class RecordedReport {
+        final int index;
+        final @Nullable String oldElement;
+        final @Nullable String newElement;
+        final List<Difference> differences;
+
+        RecordedReport(int index, @Nullable String oldElement, @Nullable String newElement,
+                List<Difference> differences) {
+            this.index = index;
+            this.oldElement = oldElement;
+            this.newElement = newElement;
+            this.differences = differences;
+        }
+    }
+}
@@ -25,10 +25,10 @@ import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -43,6 +43,7 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.lang.model.util.Types;
 import javax.tools.ToolProvider;
 
@@ -59,6 +60,8 @@ import org.revapi.CorrespondenceComparatorDeducer;
 import org.revapi.DifferenceAnalyzer;
 import org.revapi.configuration.Configurable;
 import org.revapi.configuration.JSONUtil;
+import org.revapi.java.compilation.ArchiveCache;
+import org.revapi.java.compilation.CompilationPool;
 import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.model.JavaElementFactory;
@@ -68,7 +71,7 @@ import org.revapi.java.model.TypeElement;
 import org.revapi.java.spi.Check;
 import org.revapi.java.spi.JarExtractor;
 import org.revapi.java.spi.JavaElement;
-import org.revapi.java.spi.Util;
+import org.revapi.java.spi.TypeEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +87,14 @@ public final class JavaApiAnalyzer implements ApiAnalyzer<JavaElement> {
     private static final Method CLEAR_COMPILER_CACHE;
     private static final Object SHARED_ZIP_FILE_INDEX_CACHE;
 
+    private static final int MAX_CACHED_SCHEMAS = 16;
+    private static final Map<String, String> MERGED_SCHEMAS = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_SCHEMAS;
+        }
+    };
+
     static {
         String javaVersion = System.getProperty("java.version");
         if (javaVersion.startsWith("1.")) {
@@ -299,9 +310,10 @@ public final class JavaApiAnalyzer implements ApiAnalyzer<JavaElement> {
                     int maxOverrides = bs.size();
 
                     for (MethodElement ma : as) {
-                        String aRet = Util.toUniqueString(ma.getModelRepresentation().getReturnType());
-                        String aErasedRet = Util.toUniqueString(ma.getTypeEnvironment().getTypeUtils()
-                                .erasure(ma.getModelRepresentation().getReturnType()));
+                        TypeEnvironment aEnv = ma.getTypeEnvironment();
+                        String aRet = aEnv.toUniqueString(ma.getModelRepresentation().getReturnType());
+                        String aErasedRet = aEnv.toUniqueString(
+                                aEnv.getTypeUtils().erasure(ma.getModelRepresentation().getReturnType()));
 
                         List<String> aParams = methodParamsSignature(ma, false);
                         List<String> aErasedParams = methodParamsSignature(ma, true);
@@ -400,21 +412,23 @@ public final class JavaApiAnalyzer implements ApiAnalyzer<JavaElement> {
     }
 
     private static List<String> methodParamsSignature(MethodElement method, boolean erased) {
+        TypeEnvironment env = method.getTypeEnvironment();
         if (erased) {
-            Types types = method.getTypeEnvironment().getTypeUtils();
+            Types types = env.getTypeUtils();
             return method.getDeclaringElement().getParameters().stream()
-                    .map(p -> Util.toUniqueString(types.erasure(p.asType()))).collect(toList());
+                    .map(p -> env.toUniqueString(types.erasure(p.asType()))).collect(toList());
         } else {
-            return method.getModelRepresentation().getParameterTypes().stream().map(Util::toUniqueString)
+            return method.getModelRepresentation().getParameterTypes().stream().map(env::toUniqueString)
                     .collect(toList());
         }
     }
 
     private static int levenshteinDistance(String aRet, String aErasedRet, List<String> aParams,
             List<String> aErasedParams, MethodElement mb) {
-        String bRet = Util.toUniqueString(mb.getModelRepresentation().getReturnType());
-        String bErasedRet = Util.toUniqueString(
-                mb.getTypeEnvironment().getTypeUtils().erasure(mb.getModelRepresentation().getReturnType()));
+        TypeEnvironment bEnv = mb.getTypeEnvironment();
+        String bRet = bEnv.toUniqueString(mb.getModelRepresentation().getReturnType());
+        String bErasedRet = bEnv
+                .toUniqueString(bEnv.getTypeUtils().erasure(mb.getModelRepresentation().getReturnType()));
 
         List<String> bParams = methodParamsSignature(mb, false);
         List<String> bErasedParams = methodParamsSignature(mb, true);
@@ -504,40 +518,61 @@ public final class JavaApiAnalyzer implements ApiAnalyzer<JavaElement> {
 
     @Override
     public Reader getJSONSchema() {
-        Map<String, Reader> checkSchemas = new HashMap<>(4);
-        for (Check c : checks) {
-            String eid = c.getExtensionId();
-            Reader schema = c.getJSONSchema();
-            if (eid != null && schema != null) {
-                checkSchemas.put(eid, schema);
+        Map<String, String> checkSchemas = new TreeMap<>();
+        try {
+            for (Check c : checks) {
+                String eid = c.getExtensionId();
+                Reader schema = c.getJSONSchema();
+                if (eid != null && schema != null) {
+                    checkSchemas.put(eid, consume(schema));
+                }
             }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read the schema for the revapi extension...", e);
         }
 
-        Reader rdr = new InputStreamReader(getClass().getResourceAsStream("/META-INF/config-schema.json"),
-                StandardCharsets.UTF_8);
-
         if (checkSchemas.isEmpty()) {
-            return rdr;
-        } else {
-            try {
-                JsonNode baseSchema = JSONUtil.parse(consume(rdr));
+            return new InputStreamReader(getClass().getResourceAsStream("/META-INF/config-schema.json"),
+                    StandardCharsets.UTF_8);
+        }
 
-                ObjectNode checksNode = baseSchema.with("properties").with("checks");
-                checksNode.put("type", "object");
+        // the merged schema only depends on the schemas of the checks, so let's not parse and merge them again for
+        // every new instance of the analyzer with the same checks
+        String key = checkSchemas.entrySet().stream().map(e -> e.getKey() + "\0" + e.getValue())
+                .collect(Collectors.joining("\0"));
 
-                for (Map.Entry<String, Reader> entry : checkSchemas.entrySet()) {
-                    String checkId = entry.getKey();
-                    Reader checkSchemaReader = entry.getValue();
+        String schema;
+        synchronized (MERGED_SCHEMAS) {
+            schema = MERGED_SCHEMAS.get(key);
+        }
 
-                    JsonNode checkSchema = JSONUtil.parse(consume(checkSchemaReader));
+        if (schema == null) {
+            schema = mergeSchema(checkSchemas);
+            synchronized (MERGED_SCHEMAS) {
+                MERGED_SCHEMAS.put(key, schema);
+            }
+        }
 
-                    checksNode.with("properties").set(checkId, checkSchema);
-                }
+        return new StringReader(schema);
+    }
 
-                return new StringReader(baseSchema.toString());
-            } catch (IOException e) {
-                throw new IllegalStateException("Could not read the schema for the revapi extension...", e);
+    private String mergeSchema(Map<String, String> checkSchemas) {
+        try {
+            Reader rdr = new InputStreamReader(getClass().getResourceAsStream("/META-INF/config-schema.json"),
+                    StandardCharsets.UTF_8);
+
+            JsonNode baseSchema = JSONUtil.parse(consume(rdr));
+
+            ObjectNode checksNode = baseSchema.with("properties").with("checks");
+            checksNode.put("type", "object");
+
+            for (Map.Entry<String, String> entry : checkSchemas.entrySet()) {
+                checksNode.with("properties").set(entry.getKey(), JSONUtil.parse(entry.getValue()));
             }
+
+            return baseSchema.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read the schema for the revapi extension...", e);
         }
     }
 
@@ -566,9 +601,39 @@ public final class JavaApiAnalyzer implements ApiAnalyzer<JavaElement> {
     @Override
     public JavaArchiveAnalyzer getArchiveAnalyzer(@Nonnull API api) {
         boolean ignoreMissingAnnotations = configuration.isIgnoreMissingAnnotations();
-        return new JavaArchiveAnalyzer(this, api, jarExtractors, getExecutor(api),
-                configuration.getMissingClassReporting(), ignoreMissingAnnotations,
-                configuration.getPackageClassFilter());
+        CompilationPool compilationPool = getCompilationPool();
+        ExecutorService executor = compilationPool == null ? getExecutor(api) : compilationPool.getExecutor();
+        return new JavaArchiveAnalyzer(this, api, jarExtractors, executor, configuration.getMissingClassReporting(),
+                ignoreMissingAnnotations, configuration.getPackageClassFilter(), getArchiveCache(),
+                configuration.getArchiveListingThreads(), compilationPool,
+                configuration.getIncrementalAnalysisCacheFile() != null);
+    }
+
+    private @Nullable CompilationPool getCompilationPool() {
+        Object pool = analysisContext.getData(CompilationPool.CONTEXT_DATA_KEY);
+        if (pool instanceof CompilationPool) {
+            return (CompilationPool) pool;
+        } else if (Boolean.TRUE.equals(pool) || "true".equals(pool)) {
+            return CompilationPool.shared();
+        } else {
+            return null;
+        }
+    }
+
+    private @Nullable ArchiveCache getArchiveCache() {
+        Path directory = configuration.getArchiveCacheDirectory();
+        if (directory == null) {
+            return null;
+        }
+
+        // the materialized form of the archives depends on what extractors are available and how they are configured
+        StringBuilder fingerprint = new StringBuilder();
+        for (JarExtractor e : jarExtractors) {
+            fingerprint.append(e.getClass().getName()).append(',');
+        }
+        fingerprint.append(analysisContext.getConfigurationNode().path("extract"));
+
+        return new ArchiveCache(directory, fingerprint.toString());
     }
 
     @Nonnull
@@ -586,8 +651,27 @@ public final class JavaApiAnalyzer implements ApiAnalyzer<JavaElement> {
         activeCompilations.add(oldValve);
         activeCompilations.add(newValve);
 
-        return new JavaElementDifferenceAnalyzer(analysisContext, oldEnvironment, newEnvironment, checks,
-                configuration);
+        return new JavaElementDifferenceAnalyzer(analysisContext, oldEnvironment, newEnvironment, checks, configuration,
+                getIncrementalAnalysisCache());
+    }
+
+    private @Nullable IncrementalAnalysisCache getIncrementalAnalysisCache() {
+        Path file = configuration.getIncrementalAnalysisCacheFile();
+        if (file == null) {
+            return null;
+        }
+
+        // the results of the checks depend on the checks themselves, their configuration and the JDK the analysis runs
+        // with (which provides the classes not found in the analyzed archives)
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(JavaApiAnalyzer.class.getPackage().getImplementationVersion()).append(',');
+        fingerprint.append(System.getProperty("java.version")).append(',');
+        for (Check c : checks) {
+            fingerprint.append(c.getClass().getName()).append(',');
+        }
+        fingerprint.append(analysisContext.getConfigurationNode());
+
+        return IncrementalAnalysisCache.load(file, fingerprint.toString(), analysisContext);
     }
 
     @Override
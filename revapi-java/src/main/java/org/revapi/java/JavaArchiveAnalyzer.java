@@ -16,7 +16,10 @@
  */
 package org.revapi.java;
 
+import static java.util.stream.Collectors.toList;
+
 import java.io.StringWriter;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -30,8 +33,13 @@ import org.revapi.API;
 import org.revapi.ApiAnalyzer;
 import org.revapi.ArchiveAnalyzer;
 import org.revapi.ElementForest;
+import org.revapi.FilterFinishResult;
+import org.revapi.FilterStartResult;
 import org.revapi.TreeFilter;
+import org.revapi.base.BaseTreeFilter;
+import org.revapi.java.compilation.ArchiveCache;
 import org.revapi.java.compilation.CompilationFuture;
+import org.revapi.java.compilation.CompilationPool;
 import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.Compiler;
 import org.revapi.java.compilation.ProbingEnvironment;
@@ -47,6 +55,23 @@ import org.revapi.java.spi.UseSite;
  * @since 0.1
  */
 public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
+    /**
+     * Only the types need to be visited during the pruning. Not descending into the other elements avoids materializing
+     * their children, namely those of the inherited members, that are otherwise only created once really needed.
+     */
+    private static final TreeFilter<JavaElement> TYPES_ONLY = new BaseTreeFilter<JavaElement>() {
+        @Override
+        public FilterStartResult start(JavaElement element) {
+            return element instanceof TypeElement ? FilterStartResult.matchAndDescend()
+                    : FilterStartResult.doesntMatch();
+        }
+
+        @Override
+        public FilterFinishResult finish(JavaElement element) {
+            return element instanceof TypeElement ? FilterFinishResult.matches() : FilterFinishResult.doesntMatch();
+        }
+    };
+
     private final JavaApiAnalyzer apiAnalyzer;
     private final API api;
     private final ExecutorService executor;
@@ -54,6 +79,9 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
     private final AnalysisConfiguration.MissingClassReporting missingClassReporting;
     private final boolean ignoreMissingAnnotations;
     private final Iterable<JarExtractor> jarExtractors;
+    private final @Nullable ArchiveCache archiveCache;
+    private final int archiveListingThreads;
+    private final @Nullable CompilationPool compilationPool;
     private CompilationValve compilationValve;
 
     /**
@@ -65,14 +93,48 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
     public JavaArchiveAnalyzer(JavaApiAnalyzer apiAnalyzer, API api, Iterable<JarExtractor> jarExtractors,
             ExecutorService compilationExecutor, AnalysisConfiguration.MissingClassReporting missingClassReporting,
             boolean ignoreMissingAnnotations, @Nullable TreeFilter<JavaElement> implicitFilter) {
+        this(apiAnalyzer, api, jarExtractors, compilationExecutor, missingClassReporting, ignoreMissingAnnotations,
+                implicitFilter, null, 1);
+    }
+
+    public JavaArchiveAnalyzer(JavaApiAnalyzer apiAnalyzer, API api, Iterable<JarExtractor> jarExtractors,
+            ExecutorService compilationExecutor, AnalysisConfiguration.MissingClassReporting missingClassReporting,
+            boolean ignoreMissingAnnotations, @Nullable TreeFilter<JavaElement> implicitFilter,
+            @Nullable ArchiveCache archiveCache, int archiveListingThreads) {
+        this(apiAnalyzer, api, jarExtractors, compilationExecutor, missingClassReporting, ignoreMissingAnnotations,
+                implicitFilter, archiveCache, archiveListingThreads, null);
+    }
+
+    public JavaArchiveAnalyzer(JavaApiAnalyzer apiAnalyzer, API api, Iterable<JarExtractor> jarExtractors,
+            ExecutorService compilationExecutor, AnalysisConfiguration.MissingClassReporting missingClassReporting,
+            boolean ignoreMissingAnnotations, @Nullable TreeFilter<JavaElement> implicitFilter,
+            @Nullable ArchiveCache archiveCache, int archiveListingThreads, @Nullable CompilationPool compilationPool) {
+        this(apiAnalyzer, api, jarExtractors, compilationExecutor, missingClassReporting, ignoreMissingAnnotations,
+                implicitFilter, archiveCache, archiveListingThreads, compilationPool, false);
+    }
+
+    /**
+     * @param fingerprintClasses
+     *            whether to collect the fingerprints of the class files, as needed by the incremental analysis
+     *
+     * @since 0.29.0
+     */
+    public JavaArchiveAnalyzer(JavaApiAnalyzer apiAnalyzer, API api, Iterable<JarExtractor> jarExtractors,
+            ExecutorService compilationExecutor, AnalysisConfiguration.MissingClassReporting missingClassReporting,
+            boolean ignoreMissingAnnotations, @Nullable TreeFilter<JavaElement> implicitFilter,
+            @Nullable ArchiveCache archiveCache, int archiveListingThreads, @Nullable CompilationPool compilationPool,
+            boolean fingerprintClasses) {
         this.apiAnalyzer = apiAnalyzer;
         this.api = api;
         this.jarExtractors = jarExtractors;
         this.executor = compilationExecutor;
         this.missingClassReporting = missingClassReporting;
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
-        this.probingEnvironment = new ProbingEnvironment(api);
+        this.probingEnvironment = new ProbingEnvironment(api, fingerprintClasses);
         this.implicitFilter = implicitFilter;
+        this.archiveCache = archiveCache;
+        this.archiveListingThreads = archiveListingThreads;
+        this.compilationPool = compilationPool;
     }
 
     @Override
@@ -97,7 +159,7 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
 
         StringWriter output = new StringWriter();
         Compiler compiler = new Compiler(executor, output, jarExtractors, api.getArchives(),
-                api.getSupplementaryArchives(), finalFilter);
+                api.getSupplementaryArchives(), finalFilter, archiveCache, archiveListingThreads, compilationPool);
         try {
             compilationValve = compiler.compile(probingEnvironment, missingClassReporting, ignoreMissingAnnotations);
 
@@ -120,7 +182,7 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
 
         doPrune(forest);
 
-        forest.stream(TypeElement.class, true, null).forEach(TypeElement::initReferences);
+        forest.stream(TypeElement.class, true, TYPES_ONLY, null).forEach(TypeElement::initReferences);
     }
 
     public ProbingEnvironment getProbingEnvironment() {
@@ -132,18 +194,16 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
     }
 
     private void doPrune(ElementForest<JavaElement> forest) {
-        boolean changed;
+        // the first round needs to check all the types. Removing a type only affects the use sites of the types it
+        // used, so only those need to be checked in the subsequent rounds.
+        Collection<TypeElement> toCheck = forest.stream(TypeElement.class, true, TYPES_ONLY, null).collect(toList());
 
         Set<TypeElement> toRemove = new HashSet<>();
 
-        do {
-            Iterator<TypeElement> it = forest.stream(TypeElement.class, true, null).iterator();
-
+        while (!toCheck.isEmpty()) {
             toRemove.clear();
 
-            while (it.hasNext()) {
-                TypeElement type = it.next();
-
+            for (TypeElement type : toCheck) {
                 boolean remove = true;
 
                 Iterator<UseSite> usit = type.getUseSites().iterator();
@@ -169,7 +229,7 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
                 }
             }
 
-            changed = !toRemove.isEmpty();
+            Set<TypeElement> affected = new HashSet<>();
 
             for (TypeElement t : toRemove) {
                 // the inner classes of the removed type might be used, so we can't just remove them from the tree
@@ -191,25 +251,18 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer<JavaElement> {
 
                 t.getChildren().stream().filter(c -> c instanceof TypeElement).forEach(readd);
 
-                t.getUsedTypes().entrySet().removeIf(e -> {
-                    UseSite.Type useType = e.getKey();
-                    e.getValue().entrySet().removeIf(e2 -> {
-                        TypeElement usedType = e2.getKey();
-                        usedType.getUseSites().removeIf(us -> {
-                            // noinspection SuspiciousMethodCalls
-                            return us.getType() == useType && e2.getValue().contains(us.getElement());
-                        });
-
-                        return usedType.getUseSites().isEmpty();
-                    });
-
-                    return e.getValue().isEmpty();
-                });
+                // the use sites of the removed type and its members are left dangling in the types it used. Those
+                // of the types still in the forest are removed by the isInForest() check above when they are checked
+                // in the next round, which covers all the use sites that can affect the pruning.
+                t.getUsedTypes().values().forEach(used -> affected.addAll(used.keySet()));
             }
-        } while (changed);
+
+            affected.removeIf(t -> !isInForest(forest, t));
+            toCheck = affected;
+        }
 
         // now go through all types again and modify their API status if they no longer are used
-        forest.stream(TypeElement.class, true, null).forEach(type -> {
+        forest.stream(TypeElement.class, true, TYPES_ONLY, null).forEach(type -> {
             if (!type.isInApiThroughUse()) {
                 return;
             }
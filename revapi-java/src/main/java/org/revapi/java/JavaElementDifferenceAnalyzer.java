@@ -20,6 +20,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -44,9 +46,9 @@ import javax.lang.model.type.DeclaredType;
 import org.revapi.AnalysisContext;
 import org.revapi.Difference;
 import org.revapi.DifferenceAnalyzer;
+import org.revapi.Metrics;
 import org.revapi.Reference;
 import org.revapi.Report;
-import org.revapi.Stats;
 import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.model.AnnotationElement;
 import org.revapi.java.model.FieldElement;
@@ -103,13 +105,30 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
     private JavaElement nonExistenceNewRoot;
 
     private final Map<Check.Type, Set<Check>> descendingChecksByTypes;
+    private final Map<Check, Metrics.Timer> checkTimers;
+
+    private final @Nullable IncrementalAnalysisCache incrementalAnalysisCache;
+    private final Metrics.Counter replayedTypes;
+    // the incremental analysis of the top-level type pair being currently analyzed
+    private @Nullable IncrementalAnalysisCache.TypeAnalysis typeAnalysis;
 
     public JavaElementDifferenceAnalyzer(AnalysisContext analysisContext, ProbingEnvironment oldEnvironment,
             ProbingEnvironment newEnvironment, Iterable<Check> checks, AnalysisConfiguration analysisConfiguration) {
+        this(analysisContext, oldEnvironment, newEnvironment, checks, analysisConfiguration, null);
+    }
+
+    JavaElementDifferenceAnalyzer(AnalysisContext analysisContext, ProbingEnvironment oldEnvironment,
+            ProbingEnvironment newEnvironment, Iterable<Check> checks, AnalysisConfiguration analysisConfiguration,
+            @Nullable IncrementalAnalysisCache incrementalAnalysisCache) {
+
+        this.incrementalAnalysisCache = incrementalAnalysisCache;
+        this.replayedTypes = analysisContext.getMetrics().counter("java.incrementalAnalysis.replayedTypes");
 
         this.descendingChecksByTypes = new HashMap<>();
+        this.checkTimers = new IdentityHashMap<>();
 
         for (Check c : checks) {
+            checkTimers.put(c, analysisContext.getMetrics().timer("check " + c.getClass().getName()));
             c.setOldTypeEnvironment(oldEnvironment);
             c.setNewTypeEnvironment(newEnvironment);
             if (c.isDescendingOnNonExisting()) {
@@ -136,6 +155,14 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
 
     @Override
     public void close() {
+        if (incrementalAnalysisCache != null) {
+            try {
+                incrementalAnalysisCache.save();
+            } catch (IOException e) {
+                LOG.warn("Failed to store the incremental analysis cache. The next analysis will check all types.", e);
+            }
+        }
+
         Timing.LOG.debug("Difference analyzer closed.");
     }
 
@@ -143,6 +170,26 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
     public void beginAnalysis(@Nullable JavaElement oldElement, @Nullable JavaElement newElement) {
         Timing.LOG.trace("Beginning analysis of {} and {}.", oldElement, newElement);
 
+        if (incrementalAnalysisCache != null && typeAnalysis == null
+                && conforms(oldElement, newElement, TypeElement.class)) {
+            typeAnalysis = incrementalAnalysisCache.start(oldEnvironment, newEnvironment, oldElement, newElement);
+            if (typeAnalysis.isReplaying()) {
+                replayedTypes.increment();
+            }
+        }
+
+        if (typeAnalysis == null || !typeAnalysis.isReplaying()) {
+            runChecks(oldElement, newElement);
+        }
+
+        if (!nonExistenceMode && (oldElement == null || newElement == null)) {
+            nonExistenceMode = true;
+            nonExistenceOldRoot = oldElement;
+            nonExistenceNewRoot = newElement;
+        }
+    }
+
+    private void runChecks(@Nullable JavaElement oldElement, @Nullable JavaElement newElement) {
         Check.Type elementsType = getCheckType(oldElement, newElement);
         Collection<Check> possibleChecks = nonExistenceMode
                 ? descendingChecksByTypes.getOrDefault(elementsType, emptySet()) : checksByInterest.get(elementsType);
@@ -151,10 +198,11 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
             checksStack.push(possibleChecks);
             lastAnnotationResults = null;
             for (Check c : possibleChecks) {
-                Stats.of(c.getClass().getName()).start();
+                Metrics.Timer timer = checkTimers.get(c);
+                long start = timer.start();
                 c.visitClass(oldElement == null ? null : (TypeElement) oldElement,
                         newElement == null ? null : (TypeElement) newElement);
-                Stats.of(c.getClass().getName()).end(oldElement, newElement);
+                timer.stop(start);
             }
         } else if (conforms(oldElement, newElement, AnnotationElement.class)) {
             // annotation are always terminal elements and they also always sort as last elements amongst siblings, so
@@ -165,13 +213,14 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
             // DO NOT push the ANNOTATION type to the checkTypeStack nor push the applied checks to the checksStack.
             // Annotations are handled differently and this would lead to the stack corruption and missed problems!!!
             for (Check c : possibleChecks) {
-                Stats.of(c.getClass().getName()).start();
+                Metrics.Timer timer = checkTimers.get(c);
+                long start = timer.start();
                 List<Difference> cps = c.visitAnnotation(oldElement == null ? null : (AnnotationElement) oldElement,
                         newElement == null ? null : (AnnotationElement) newElement);
                 if (cps != null) {
                     lastAnnotationResults.addAll(cps);
                 }
-                Stats.of(c.getClass().getName()).end(oldElement, newElement);
+                timer.stop(start);
             }
         } else if (conforms(oldElement, newElement, FieldElement.class)) {
             doRestrictedCheck((FieldElement) oldElement, (FieldElement) newElement, Check.Type.FIELD, possibleChecks);
@@ -182,12 +231,15 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
             doRestrictedCheck((MethodParameterElement) oldElement, (MethodParameterElement) newElement,
                     Check.Type.METHOD_PARAMETER, possibleChecks);
         }
+    }
 
-        if (!nonExistenceMode && (oldElement == null || newElement == null)) {
-            nonExistenceMode = true;
-            nonExistenceOldRoot = oldElement;
-            nonExistenceNewRoot = newElement;
-        }
+    /**
+     * The checks keep the state of the traversal and the javac model they inspect cannot be accessed from several
+     * threads at once, so the java analysis always runs on a single thread.
+     */
+    @Override
+    public @Nullable DifferenceAnalyzer<JavaElement> fork() {
+        return null;
     }
 
     @Override
@@ -214,7 +266,8 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
         if (!(isCheckedElsewhere(oldElement, oldEnvironment) && isCheckedElsewhere(newElement, newEnvironment))) {
             checksStack.push(possibleChecks);
             for (Check c : possibleChecks) {
-                Stats.of(c.getClass().getName()).start();
+                Metrics.Timer timer = checkTimers.get(c);
+                long start = timer.start();
                 switch (interest) {
                 case FIELD:
                     c.visitField((FieldElement) oldElement, (FieldElement) newElement);
@@ -226,7 +279,7 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
                     c.visitMethodParameter((MethodParameterElement) oldElement, (MethodParameterElement) newElement);
                     break;
                 }
-                Stats.of(c.getClass().getName()).end(oldElement, newElement);
+                timer.stop(start);
             }
         } else {
             // "ignore what's on the stack because no checks actually happened".
@@ -242,31 +295,24 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
             nonExistenceNewRoot = null;
         }
 
-        if (conforms(oldElement, newElement, AnnotationElement.class)) {
-            // the annotations are always reported at the parent element
-            return new Report(Collections.emptyList(), oldElement, newElement);
-        }
-
-        List<Difference> differences = new ArrayList<>();
-        Collection<Check> lastChecks = checksStack.pop();
-
-        for (Check c : lastChecks) {
-            List<Difference> p = c.visitEnd();
-            if (p != null) {
-                differences.addAll(p);
+        IncrementalAnalysisCache.TypeAnalysis currentTypeAnalysis = typeAnalysis;
+        List<Difference> differences;
+        if (currentTypeAnalysis == null) {
+            differences = collectDifferences(oldElement, newElement);
+        } else {
+            if (currentTypeAnalysis.isReplaying()) {
+                differences = currentTypeAnalysis.replay(oldElement, newElement);
+            } else {
+                differences = collectDifferences(oldElement, newElement);
+                currentTypeAnalysis.record(oldElement, newElement, differences);
             }
-        }
 
-        if (lastAnnotationResults != null && !lastAnnotationResults.isEmpty()) {
-            differences.addAll(lastAnnotationResults);
-            lastAnnotationResults.clear();
+            if (currentTypeAnalysis.isTypePair(oldElement, newElement)) {
+                currentTypeAnalysis.finish();
+                typeAnalysis = null;
+            }
         }
 
-        if (!differences.isEmpty()) {
-            LOG.trace("Detected following problems: {}", differences);
-        }
-        Timing.LOG.trace("Ended analysis of {} and {}.", oldElement, newElement);
-
         ListIterator<Difference> it = differences.listIterator();
         while (it.hasNext()) {
             Difference d = it.next();
@@ -302,6 +348,35 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
         return new Report(differences, oldElement, newElement);
     }
 
+    private List<Difference> collectDifferences(@Nullable JavaElement oldElement, @Nullable JavaElement newElement) {
+        if (conforms(oldElement, newElement, AnnotationElement.class)) {
+            // the annotations are always reported at the parent element
+            return new ArrayList<>(0);
+        }
+
+        List<Difference> differences = new ArrayList<>();
+        Collection<Check> lastChecks = checksStack.pop();
+
+        for (Check c : lastChecks) {
+            List<Difference> p = c.visitEnd();
+            if (p != null) {
+                differences.addAll(p);
+            }
+        }
+
+        if (lastAnnotationResults != null && !lastAnnotationResults.isEmpty()) {
+            differences.addAll(lastAnnotationResults);
+            lastAnnotationResults.clear();
+        }
+
+        if (!differences.isEmpty()) {
+            LOG.trace("Detected following problems: {}", differences);
+        }
+        Timing.LOG.trace("Ended analysis of {} and {}.", oldElement, newElement);
+
+        return differences;
+    }
+
     private <T> boolean conforms(Object a, Object b, Class<T> cls) {
         boolean ca = a == null || cls.isAssignableFrom(a.getClass());
         boolean cb = b == null || cls.isAssignableFrom(b.getClass());
@@ -565,8 +640,8 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer<J
             return false;
         }
 
-        String elementSig = Util.toUniqueString(element.getModelRepresentation());
-        String declSig = Util.toUniqueString(element.getDeclaringElement().asType());
+        String elementSig = element.getTypeEnvironment().toUniqueString(element.getModelRepresentation());
+        String declSig = element.getTypeEnvironment().toUniqueString(element.getDeclaringElement().asType());
 
         if (!Objects.equals(elementSig, declSig)) {
             return false;
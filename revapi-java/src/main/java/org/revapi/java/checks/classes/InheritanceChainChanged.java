@@ -105,10 +105,11 @@ public final class InheritanceChainChanged extends CheckBase {
 
             List<Difference> ret = new ArrayList<>();
 
+            // the super classes are sorted below, so we need to copy the lists remembered by the type environments
             @SuppressWarnings("unchecked")
-            List<TypeMirror> oldSuperClasses = (List<TypeMirror>) types.context[0];
+            List<TypeMirror> oldSuperClasses = new ArrayList<>((List<TypeMirror>) types.context[0]);
             @SuppressWarnings("unchecked")
-            List<TypeMirror> newSuperClasses = (List<TypeMirror>) types.context[1];
+            List<TypeMirror> newSuperClasses = new ArrayList<>((List<TypeMirror>) types.context[1]);
 
             reportMissingSuperTypes(ret, oldSuperClasses, Code.MISSING_OLD_SUPERTYPE, types);
             reportMissingSuperTypes(ret, newSuperClasses, Code.MISSING_NEW_SUPERTYPE, types);
@@ -205,10 +206,8 @@ public final class InheritanceChainChanged extends CheckBase {
         TypeElement oldType = oldEl.getDeclaringElement();
         TypeElement newType = newEl.getDeclaringElement();
 
-        List<TypeMirror> oldSuperTypes = Util.getAllSuperClasses(getOldTypeEnvironment().getTypeUtils(),
-                oldType.asType());
-        List<TypeMirror> newSuperTypes = Util.getAllSuperClasses(getNewTypeEnvironment().getTypeUtils(),
-                newType.asType());
+        List<TypeMirror> oldSuperTypes = getOldTypeEnvironment().getAllSuperClasses(oldType.asType());
+        List<TypeMirror> newSuperTypes = getNewTypeEnvironment().getAllSuperClasses(newType.asType());
 
         if (oldSuperTypes.size() != newSuperTypes.size()) {
             pushActive(oldEl, newEl, oldSuperTypes, newSuperTypes);
@@ -252,12 +251,13 @@ public final class InheritanceChainChanged extends CheckBase {
         return false;
     }
 
-    private List<String> superClassChainAsUniqueStrings(@Nonnull TypeMirror cls, @Nonnull Types env) {
-        List<TypeMirror> supers = Util.getAllSuperClasses(env, cls);
+    private List<String> superClassChainAsUniqueStrings(@Nonnull TypeMirror cls, @Nonnull TypeEnvironment env) {
+        List<TypeMirror> supers = env.getAllSuperClasses(cls);
         List<String> ret = new ArrayList<>(supers.size());
 
+        Types types = env.getTypeUtils();
         for (TypeMirror s : supers) {
-            ret.add(Util.toUniqueString(env.erasure(s)));
+            ret.add(Util.toUniqueString(types.erasure(s)));
         }
 
         return ret;
@@ -275,11 +275,9 @@ public final class InheritanceChainChanged extends CheckBase {
             if (el != null) {
                 TypeMirror opposite = el.asType();
 
-                List<String> candidateSuperChain = superClassChainAsUniqueStrings(candidate,
-                        candidateEnvironment.getTypeUtils());
+                List<String> candidateSuperChain = superClassChainAsUniqueStrings(candidate, candidateEnvironment);
 
-                List<String> oppositeSuperChain = superClassChainAsUniqueStrings(opposite,
-                        oppositeEnvironment.getTypeUtils());
+                List<String> oppositeSuperChain = superClassChainAsUniqueStrings(opposite, oppositeEnvironment);
 
                 report = !candidateSuperChain.equals(oppositeSuperChain);
             }
@@ -46,14 +46,14 @@ public final class NoLongerImplementsInterface extends CheckBase {
             return;
         }
 
-        List<TypeMirror> newInterfaces = Util.getAllSuperInterfaces(getNewTypeEnvironment().getTypeUtils(),
-                newType.getModelRepresentation());
+        List<TypeMirror> newInterfaces = getNewTypeEnvironment()
+                .getAllSuperInterfaces(newType.getModelRepresentation());
 
-        List<TypeMirror> oldInterfaces = Util.getAllSuperInterfaces(getOldTypeEnvironment().getTypeUtils(),
-                oldType.getModelRepresentation());
+        List<TypeMirror> oldInterfaces = getOldTypeEnvironment()
+                .getAllSuperInterfaces(oldType.getModelRepresentation());
 
         for (TypeMirror oldIface : oldInterfaces) {
-            if (!Util.isSubtype(oldIface, newInterfaces, getOldTypeEnvironment().getTypeUtils())) {
+            if (!getOldTypeEnvironment().isSubtype(oldIface, newInterfaces)) {
                 pushActive(oldType, newType, oldInterfaces, newInterfaces);
                 break;
             }
@@ -76,7 +76,7 @@ public final class NoLongerImplementsInterface extends CheckBase {
         List<TypeMirror> newInterfaces = (List<TypeMirror>) types.context[1];
 
         for (TypeMirror oldIface : oldInterfaces) {
-            if (!Util.isSubtype(oldIface, newInterfaces, getOldTypeEnvironment().getTypeUtils())) {
+            if (!getOldTypeEnvironment().isSubtype(oldIface, newInterfaces)) {
                 result.add(createDifference(Code.CLASS_NO_LONGER_IMPLEMENTS_INTERFACE, Code.attachmentsFor(
                         types.oldElement, types.newElement, "interface", Util.toHumanReadableString(oldIface))));
             }
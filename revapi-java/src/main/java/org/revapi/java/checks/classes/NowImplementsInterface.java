@@ -52,7 +52,7 @@ public final class NowImplementsInterface extends CheckBase {
         List<? extends TypeMirror> oldInterfaces = oldType.getDeclaringElement().getInterfaces();
 
         for (TypeMirror newIface : newInterfaces) {
-            if (!Util.isSubtype(newIface, oldInterfaces, getNewTypeEnvironment().getTypeUtils())) {
+            if (!getNewTypeEnvironment().isSubtype(newIface, oldInterfaces)) {
                 pushActive(oldType, newType);
                 break;
             }
@@ -72,7 +72,7 @@ public final class NowImplementsInterface extends CheckBase {
         List<? extends TypeMirror> oldInterfaces = types.oldElement.getDeclaringElement().getInterfaces();
 
         for (TypeMirror newIface : newInterfaces) {
-            if (!Util.isSubtype(newIface, oldInterfaces, getNewTypeEnvironment().getTypeUtils())) {
+            if (!getNewTypeEnvironment().isSubtype(newIface, oldInterfaces)) {
                 result.add(createDifference(Code.CLASS_NOW_IMPLEMENTS_INTERFACE, Code.attachmentsFor(types.oldElement,
                         types.newElement, "interface", Util.toHumanReadableString(newIface))));
             }
@@ -313,7 +313,7 @@ public class SerializationChecker extends CheckBase {
 
         Types types = environment.getTypeUtils();
 
-        for (TypeMirror st : Util.getAllSuperClasses(types, type.asType())) {
+        for (TypeMirror st : environment.getAllSuperClasses(type.asType())) {
             Element ste = types.asElement(st);
             if (ste == null) {
                 // a missing class
@@ -44,9 +44,9 @@ public final class TypeChanged extends CheckBase {
             return;
         }
 
-        String oldType = Util.toUniqueString(
+        String oldType = oldField.getTypeEnvironment().toUniqueString(
                 oldField.getTypeEnvironment().getTypeUtils().erasure(oldField.getModelRepresentation()));
-        String newType = Util.toUniqueString(
+        String newType = newField.getTypeEnvironment().toUniqueString(
                 newField.getTypeEnvironment().getTypeUtils().erasure(newField.getModelRepresentation()));
 
         if (!oldType.equals(newType)) {
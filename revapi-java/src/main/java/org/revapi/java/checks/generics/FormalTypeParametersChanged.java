@@ -85,8 +85,8 @@ public final class FormalTypeParametersChanged extends CheckBase {
         while (oldIt.hasNext() && newIt.hasNext()) {
             TypeParameterElement oldT = oldIt.next();
             TypeParameterElement newT = newIt.next();
-            String oldS = Util.toUniqueString(oldT.asType());
-            String newS = Util.toUniqueString(newT.asType());
+            String oldS = getOldTypeEnvironment().toUniqueString(oldT.asType());
+            String newS = getNewTypeEnvironment().toUniqueString(newT.asType());
 
             if (!oldS.equals(newS)) {
                 changed.put(oldT, newT);
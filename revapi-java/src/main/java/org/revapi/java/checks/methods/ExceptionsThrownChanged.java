@@ -73,10 +73,10 @@ public class ExceptionsThrownChanged extends CheckBase {
         List<? extends TypeMirror> newExceptions = newMethod.getModelRepresentation().getThrownTypes();
 
         Set<String> oldExceptionClassNames = oldExceptions.isEmpty() ? Collections.emptySet()
-                : oldExceptions.stream().map(Util::toUniqueString).collect(Collectors.toSet());
+                : oldExceptions.stream().map(getOldTypeEnvironment()::toUniqueString).collect(Collectors.toSet());
 
         Set<String> newExceptionClassNames = newExceptions.isEmpty() ? Collections.emptySet()
-                : newExceptions.stream().map(Util::toUniqueString).collect(Collectors.toSet());
+                : newExceptions.stream().map(getNewTypeEnvironment()::toUniqueString).collect(Collectors.toSet());
 
         if (!(oldExceptions.isEmpty() && newExceptions.isEmpty())
                 && !oldExceptionClassNames.equals(newExceptionClassNames)) {
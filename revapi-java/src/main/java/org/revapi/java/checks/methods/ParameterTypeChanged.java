@@ -64,13 +64,13 @@ public final class ParameterTypeChanged extends CheckBase {
         }
 
         TypeMirror oldType = oldParameter.getModelRepresentation();
-        String oldParam = Util.toUniqueString(oldType);
-        String oldErasedParam = Util.toUniqueString(
+        String oldParam = getOldTypeEnvironment().toUniqueString(oldType);
+        String oldErasedParam = getOldTypeEnvironment().toUniqueString(
                 getOldTypeEnvironment().getTypeUtils().erasure(oldParameter.getDeclaringElement().asType()));
 
         TypeMirror newType = newParameter.getModelRepresentation();
-        String newParam = Util.toUniqueString(newType);
-        String newErasedParam = Util.toUniqueString(
+        String newParam = getNewTypeEnvironment().toUniqueString(newType);
+        String newErasedParam = getNewTypeEnvironment().toUniqueString(
                 getNewTypeEnvironment().getTypeUtils().erasure(newParameter.getDeclaringElement().asType()));
 
         if (!oldParam.equals(newParam) || !oldErasedParam.equals(newErasedParam)) {
@@ -55,16 +55,16 @@ public final class ReturnTypeChanged extends CheckBase {
         TypeMirror oldReturnType = oldMethod.getModelRepresentation().getReturnType();
         TypeMirror newReturnType = newMethod.getModelRepresentation().getReturnType();
 
-        String oldRet = Util.toUniqueString(oldReturnType);
-        String newRet = Util.toUniqueString(newReturnType);
+        String oldRet = getOldTypeEnvironment().toUniqueString(oldReturnType);
+        String newRet = getNewTypeEnvironment().toUniqueString(newReturnType);
 
         TypeMirror erasedOldType = getOldTypeEnvironment().getTypeUtils()
                 .erasure(oldMethod.getDeclaringElement().getReturnType());
         TypeMirror erasedNewType = getNewTypeEnvironment().getTypeUtils()
                 .erasure(newMethod.getDeclaringElement().getReturnType());
 
-        String oldErasedRet = Util.toUniqueString(erasedOldType);
-        String newErasedRet = Util.toUniqueString(erasedNewType);
+        String oldErasedRet = getOldTypeEnvironment().toUniqueString(erasedOldType);
+        String newErasedRet = getNewTypeEnvironment().toUniqueString(erasedNewType);
 
         if (!oldRet.equals(newRet) || !oldErasedRet.equals(newErasedRet)) {
             pushActive(oldMethod, newMethod, oldReturnType, oldRet, newReturnType, newRet, erasedOldType, oldErasedRet,
@@ -133,6 +133,6 @@ public final class ReturnTypeChanged extends CheckBase {
     }
 
     private boolean isCovariant(TypeMirror superType, TypeMirror subType) {
-        return Util.isSubtype(subType, Collections.singletonList(superType), getNewTypeEnvironment().getTypeUtils());
+        return getNewTypeEnvironment().isSubtype(subType, Collections.singletonList(superType));
     }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.compilation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A content-addressed on-disk cache of the archives as they are handed over to the compiler.
+ *
+ * <p>
+ * This is merely an extraction cache. It saves extracting (e.g. by the jar extractors) and copying the archives on
+ * every run, but the digest of each archive is still computed and the compilation and the scanning of the classes still
+ * happen on every run. The scanned java model cannot be cached, because its elements wrap the javac symbols that only
+ * exist during the compilation.
+ *
+ * <p>
+ * Each archive is keyed by the SHA-256 digest of its name, its contents and the fingerprint of the configuration that
+ * influences how the archive is materialized (i.e. the configuration of the jar extractors). If the cache already
+ * contains the materialized form of an archive, it is linked into the compilation directory instead of being extracted
+ * and copied again.
+ *
+ * <p>
+ * The archives {@link org.revapi.Archive.FileBacked backed by files} that no jar extractor transforms are not copied
+ * into the cache. The cache only remembers that they need no transformation, so that the jar extractors don't need to
+ * inspect them again, and their files are used directly.
+ *
+ * <p>
+ * The cache can be shared by several concurrently running analyses, even in different JVMs. Nothing is ever removed
+ * from the cache though, so it is up to the user to clean up the cache directory from time to time.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.29.0
+ */
+public final class ArchiveCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveCache.class);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final byte[] configurationFingerprint;
+
+    /**
+     * @param directory
+     *            the directory to store the cached archives in. It is created if it doesn't exist.
+     * @param configurationFingerprint
+     *            a string representing the configuration that influences how the archives are materialized
+     */
+    public ArchiveCache(Path directory, String configurationFingerprint) {
+        this.directory = directory;
+        this.configurationFingerprint = configurationFingerprint.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Finds the file containing the materialized form of the archive. If the archive is not yet present in the cache,
+     * the provided transformer is used to obtain its data which are then stored in the cache.
+     *
+     * @param archive
+     *            the archive to materialize
+     * @param original
+     *            the file the archive is stored in or null if the archive is not backed by a file. If the archive is
+     *            not transformed, this file is returned instead of storing a copy of it in the cache.
+     * @param transformer
+     *            the function to obtain the data of the archive in the form the compiler should see, if it differs from
+     *            the data of the archive
+     *
+     * @return the cached file or the original file if the archive needs no transformation
+     *
+     * @throws IOException
+     *             on failure to read the archive or write the cache
+     */
+    Path materialize(Archive archive, @Nullable Path original, Transformer transformer) throws IOException {
+        String key = computeKey(archive);
+        Path parent = directory.resolve(key.substring(0, 2));
+        Path cached = parent.resolve(key + ".jar");
+        Path untransformedMarker = parent.resolve(key + ".untransformed");
+
+        if (Files.exists(cached)) {
+            LOG.debug("Using the cached copy {} of archive {}", cached, archive.getName());
+            return cached;
+        }
+
+        if (original != null && Files.exists(untransformedMarker)) {
+            LOG.debug("Using archive {} as is, because it is known not to need any transformation", archive.getName());
+            return original;
+        }
+
+        Optional<InputStream> transformed = transformer.transform(archive);
+        if (!transformed.isPresent() && original != null) {
+            // there's no point in storing a copy of a file that is already on disk
+            Files.createDirectories(parent);
+            try {
+                Files.createFile(untransformedMarker);
+            } catch (FileAlreadyExistsException e) {
+                // someone else was faster, which is fine
+            }
+            return original;
+        }
+
+        try (InputStream data = transformed.isPresent() ? transformed.get() : archive.openStream()) {
+            store(archive, cached, data);
+        }
+
+        return cached;
+    }
+
+    private void store(Archive archive, Path cached, InputStream data) throws IOException {
+        Path parent = cached.getParent();
+        Files.createDirectories(parent);
+
+        // other analyses might be storing the same archive at the same time. Each one writes to its own temporary
+        // file and only atomically moves it into place once it is complete.
+        Path tmp = Files.createTempFile(parent, cached.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(data, tmp, StandardCopyOption.REPLACE_EXISTING);
+
+            try {
+                Files.move(tmp, cached, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, cached);
+            }
+
+            LOG.debug("Stored archive {} in the cache as {}", archive.getName(), cached);
+        } catch (FileAlreadyExistsException e) {
+            // someone else was faster, which is fine, because the contents is the same.
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private String computeKey(Archive archive) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported by the JVM.", e);
+        }
+
+        digest.update(configurationFingerprint);
+        digest.update((byte) 0);
+        digest.update(archive.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+
+        byte[] buffer = new byte[32768];
+        try (InputStream data = archive.openStream()) {
+            int cnt;
+            while ((cnt = data.read(buffer)) != -1) {
+                digest.update(buffer, 0, cnt);
+            }
+        }
+
+        byte[] hash = digest.digest();
+        char[] ret = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; ++i) {
+            ret[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+            ret[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+
+        return new String(ret);
+    }
+
+    /**
+     * Provides the data of an archive in the form that should be seen by the compiler, if it differs from the data of
+     * the archive itself.
+     */
+    @FunctionalInterface
+    interface Transformer {
+        Optional<InputStream> transform(Archive archive) throws IOException;
+    }
+}
@@ -17,9 +17,9 @@
 package org.revapi.java.compilation;
 
 import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 
 import static org.revapi.java.AnalysisConfiguration.MissingClassReporting.ERROR;
 import static org.revapi.java.AnalysisConfiguration.MissingClassReporting.IGNORE;
@@ -34,13 +34,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -51,12 +53,20 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import javax.annotation.Nonnull;
+import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
@@ -92,7 +102,6 @@ import org.revapi.FilterStartResult;
 import org.revapi.Ternary;
 import org.revapi.TreeFilter;
 import org.revapi.java.AnalysisConfiguration;
-import org.revapi.java.model.AbstractJavaElement;
 import org.revapi.java.model.AnnotationElement;
 import org.revapi.java.model.FieldElement;
 import org.revapi.java.model.InitializationOptimizations;
@@ -205,10 +214,24 @@ final class ClasspathScanner {
     private final boolean ignoreMissingAnnotations;
     private final TreeFilter<JavaElement> filter;
     private final TypeElement objectType;
+    private final int listingThreads;
 
     ClasspathScanner(StandardJavaFileManager fileManager, ProbingEnvironment environment, Map<Archive, File> classPath,
             Map<Archive, File> additionalClassPath, AnalysisConfiguration.MissingClassReporting missingClassReporting,
             boolean ignoreMissingAnnotations, TreeFilter<JavaElement> filter) {
+        this(fileManager, environment, classPath, additionalClassPath, missingClassReporting, ignoreMissingAnnotations,
+                filter, 1);
+    }
+
+    /**
+     * @param listingThreads
+     *            the number of threads used to list the classes in the primary archives. If greater than 1, the
+     *            archives are listed concurrently without involving the compiler. The types themselves are always
+     *            scanned on the calling thread, because the compiler's symbol table is not thread-safe.
+     */
+    ClasspathScanner(StandardJavaFileManager fileManager, ProbingEnvironment environment, Map<Archive, File> classPath,
+            Map<Archive, File> additionalClassPath, AnalysisConfiguration.MissingClassReporting missingClassReporting,
+            boolean ignoreMissingAnnotations, TreeFilter<JavaElement> filter, int listingThreads) {
         this.fileManager = fileManager;
         this.environment = environment;
         this.classPath = classPath;
@@ -217,16 +240,25 @@ final class ClasspathScanner {
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
         this.filter = filter;
         this.objectType = environment.getElementUtils().getTypeElement("java.lang.Object");
+        this.listingThreads = listingThreads;
     }
 
     void initTree() throws IOException {
+        if (environment.isFingerprintingClasses()) {
+            environment.setClassFingerprints(readClassFingerprints());
+        }
+
         List<ArchiveLocation> classPathLocations = classPath.keySet().stream().map(ArchiveLocation::new)
                 .collect(toList());
 
         Scanner scanner = new Scanner();
 
-        for (ArchiveLocation loc : classPathLocations) {
-            scanner.scan(loc, classPath.get(loc.getArchive()), true);
+        if (listingThreads > 1 && classPathLocations.size() > 1) {
+            scanConcurrentlyListed(scanner, classPathLocations);
+        } else {
+            for (ArchiveLocation loc : classPathLocations) {
+                scanner.scan(loc, classPath.get(loc.getArchive()), true);
+            }
         }
 
         SyntheticLocation allLoc = new SyntheticLocation();
@@ -336,6 +368,124 @@ final class ClasspathScanner {
         scanner.initEnvironment();
     }
 
+    private void scanConcurrentlyListed(Scanner scanner, List<ArchiveLocation> locations) throws IOException {
+        int nofThreads = Math.min(listingThreads, locations.size());
+        AtomicInteger threadIdx = new AtomicInteger();
+        ExecutorService listingExecutor = Executors.newFixedThreadPool(nofThreads, r -> {
+            Thread t = new Thread(r,
+                    "Revapi Class Listing Thread " + threadIdx.incrementAndGet() + " for " + environment.getApi());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<List<String>>> listings = new ArrayList<>(locations.size());
+            for (ArchiveLocation loc : locations) {
+                File path = classPath.get(loc.getArchive());
+                listings.add(listingExecutor.submit(() -> listClasses(path)));
+            }
+
+            // the scanning itself needs to happen in the classpath order and on this thread, because the compiler is
+            // not thread-safe. The listing of the next archives continues in the background in the meantime.
+            for (int i = 0; i < locations.size(); ++i) {
+                ArchiveLocation loc = locations.get(i);
+                File path = classPath.get(loc.getArchive());
+                List<String> binaryNames;
+                try {
+                    binaryNames = listings.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while listing the classes of " + loc.getArchive(), e);
+                } catch (ExecutionException e) {
+                    // let the compiler deal with whatever it is we could not read ourselves
+                    LOG.debug("Failed to list the classes in " + path + ". Falling back to the compiler.",
+                            e.getCause());
+                    scanner.scan(loc, path, true);
+                    continue;
+                }
+
+                fileManager.setLocation(loc, Collections.singleton(path));
+                scanner.scan(loc, binaryNames, true);
+            }
+        } finally {
+            listingExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the CRC-32 checksums of all the class files in the archives, as stored in the jar files. If a class is
+     * present in several archives, the first one on the classpath wins, like in the compiler.
+     */
+    private Map<String, Long> readClassFingerprints() throws IOException {
+        Map<String, Long> ret = new HashMap<>();
+        for (File jar : classPath.values()) {
+            readClassFingerprints(jar, ret);
+        }
+        for (File jar : additionalClassPath.values()) {
+            readClassFingerprints(jar, ret);
+        }
+        return ret;
+    }
+
+    private static void readClassFingerprints(File jar, Map<String, Long> fingerprints) throws IOException {
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.endsWith(".class") || entry.getCrc() == -1) {
+                    continue;
+                }
+
+                String binaryName = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+                fingerprints.putIfAbsent(binaryName, entry.getCrc());
+            }
+        }
+    }
+
+    /**
+     * Lists the binary names of all the classes in the provided jar file in the same way as the compiler's file manager
+     * does, but without touching the compiler so that it can be called from any thread. Like the file manager, this
+     * ignores the classes in the directories that cannot be packages (e.g. {@code META-INF/versions/9}). The module
+     * descriptors are ignored, too (see {@link #isModuleDescriptor(String)}).
+     */
+    static List<String> listClasses(File jar) throws IOException {
+        List<String> ret = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.endsWith(".class") || !isListable(name)) {
+                    continue;
+                }
+
+                ret.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+
+        return ret;
+    }
+
+    private static boolean isListable(String classFilePath) {
+        String[] segments = classFilePath.split("/");
+        for (int i = 0; i < segments.length - 1; ++i) {
+            if (!SourceVersion.isIdentifier(segments[i])) {
+                return false;
+            }
+        }
+
+        String binaryName = classFilePath.substring(0, classFilePath.length() - ".class".length()).replace('/', '.');
+        return !isModuleDescriptor(binaryName);
+    }
+
+    /**
+     * The file manager lists the module descriptors as classes, but they don't declare any type.
+     */
+    private static boolean isModuleDescriptor(String binaryName) {
+        return "module-info".equals(binaryName);
+    }
+
     private final class Scanner {
         final Set<TypeElement> processed = new HashSet<>();
         final Map<TypeElement, Boolean> requiredTypes = new IdentityHashMap<>();
@@ -396,16 +546,26 @@ final class ClasspathScanner {
         void scan(ArchiveLocation location, File path, boolean primaryApi) throws IOException {
             fileManager.setLocation(location, Collections.singleton(path));
 
-            List<TypeElement> typesToScan = new ArrayList<>();
-
-            // List all class files in the given location, eagerly convert them into TypeElements that need to be
-            // scanned. The JavaFileObjects are eagerly converted as they use '$' to indicate an inner class instead of
-            // '.' which results in improper natural sorting, which could lead to NullPointerExceptions later on when
-            // inner types are added as children to the containing type. For example, Class$Inner.class would be sorted
-            // before Class.class as '$' comes before '.' in ASCII/UTF-8.
+            List<String> binaryNames = new ArrayList<>();
             for (JavaFileObject jfo : fileManager.list(location, "", EnumSet.of(JavaFileObject.Kind.CLASS), true)) {
-                TypeElement type = Util.findTypeByBinaryName(environment.getElementUtils(),
-                        fileManager.inferBinaryName(location, jfo));
+                String binaryName = fileManager.inferBinaryName(location, jfo);
+                if (!isModuleDescriptor(binaryName)) {
+                    binaryNames.add(binaryName);
+                }
+            }
+
+            scan(location, binaryNames, primaryApi);
+        }
+
+        void scan(ArchiveLocation location, List<String> binaryNames, boolean primaryApi) {
+            List<TypeElement> typesToScan = new ArrayList<>(binaryNames.size());
+
+            // Eagerly convert the class names into TypeElements that need to be scanned. The binary names use '$' to
+            // indicate an inner class instead of '.' which results in improper natural sorting, which could lead to
+            // NullPointerExceptions later on when inner types are added as children to the containing type. For
+            // example, Class$Inner.class would be sorted before Class.class as '$' comes before '.' in ASCII/UTF-8.
+            for (String binaryName : binaryNames) {
+                TypeElement type = Util.findTypeByBinaryName(environment.getElementUtils(), binaryName);
 
                 if (type != null) {
                     typesToScan.add(type);
@@ -851,32 +1011,44 @@ final class ClasspathScanner {
         }
 
         private void determineApiStatus() {
-            Set<TypeRecord> undetermined = new HashSet<>(this.types.values());
-            while (!undetermined.isEmpty()) {
-                undetermined = undetermined.stream().filter(tr -> tr.inclusionState.getMatch().toBoolean(true))
-                        .filter(tr -> tr.inApi)
-                        .flatMap(tr -> tr.usedTypes.entrySet().stream()
-                                .map(e -> new AbstractMap.SimpleImmutableEntry<>(tr, e)))
-                        .filter(e -> movesToApi(e.getValue().getKey()))
-                        .flatMap(e -> e.getValue().getValue().keySet().stream()).filter(usedTr -> !usedTr.inApi)
-                        .filter(usedTr -> usedTr.inclusionState.getMatch().toBoolean(true)).peek(usedTr -> {
+            // a single pass over the uses, each type is moved to the API at most once and only then its uses are
+            // followed
+            Deque<TypeRecord> toVisit = this.types.values().stream()
+                    .filter(tr -> tr.inclusionState.getMatch().toBoolean(true)).filter(tr -> tr.inApi)
+                    .collect(toCollection(ArrayDeque::new));
+
+            while (!toVisit.isEmpty()) {
+                TypeRecord tr = toVisit.poll();
+                for (Map.Entry<UseSite.Type, Map<TypeRecord, Set<UseSitePath>>> e : tr.usedTypes.entrySet()) {
+                    if (!movesToApi(e.getKey())) {
+                        continue;
+                    }
+
+                    for (TypeRecord usedTr : e.getValue().keySet()) {
+                        if (!usedTr.inApi && usedTr.inclusionState.getMatch().toBoolean(true)) {
                             usedTr.inApi = true;
                             usedTr.inApiThroughUse = true;
-                        }).collect(toSet());
+                            toVisit.add(usedTr);
+                        }
+                    }
+                }
             }
         }
 
         private void moveInnerClassesOfPrimariesToApi() {
-            Set<TypeRecord> primaries = this.types.values().stream().filter(tr -> tr.primaryApi).filter(tr -> tr.inApi)
-                    .filter(tr -> tr.nestingDepth == 0).collect(toSet());
-
-            while (!primaries.isEmpty()) {
-                primaries = primaries.stream()
-                        .flatMap(tr -> tr.usedTypes.getOrDefault(UseSite.Type.CONTAINS, emptyMap()).keySet().stream())
-                        .filter(containedTr -> containedTr.inclusionState.getMatch().toBoolean(true))
-                        .filter(containedTr -> containedTr.modelElement != null)
-                        .filter(containedTr -> !shouldBeIgnored(containedTr.modelElement.getDeclaringElement()))
-                        .peek(containedTr -> containedTr.inApi = true).collect(toSet());
+            Deque<TypeRecord> toVisit = this.types.values().stream().filter(tr -> tr.primaryApi).filter(tr -> tr.inApi)
+                    .filter(tr -> tr.nestingDepth == 0).collect(toCollection(ArrayDeque::new));
+
+            // the containment is a tree, so each type is visited at most once
+            while (!toVisit.isEmpty()) {
+                TypeRecord tr = toVisit.poll();
+                for (TypeRecord containedTr : tr.usedTypes.getOrDefault(UseSite.Type.CONTAINS, emptyMap()).keySet()) {
+                    if (containedTr.inclusionState.getMatch().toBoolean(true) && containedTr.modelElement != null
+                            && !shouldBeIgnored(containedTr.modelElement.getDeclaringElement())) {
+                        containedTr.inApi = true;
+                        toVisit.add(containedTr);
+                    }
+                }
             }
         }
 
@@ -988,13 +1160,11 @@ final class ClasspathScanner {
                     finishFiltering(target, ret);
                 } else {
                     // this element is not generic, so we can merely copy it...
-                    if (target.inApi) {
-                        // this element will for sure be in the API and hence API checked... let's optimize
-                        // this case and pre-create the comparable signature of the element before we copy it
-                        // so that we don't have to re-create it in every inherited class. This is especially
-                        // useful for methods from java.lang.Object, and in deep large hierarchies.
-                        InitializationOptimizations.initializeComparator(e);
-                    }
+                    // the copy is going to be sorted amongst the children of the target, which needs the comparable
+                    // signature. Let's pre-create it before we copy the element so that all the copies share it
+                    // instead of re-creating it in every inherited class. This is especially useful for methods from
+                    // java.lang.Object, and in deep large hierarchies.
+                    InitializationOptimizations.initializeComparator(e);
 
                     @SuppressWarnings({ "unchecked", "rawtypes" })
                     Optional<JavaElementBase<?, ?>> copy = ((JavaElementBase) e).cloneUnder(target.modelElement);
@@ -1008,7 +1178,8 @@ final class ClasspathScanner {
 
                     FilterStartResult fr = filter.start(ret);
                     if (fr.getDescend().toBoolean(true)) {
-                        copyInheritedNonClassElementChildren(target, ret, e.getChildren(), target.inApi);
+                        // the children are only copied once someone asks for them
+                        ret.inheritChildrenFrom(e);
                     }
 
                     finishFiltering(target, ret);
@@ -1239,36 +1410,6 @@ final class ClasspathScanner {
                 parent.getChildren().add(new AnnotationElement(environment, parent.getArchive(), m));
             }
         }
-
-        @SuppressWarnings("EqualsWithItself")
-        private void copyInheritedNonClassElementChildren(TypeRecord parentOwner, JavaElementBase<?, ?> parent,
-                Iterable<? extends JavaElement> sourceChildren, boolean forceComparatorInitialization) {
-
-            for (JavaElement c : sourceChildren) {
-                if (c instanceof TypeElement) {
-                    continue;
-                }
-
-                if (forceComparatorInitialization) {
-                    InitializationOptimizations.initializeComparator(c);
-                }
-
-                JavaElement cc = InitializationOptimizations.clone(c);
-
-                parent.getChildren().add(cc);
-
-                if (cc instanceof AbstractJavaElement) {
-                    ((AbstractJavaElement) cc).setArchive(parent.getArchive());
-
-                    if (cc instanceof JavaElementBase) {
-                        JavaElementBase<?, ?> mcc = (JavaElementBase<?, ?>) cc;
-                        mcc.setInherited(true);
-                        copyInheritedNonClassElementChildren(parentOwner, mcc, c.getChildren(),
-                                forceComparatorInitialization);
-                    }
-                }
-            }
-        }
     }
 
     private static String getOverrideMapKey(MethodElement method) {
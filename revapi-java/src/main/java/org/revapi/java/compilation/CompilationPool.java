@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.compilation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of the resources needed to compile the APIs that can be reused by many analyses running in the same JVM, e.g.
+ * by the analyses of all the modules in a Maven reactor.
+ *
+ * <p>
+ * The pool keeps the system java compiler and the threads the compilations run in. The idle threads are terminated
+ * after a while. Nothing else is reused. Each compilation still uses its own file manager, because the file managers
+ * accumulate the locations of the archives of the compilations they were used for, and javac creates new symbol tables
+ * for each compilation. The index of the JDK classes that javac keeps is JVM-wide regardless of the pool.
+ *
+ * <p>
+ * The pool is opt-in. An analysis uses it if the analysis context contains it (or {@code true} to use the
+ * {@link #shared() JVM-wide pool}) under the {@link #CONTEXT_DATA_KEY} key.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.29.0
+ */
+public final class CompilationPool implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(CompilationPool.class);
+
+    /**
+     * The key in the {@link org.revapi.AnalysisContext#getData(String) analysis context data} under which the java
+     * analyzer looks for the pool to use.
+     */
+    public static final String CONTEXT_DATA_KEY = "org.revapi.java.compilationPool";
+
+    private static final long DEFAULT_KEEP_ALIVE_SECONDS = 60;
+
+    private static volatile CompilationPool shared;
+
+    private final JavaCompiler compiler;
+    private final ThreadPoolExecutor executor;
+
+    public CompilationPool() {
+        this(DEFAULT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param keepAlive
+     *            how long to keep an idle compilation thread around
+     * @param unit
+     *            the time unit of the keep alive
+     */
+    public CompilationPool(long keepAlive, TimeUnit unit) {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new AssertionError("Could not obtain the system compiler. Is tools.jar on the classpath?");
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        // each compilation occupies its thread until the analysis is done with its results, so the number of threads
+        // cannot be limited without risking a deadlock.
+        executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, keepAlive, unit, new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "Pooled Java API Compilation Thread #" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the pool shared by all the analyses in this JVM
+     */
+    public static CompilationPool shared() {
+        CompilationPool ret = shared;
+        if (ret == null) {
+            synchronized (CompilationPool.class) {
+                ret = shared;
+                if (ret == null) {
+                    shared = ret = new CompilationPool();
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public JavaCompiler getCompiler() {
+        return compiler;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Shuts down the compilation threads once they finish the running compilations. The {@link #shared() shared pool}
+     * cannot be closed.
+     */
+    @Override
+    public void close() {
+        if (this == shared) {
+            LOG.debug("Ignoring the attempt to close the JVM-wide compilation pool.");
+            return;
+        }
+
+        executor.shutdown();
+    }
+}
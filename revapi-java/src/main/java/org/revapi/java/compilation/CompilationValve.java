@@ -67,6 +67,7 @@ public final class CompilationValve {
             LOG.trace("Releasing compilation environment for " + environment.getApi());
         }
         environment.getCompilationTeardownLatch().countDown();
+        environment.releaseTypeCaches();
 
         if (!compilationResult.isDone()) {
             try {
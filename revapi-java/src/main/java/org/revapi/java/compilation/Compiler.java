@@ -37,6 +37,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import javax.annotation.Nullable;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
@@ -66,15 +67,41 @@ public final class Compiler {
     private final ExecutorService executor;
     private final TreeFilter<JavaElement> filter;
     private final Iterable<JarExtractor> jarExtractors;
+    private final @Nullable ArchiveCache archiveCache;
+    private final int archiveListingThreads;
 
     public Compiler(ExecutorService executor, Writer reportingOutput, Iterable<JarExtractor> jarExtractors,
             Iterable<? extends Archive> classPath, Iterable<? extends Archive> additionalClassPath,
             TreeFilter<JavaElement> filter) {
-        this.jarExtractors = jarExtractors;
+        this(executor, reportingOutput, jarExtractors, classPath, additionalClassPath, filter, null, 1);
+    }
+
+    public Compiler(ExecutorService executor, Writer reportingOutput, Iterable<JarExtractor> jarExtractors,
+            Iterable<? extends Archive> classPath, Iterable<? extends Archive> additionalClassPath,
+            TreeFilter<JavaElement> filter, @Nullable ArchiveCache archiveCache, int archiveListingThreads) {
+        this(executor, reportingOutput, jarExtractors, classPath, additionalClassPath, filter, archiveCache,
+                archiveListingThreads, null);
+    }
 
-        compiler = ToolProvider.getSystemJavaCompiler();
-        if (compiler == null) {
-            throw new AssertionError("Could not obtain the system compiler. Is tools.jar on the classpath?");
+    /**
+     * @param compilationPool
+     *            if not null, the compiler is taken from the pool
+     */
+    public Compiler(ExecutorService executor, Writer reportingOutput, Iterable<JarExtractor> jarExtractors,
+            Iterable<? extends Archive> classPath, Iterable<? extends Archive> additionalClassPath,
+            TreeFilter<JavaElement> filter, @Nullable ArchiveCache archiveCache, int archiveListingThreads,
+            @Nullable CompilationPool compilationPool) {
+        this.jarExtractors = jarExtractors;
+        this.archiveCache = archiveCache;
+        this.archiveListingThreads = archiveListingThreads;
+
+        if (compilationPool != null) {
+            compiler = compilationPool.getCompiler();
+        } else {
+            compiler = ToolProvider.getSystemJavaCompiler();
+            if (compiler == null) {
+                throw new AssertionError("Could not obtain the system compiler. Is tools.jar on the classpath?");
+            }
         }
 
         this.executor = executor;
@@ -131,7 +158,7 @@ public final class Compiler {
 
             try {
                 new ClasspathScanner(fileManager, environment, classPathFiles, additionClassPathFiles,
-                        missingClassReporting, ignoreMissingAnnotations, filter).initTree();
+                        missingClassReporting, ignoreMissingAnnotations, filter, archiveListingThreads).initTree();
             } catch (IOException e) {
                 throw new IllegalStateException("Failed to scan the classpath.", e);
             }
@@ -192,8 +219,28 @@ public final class Compiler {
 
             Path target = new File(parentDir, name).toPath();
 
-            try (InputStream data = extracted(a)) {
-                Files.copy(data, target);
+            try {
+                File file = a instanceof Archive.FileBacked ? ((Archive.FileBacked) a).getFile() : null;
+                Path original = file != null && file.isFile() ? file.toPath().toAbsolutePath() : null;
+                if (archiveCache != null) {
+                    // the cache hands out the original file of the archives that are not transformed by any extractor
+                    link(archiveCache.materialize(a, original, this::transformed), target);
+                } else if (original != null) {
+                    // we only need to copy the files if they are transformed by some extractor, otherwise the compiler
+                    // can read them where they are.
+                    Optional<InputStream> transformed = transformed(a);
+                    if (transformed.isPresent()) {
+                        try (InputStream data = transformed.get()) {
+                            Files.copy(data, target);
+                        }
+                    } else {
+                        link(original, target);
+                    }
+                } else {
+                    try (InputStream data = extracted(a)) {
+                        Files.copy(data, target);
+                    }
+                }
             } catch (IOException e) {
                 throw new IllegalStateException(
                         "Failed to copy class path element: " + a.getName() + " to " + f.getAbsolutePath(), e);
@@ -204,14 +251,35 @@ public final class Compiler {
     }
 
     private InputStream extracted(Archive archive) throws IOException {
+        Optional<InputStream> transformed = transformed(archive);
+        return transformed.isPresent() ? transformed.get() : archive.openStream();
+    }
+
+    private Optional<InputStream> transformed(Archive archive) {
         for (JarExtractor t : jarExtractors) {
             Optional<InputStream> extracted = t.extract(archive);
             if (extracted.isPresent()) {
-                return extracted.get();
+                return extracted;
             }
         }
 
-        return archive.openStream();
+        return Optional.empty();
+    }
+
+    private static void link(Path original, Path target) throws IOException {
+        try {
+            Files.createSymbolicLink(target, original);
+            return;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.debug("Failed to symlink {} to {}. Trying a hard link.", target, original);
+        }
+
+        try {
+            Files.createLink(target, original);
+        } catch (IOException | UnsupportedOperationException e) {
+            // the original might be on a different filesystem or the filesystem doesn't support links at all
+            Files.copy(original, target);
+        }
     }
 
     private int size(Iterable<?> collection) {
@@ -22,13 +22,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
@@ -38,6 +43,7 @@ import org.revapi.java.model.JavaElementFactory;
 import org.revapi.java.model.JavaElementForest;
 import org.revapi.java.spi.JavaTypeElement;
 import org.revapi.java.spi.TypeEnvironment;
+import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
@@ -45,18 +51,43 @@ import org.revapi.java.spi.TypeEnvironment;
  * @since 0.1
  */
 public final class ProbingEnvironment implements TypeEnvironment {
+    /**
+     * The maximum number of remembered strings of each kind. Once reached, the strings are forgotten and start to be
+     * remembered anew.
+     */
+    private static final int MAX_TYPE_STRINGS = 100_000;
+
     private final API api;
     private volatile ProcessingEnvironment processingEnvironment;
+    private volatile TypeHierarchyIndex hierarchyIndex;
     private final CountDownLatch compilationProgressLatch = new CountDownLatch(1);
     private final CountDownLatch compilationEnvironmentTeardownLatch = new CountDownLatch(1);
     private final JavaElementForest tree;
     private Map<TypeElement, org.revapi.java.model.TypeElement> typeMap;
     private Map<TypeElement, Set<TypeElement>> derivedTypes = new HashMap<>();
     private Map<TypeElement, Set<TypeElement>> superTypes = new HashMap<>();
+    private final boolean fingerprintingClasses;
+    private volatile Map<String, Long> classFingerprints = Collections.emptyMap();
+    // the type mirrors of the compiler are only equal to themselves, so these are effectively identity maps
+    private final Map<TypeMirror, String> uniqueStrings = new ConcurrentHashMap<>();
+    private final Map<TypeMirror, String> humanReadableStrings = new ConcurrentHashMap<>();
 
     public ProbingEnvironment(API api) {
+        this(api, false);
+    }
+
+    /**
+     * @param api
+     *            the API this environment represents
+     * @param fingerprintClasses
+     *            whether to remember the fingerprints of the class files while scanning the archives of the API
+     *
+     * @since 0.29.0
+     */
+    public ProbingEnvironment(API api, boolean fingerprintClasses) {
         this.api = api;
         this.tree = new JavaElementForest(api);
+        this.fingerprintingClasses = fingerprintClasses;
     }
 
     public API getApi() {
@@ -76,6 +107,8 @@ public final class ProbingEnvironment implements TypeEnvironment {
     }
 
     public void setProcessingEnvironment(ProcessingEnvironment env) {
+        this.hierarchyIndex = env == null ? null
+                : new TypeHierarchyIndex(new MissingTypeAwareDelegatingTypes(env.getTypeUtils()), this::toUniqueString);
         this.processingEnvironment = env;
     }
 
@@ -139,6 +172,127 @@ public final class ProbingEnvironment implements TypeEnvironment {
         });
     }
 
+    /**
+     * @return true if the fingerprints of the class files are collected while scanning the archives
+     *
+     * @since 0.29.0
+     */
+    public boolean isFingerprintingClasses() {
+        return fingerprintingClasses;
+    }
+
+    void setClassFingerprints(Map<String, Long> classFingerprints) {
+        this.classFingerprints = Collections.unmodifiableMap(classFingerprints);
+    }
+
+    /**
+     * Returns the fingerprint (the CRC-32 checksum) of the class file of the type with the provided binary name, as
+     * found in the archives of the API. The fingerprints are only available if this environment is
+     * {@link #isFingerprintingClasses() fingerprinting classes} and only for the types found in the archives of the
+     * API.
+     *
+     * @param binaryName
+     *            the binary name of the type
+     *
+     * @return the fingerprint of the class file or null if not known
+     *
+     * @since 0.29.0
+     */
+    public @Nullable Long getClassFingerprint(String binaryName) {
+        return classFingerprints.get(binaryName);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The super classes are computed only once for each type until the compilation is torn down.
+     */
+    @Override
+    public List<TypeMirror> getAllSuperClasses(TypeMirror type) {
+        return getHierarchyIndex().getAllSuperClasses(type);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The super interfaces are computed only once for each type until the compilation is torn down.
+     */
+    @Override
+    public List<TypeMirror> getAllSuperInterfaces(TypeMirror type) {
+        return getHierarchyIndex().getAllSuperInterfaces(type);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * This looks the super types up in the remembered closure of the super types of the type.
+     */
+    @Override
+    public boolean isSubtype(TypeMirror type, List<? extends TypeMirror> superTypes) {
+        return getHierarchyIndex().isSubtype(type, superTypes);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The strings are remembered until the compilation is torn down.
+     */
+    @Override
+    public String toUniqueString(TypeMirror type) {
+        return remembered(uniqueStrings, type, Util::toUniqueString);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The strings are remembered until the compilation is torn down.
+     */
+    @Override
+    public String toHumanReadableString(TypeMirror type) {
+        return remembered(humanReadableStrings, type, Util::toHumanReadableString);
+    }
+
+    /**
+     * Forgets the remembered strings and hierarchies of the types once the compilation is torn down.
+     */
+    void releaseTypeCaches() {
+        uniqueStrings.clear();
+        humanReadableStrings.clear();
+
+        TypeHierarchyIndex index = hierarchyIndex;
+        if (index != null) {
+            index.clear();
+        }
+    }
+
+    private static String remembered(Map<TypeMirror, String> strings, TypeMirror type,
+            Function<TypeMirror, String> toString) {
+        String ret = strings.get(type);
+        if (ret == null) {
+            ret = toString.apply(type);
+            if (strings.size() >= MAX_TYPE_STRINGS) {
+                strings.clear();
+            }
+            strings.put(type, ret);
+        }
+
+        return ret;
+    }
+
+    private TypeHierarchyIndex getHierarchyIndex() {
+        TypeHierarchyIndex ret = hierarchyIndex;
+        if (ret == null) {
+            throw new IllegalStateException("Types instance not yet available. It is too early to call this method."
+                    + " Wait until after the archives are visited and the API model constructed.");
+        }
+        return ret;
+    }
+
     public Set<TypeElement> getDerivedTypes(TypeElement superType) {
         return derivedTypes.getOrDefault(superType, Collections.emptySet());
     }
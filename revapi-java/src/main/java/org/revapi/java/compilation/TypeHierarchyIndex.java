@@ -0,0 +1,178 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.compilation;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.SimpleTypeVisitor8;
+import javax.lang.model.util.Types;
+
+import org.revapi.java.spi.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers the type hierarchies of the types of a single compilation so that the checks don't need to walk the super
+ * types of the same types over and over again.
+ *
+ * <p>
+ * Each type is identified by its {@link Util#toUniqueString(TypeMirror) unique string}. The closure of the super types
+ * of each type is kept as a bitset of the ids of the unique strings so that checking whether a type is a sub type of
+ * some other type is a simple lookup.
+ *
+ * <p>
+ * The type mirrors of the compiler are only equal to themselves, so the hierarchy of each type mirror instance is only
+ * computed once.
+ *
+ * @author Lukas Krejci
+ */
+final class TypeHierarchyIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(TypeHierarchyIndex.class);
+
+    private static final SimpleTypeVisitor8<Boolean, Void> IS_INTERFACE = new SimpleTypeVisitor8<Boolean, Void>(false) {
+        @Override
+        public Boolean visitDeclared(DeclaredType t, Void aVoid) {
+            return t.asElement().getKind() == ElementKind.INTERFACE;
+        }
+    };
+
+    private final Types types;
+    private final Map<TypeMirror, Hierarchy> hierarchies = new ConcurrentHashMap<>();
+    private final Function<TypeMirror, String> uniqueNames;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    TypeHierarchyIndex(Types types, Function<TypeMirror, String> uniqueNames) {
+        this.types = types;
+        this.uniqueNames = uniqueNames;
+    }
+
+    List<TypeMirror> getAllSuperClasses(TypeMirror type) {
+        return hierarchyOf(type).superClasses;
+    }
+
+    List<TypeMirror> getAllSuperInterfaces(TypeMirror type) {
+        return hierarchyOf(type).superInterfaces;
+    }
+
+    boolean isSubtype(TypeMirror type, List<? extends TypeMirror> superTypes) {
+        BitSet closure = hierarchyOf(type).superTypeIds;
+        for (TypeMirror superType : superTypes) {
+            // the super types may come from the other compilation, so we can only look up the ids the types in this
+            // compilation already have
+            Integer id = ids.get(uniqueNameOf(superType));
+            if (id != null && closure.get(id)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Forgets all the computed hierarchies so that the type mirrors of the compilation don't stay reachable after the
+     * compilation is torn down.
+     */
+    void clear() {
+        hierarchies.clear();
+        ids.clear();
+    }
+
+    private Hierarchy hierarchyOf(TypeMirror type) {
+        // not using computeIfAbsent, because the computation recursively looks up the hierarchies of the super types
+        Hierarchy ret = hierarchies.get(type);
+        if (ret == null) {
+            ret = computeHierarchy(type);
+            Hierarchy existing = hierarchies.putIfAbsent(type, ret);
+            if (existing != null) {
+                ret = existing;
+            }
+        }
+
+        return ret;
+    }
+
+    private Hierarchy computeHierarchy(TypeMirror type) {
+        List<? extends TypeMirror> directSuperTypes;
+        try {
+            directSuperTypes = types.directSupertypes(type);
+        } catch (RuntimeException e) {
+            LOG.debug("Failed to find the super types of type '" + Util.toHumanReadableString(type) + ". Possibly "
+                    + "missing classes?", e);
+            directSuperTypes = emptyList();
+        }
+
+        BitSet superTypeIds = new BitSet();
+        superTypeIds.set(idOf(type));
+
+        if (directSuperTypes.isEmpty()) {
+            return new Hierarchy(emptyList(), emptyList(), superTypeIds);
+        }
+
+        // the super class of a class is always the first of its direct super types
+        TypeMirror superClass = directSuperTypes.get(0);
+        List<TypeMirror> superClasses = new ArrayList<>();
+        superClasses.add(superClass);
+        superClasses.addAll(hierarchyOf(superClass).superClasses);
+
+        List<TypeMirror> superInterfaces = new ArrayList<>();
+        for (TypeMirror t : directSuperTypes) {
+            if (t.accept(IS_INTERFACE, null)) {
+                superInterfaces.add(t);
+            }
+
+            Hierarchy superHierarchy = hierarchyOf(t);
+            superInterfaces.addAll(superHierarchy.superInterfaces);
+            superTypeIds.or(superHierarchy.superTypeIds);
+        }
+
+        return new Hierarchy(unmodifiableList(superClasses), unmodifiableList(superInterfaces), superTypeIds);
+    }
+
+    private int idOf(TypeMirror type) {
+        return ids.computeIfAbsent(uniqueNameOf(type), __ -> nextId.getAndIncrement());
+    }
+
+    private String uniqueNameOf(TypeMirror type) {
+        return uniqueNames.apply(type);
+    }
+
+    private static final class Hierarchy {
+        final List<TypeMirror> superClasses;
+        final List<TypeMirror> superInterfaces;
+        // never modified once the hierarchy is computed
+        final BitSet superTypeIds;
+
+        Hierarchy(List<TypeMirror> superClasses, List<TypeMirror> superInterfaces, BitSet superTypeIds) {
+            this.superClasses = superClasses;
+            this.superInterfaces = superInterfaces;
+            this.superTypeIds = superTypeIds;
+        }
+    }
+}
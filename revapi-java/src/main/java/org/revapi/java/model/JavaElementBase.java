@@ -19,6 +19,7 @@ package org.revapi.java.model;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -45,8 +46,14 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
     protected final T representation;
     private String comparableSignature;
     private boolean inherited = false;
-    private String stringRepre;
+    // the full human readable string is the identity of the element. Once the scanning is complete and the element
+    // can no longer move in the tree, it is cached together with its 64bit hash. The hash is always written before the
+    // representation so that whoever sees the representation sees the hash, too.
+    private volatile String stringRepre;
+    private long stringRepreHash;
     private Map<Class<?>, Map<String, Object>> childrenByTypeAndSignature;
+    // the member this inherited element was copied from while its children are not yet copied, too
+    private volatile @Nullable JavaElementBase<?, ?> inheritedChildrenSource;
 
     JavaElementBase(ProbingEnvironment env, Archive archive, E element, T representation) {
         super(env);
@@ -80,11 +87,19 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
 
     @Override
     public int compareTo(@Nonnull JavaElement o) {
+        if (o == this) {
+            return 0;
+        }
+
         if (getClass() != o.getClass()) {
             return JavaElementFactory.compareByType(this, o);
         }
 
-        return getComparableSignature().compareTo(((JavaElementBase<?, ?>) o).getComparableSignature());
+        String mySignature = getComparableSignature();
+        String otherSignature = ((JavaElementBase<?, ?>) o).getComparableSignature();
+
+        // the inherited copies share the signature of the original element
+        return mySignature == otherSignature ? 0 : mySignature.compareTo(otherSignature);
     }
 
     public E getDeclaringElement() {
@@ -108,13 +123,15 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
     @Nonnull
     @Override
     public final String getFullHumanReadableString() {
-        if (environment.isScanningComplete() && stringRepre != null) {
-            return stringRepre;
+        String ret = stringRepre;
+        if (ret != null) {
+            return ret;
         }
 
-        String ret = createFullHumanReadableString();
+        ret = createFullHumanReadableString();
 
         if (environment.isScanningComplete()) {
+            stringRepreHash = hash(ret);
             stringRepre = ret;
         }
 
@@ -144,8 +161,21 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
             return true;
         }
 
-        return obj instanceof JavaElementBase
-                && getFullHumanReadableString().equals(((JavaElementBase<?, ?>) obj).getFullHumanReadableString());
+        if (!(obj instanceof JavaElementBase)) {
+            return false;
+        }
+
+        JavaElementBase<?, ?> other = (JavaElementBase<?, ?>) obj;
+
+        String myRepre = stringRepre;
+        String otherRepre = other.stringRepre;
+        if (myRepre != null && otherRepre != null) {
+            // the elements in the hash buckets and the tree sets mostly differ, which the hashes tell without
+            // comparing the (usually long and similarly prefixed) strings
+            return stringRepreHash == other.stringRepreHash && myRepre.equals(otherRepre);
+        }
+
+        return getFullHumanReadableString().equals(other.getFullHumanReadableString());
     }
 
     @Override
@@ -153,10 +183,76 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
         return getFullHumanReadableString();
     }
 
+    @Nonnull
+    @Override
+    public SortedSet<JavaElement> getChildren() {
+        if (inheritedChildrenSource != null) {
+            // the tree can be traversed by other threads than the one that constructed it. The lock is only ever taken
+            // until the children are copied. The source is a member of a supertype, so the locks are always taken in
+            // the subtype-to-supertype order.
+            synchronized (this) {
+                JavaElementBase<?, ?> source = inheritedChildrenSource;
+                if (source != null) {
+                    copyInheritedChildren(source);
+                    inheritedChildrenSource = null;
+                }
+            }
+        }
+
+        return super.getChildren();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public JavaElementBase<E, T> clone() {
-        return (JavaElementBase<E, T>) super.clone();
+        JavaElementBase<E, T> ret = (JavaElementBase<E, T>) super.clone();
+        // the clone is going to be placed elsewhere in the tree, so whatever was cached about its position is invalid
+        ret.stringRepre = null;
+        ret.childrenByTypeAndSignature = null;
+        ret.inheritedChildrenSource = null;
+        return ret;
+    }
+
+    /**
+     * Makes this inherited element have the copies of the children of the provided member of the supertype. The
+     * children are only copied once they are first asked for, so that the inherited members that are never descended
+     * into (e.g. because they are in the types that are not part of the API) don't need to carry their own copies of
+     * the method parameters and annotations. This is especially useful for the methods of {@code java.lang.Object} and
+     * the members of the base classes in deep hierarchies that are inherited into a lot of types.
+     * <p>
+     * The copying is thread-safe, so the children can be first asked for by any thread traversing the tree.
+     *
+     * @param member
+     *            the member of the supertype this element was cloned from
+     */
+    public void inheritChildrenFrom(JavaElementBase<?, ?> member) {
+        this.inheritedChildrenSource = member;
+    }
+
+    private void copyInheritedChildren(JavaElementBase<?, ?> source) {
+        SortedSet<JavaElement> children = super.getChildren();
+        for (JavaElement c : source.getChildren()) {
+            if (c instanceof TypeElement) {
+                continue;
+            }
+
+            // all the copies can share the comparable signature of the source
+            InitializationOptimizations.initializeComparator(c);
+
+            JavaElement cc = InitializationOptimizations.clone(c);
+
+            children.add(cc);
+
+            if (cc instanceof AbstractJavaElement) {
+                ((AbstractJavaElement) cc).setArchive(getArchive());
+
+                if (cc instanceof JavaElementBase) {
+                    JavaElementBase<?, ?> mcc = (JavaElementBase<?, ?>) cc;
+                    mcc.setInherited(true);
+                    mcc.inheritChildrenFrom((JavaElementBase<?, ?>) c);
+                }
+            }
+        }
     }
 
     /**
@@ -205,6 +301,17 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
 
     protected abstract String createComparableSignature();
 
+    private static long hash(String string) {
+        // 64bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < string.length(); ++i) {
+            hash ^= string.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
     private Map<Class<?>, Map<String, Object>> buildChildrenByTypeAndSignature() {
         Map<Class<?>, Map<String, Object>> ret = new HashMap<>();
 
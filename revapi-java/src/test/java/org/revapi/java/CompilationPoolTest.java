@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.AnalysisResult;
+import org.revapi.Revapi;
+import org.revapi.java.compilation.CompilationPool;
+
+public class CompilationPoolTest extends AbstractJavaElementAnalyzerTest {
+
+    @Test
+    public void testPooledAnalysisMatchesColdRun() throws Exception {
+        ArchiveAndCompilationPath v1 = createCompiledJar("v1", "v1/classes/Final.java",
+                "v1/classes/ImplementedInterfaces.java");
+        ArchiveAndCompilationPath v2 = createCompiledJar("v2", "v2/classes/Final.java",
+                "v2/classes/ImplementedInterfaces.java");
+
+        try (CompilationPool pool = new CompilationPool(1, TimeUnit.SECONDS)) {
+            List<String> cold = analyze(v1, v2, null);
+            List<String> firstPooled = analyze(v1, v2, pool);
+            List<String> secondPooled = analyze(v1, v2, pool);
+
+            assertFalse(cold.isEmpty());
+            assertEquals(cold, firstPooled);
+            assertEquals(cold, secondPooled);
+        } finally {
+            deleteDir(v1.compilationPath);
+            deleteDir(v2.compilationPath);
+        }
+    }
+
+    @Test
+    public void testSharedPoolNotClosed() {
+        CompilationPool.shared().close();
+
+        assertFalse(CompilationPool.shared().getExecutor().isShutdown());
+    }
+
+    private List<String> analyze(ArchiveAndCompilationPath v1, ArchiveAndCompilationPath v2, CompilationPool pool)
+            throws Exception {
+        Revapi revapi = createRevapi(CollectingReporter.class);
+
+        AnalysisContext.Builder bld = AnalysisContext.builder(revapi)
+                .withOldAPI(API.of(new ShrinkwrapArchive(v1.archive)).build())
+                .withNewAPI(API.of(new ShrinkwrapArchive(v2.archive)).build());
+
+        if (pool != null) {
+            bld.withData(CompilationPool.CONTEXT_DATA_KEY, pool);
+        }
+
+        try (AnalysisResult result = revapi.analyze(bld.build())) {
+            result.throwIfFailed();
+            return result.getExtensions().getFirstExtension(CollectingReporter.class, null).getReports().stream()
+                    .map(r -> r.getOldElement() + " -> " + r.getNewElement() + ": " + r.getDifferences())
+                    .collect(Collectors.toList());
+        }
+    }
+}
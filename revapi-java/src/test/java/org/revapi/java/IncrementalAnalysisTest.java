@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.AnalysisResult;
+import org.revapi.Revapi;
+
+public class IncrementalAnalysisTest extends AbstractJavaElementAnalyzerTest {
+
+    @Test
+    public void testUnchangedTypesReplayed() throws Exception {
+        ArchiveAndCompilationPath v1 = createCompiledJar("v1", "v1/classes/Final.java",
+                "v1/classes/ImplementedInterfaces.java");
+        ArchiveAndCompilationPath v2 = createCompiledJar("v2", "v2/classes/Final.java",
+                "v2/classes/ImplementedInterfaces.java");
+        // a rebuild of v2, the archive names are part of the reports so they need to stay the same
+        ArchiveAndCompilationPath v3 = createCompiledJar("v2", "v2/classes/Final.java",
+                "v1/classes/ImplementedInterfaces.java");
+        Path cacheDir = Files.createTempDirectory("revapi-incremental-analysis");
+        Path cacheFile = cacheDir.resolve("cache.json");
+
+        try {
+            List<String> full = analyze(v1, v2, null).reports;
+
+            Result first = analyze(v1, v2, cacheFile);
+            assertTrue(Files.exists(cacheFile));
+            assertEquals(0, first.replayedTypes);
+            assertFalse(full.isEmpty());
+            assertEquals(full, first.reports);
+
+            Result second = analyze(v1, v2, cacheFile);
+            assertEquals(2, second.replayedTypes);
+            assertEquals(full, second.reports);
+
+            // only Final stays the same, ImplementedInterfaces needs to be checked again
+            Result third = analyze(v1, v3, cacheFile);
+            assertEquals(1, third.replayedTypes);
+            assertEquals(analyze(v1, v3, null).reports, third.reports);
+        } finally {
+            deleteDir(v1.compilationPath);
+            deleteDir(v2.compilationPath);
+            deleteDir(v3.compilationPath);
+            deleteDir(cacheDir);
+        }
+    }
+
+    private Result analyze(ArchiveAndCompilationPath v1, ArchiveAndCompilationPath v2, Path cacheFile)
+            throws Exception {
+        Revapi revapi = createRevapi(CollectingReporter.class);
+
+        AnalysisContext.Builder bld = AnalysisContext.builder(revapi)
+                .withOldAPI(API.of(new ShrinkwrapArchive(v1.archive)).build())
+                .withNewAPI(API.of(new ShrinkwrapArchive(v2.archive)).build());
+
+        if (cacheFile != null) {
+            bld.withConfigurationFromJSON("{\"revapi\": {\"java\": {\"incrementalAnalysis\": {\"cacheFile\": \""
+                    + cacheFile.toString().replace("\\", "\\\\") + "\"}}}}");
+        }
+
+        try (AnalysisResult result = revapi.analyze(bld.build())) {
+            result.throwIfFailed();
+            Result ret = new Result();
+            ret.reports = result.getExtensions().getFirstExtension(CollectingReporter.class, null).getReports().stream()
+                    .map(r -> r.getOldElement() + " -> " + r.getNewElement() + ": " + r.getDifferences())
+                    .collect(Collectors.toList());
+            ret.replayedTypes = result.getMetrics().counter("java.incrementalAnalysis.replayedTypes").get();
+            return ret;
+        }
+    }
+
+    private static final class Result {
+        List<String> reports;
+        long replayedTypes;
+    }
+}
@@ -26,7 +26,9 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.revapi.java.ExpectedValues.dependingOnJavaVersion;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
@@ -35,6 +37,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.junit.Assert;
 import org.junit.Before;
@@ -42,6 +45,7 @@ import org.junit.Test;
 import org.revapi.API;
 import org.revapi.Reference;
 import org.revapi.TreeFilter;
+import org.revapi.base.FileArchive;
 import org.revapi.java.model.JavaElementForest;
 import org.revapi.java.model.MethodElement;
 import org.revapi.java.model.MethodParameterElement;
@@ -127,6 +131,136 @@ public class JavaArchiveAnalyzerTest extends AbstractJavaElementAnalyzerTest {
         }
     }
 
+    @Test
+    public void testWithFileBackedSupplementary() throws Exception {
+        ArchiveAndCompilationPath compRes = createCompiledJar("a.jar", "v1/supplementary/a/A.java",
+                "v1/supplementary/b/B.java", "v1/supplementary/a/C.java");
+
+        File apiFile = compRes.compilationPath.resolve("api.jar").toFile();
+        ShrinkWrap.create(JavaArchive.class, "api.jar")
+                .addAsResource(compRes.compilationPath.resolve("A.class").toFile(), "A.class").as(ZipExporter.class)
+                .exportTo(apiFile);
+
+        File supFile = compRes.compilationPath.resolve("sup.jar").toFile();
+        JavaArchive sup = ShrinkWrap.create(JavaArchive.class, "sup.jar");
+        for (String cls : Arrays.asList("B", "B$T$1", "B$T$1$TT$1", "B$T$2", "C", "B$UsedByIgnoredClass",
+                "A$PrivateEnum")) {
+            sup.addAsResource(compRes.compilationPath.resolve(cls + ".class").toFile(), cls + ".class");
+        }
+        sup.as(ZipExporter.class).exportTo(supFile);
+
+        // the file-backed archives are not copied but linked, so their classes should be found where they are
+        JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(apiAnalyzer,
+                new API(Arrays.asList(new FileArchive(apiFile)), Arrays.asList(new FileArchive(supFile))), emptyList(),
+                Executors.newSingleThreadExecutor(), null, false, null);
+
+        try {
+            JavaElementForest forest = analyzer.analyze(TreeFilter.matchAndDescend());
+            analyzer.prune(forest);
+
+            Set<String> roots = forest.getRoots().stream().map(e -> e.as(TypeElement.class).getCanonicalName())
+                    .collect(toSet());
+            assertEquals(new HashSet<>(Arrays.asList("A", "B.T$1", "B.T$2")), roots);
+
+            // cleaning up after the compilation must leave the original files intact
+            analyzer.getCompilationValve().removeCompiledResults();
+            assertTrue(apiFile.exists());
+            assertTrue(supFile.exists());
+        } finally {
+            deleteDir(compRes.compilationPath);
+        }
+    }
+
+    @Test
+    public void testInheritedMemberChildren() throws Exception {
+        ArchiveAndCompilationPath archive = createCompiledJar("test.jar", "misc/AnnotatedMethodParameter.java",
+                "misc/InheritedAnnotatedMethodParameter.java");
+
+        JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(apiAnalyzer,
+                new API(Arrays.asList(new ShrinkwrapArchive(archive.archive)), null), emptyList(),
+                Executors.newSingleThreadExecutor(), null, false, null);
+
+        try {
+            JavaElementForest forest = analyzer.analyze(TreeFilter.matchAndDescend());
+            analyzer.prune(forest);
+
+            // look at the declared method without descending into the inherited one, so that the children of the
+            // declared method have their human readable representations cached before they are copied
+            MethodElement declared = forest.getRoots().stream().map(t -> (TypeElement) t)
+                    .filter(t -> t.getDeclaringElement().getSimpleName().contentEquals("AnnotatedMethodParameter"))
+                    .flatMap(t -> t.getChildren().stream()).filter(m -> m instanceof MethodElement)
+                    .map(m -> (MethodElement) m)
+                    .filter(m -> m.getDeclaringElement().getSimpleName().contentEquals("method")).findFirst()
+                    .orElse(null);
+            Assert.assertNotNull(declared);
+            String declaredParam = declared.getChildren().first().getFullHumanReadableString();
+
+            MethodElement inherited = forest.stream(MethodElement.class, true, null)
+                    .filter(m -> m.isInherited() && m.getDeclaringElement().getSimpleName().contentEquals("method"))
+                    .findFirst().orElse(null);
+
+            Assert.assertNotNull(inherited);
+            assertEquals("InheritedAnnotatedMethodParameter",
+                    ((JavaTypeElement) inherited.getParent()).getDeclaringElement().getQualifiedName().toString());
+
+            // the children of the inherited method are copied from the declared method on demand, but should look the
+            // same as if they were declared in the inheriting class
+            assertEquals(1, inherited.getChildren().size());
+            MethodParameterElement param = (MethodParameterElement) inherited.getChildren().first();
+            assertTrue(param.isInherited());
+            assertSame(inherited, param.getParent());
+            assertSame(inherited.getArchive(), param.getArchive());
+            assertEquals(declaredParam + " @ InheritedAnnotatedMethodParameter", param.getFullHumanReadableString());
+
+            assertEquals(1, param.getChildren().size());
+            JavaElement annotation = param.getChildren().first();
+            assertSame(param, annotation.getParent());
+            assertSame(inherited.getArchive(), annotation.getArchive());
+        } finally {
+            deleteDir(archive.compilationPath);
+            analyzer.getCompilationValve().removeCompiledResults();
+        }
+    }
+
+    @Test
+    public void testConcurrentArchiveListing() throws Exception {
+        ArchiveAndCompilationPath compRes = createCompiledJar("a.jar", "misc/A.java", "misc/B.java", "misc/C.java",
+                "misc/D.java", "misc/I.java");
+
+        JavaArchive first = ShrinkWrap.create(JavaArchive.class, "first.jar");
+        JavaArchive second = ShrinkWrap.create(JavaArchive.class, "second.jar");
+        int i = 0;
+        for (File f : compRes.compilationPath.resolve("misc").toFile().listFiles()) {
+            (i++ % 2 == 0 ? first : second).addAsResource(f, "misc/" + f.getName());
+        }
+
+        API api = new API(Arrays.asList(new ShrinkwrapArchive(first), new ShrinkwrapArchive(second)), null);
+
+        try {
+            Set<String> serial = analyzeRootNames(api, 1);
+            Set<String> concurrent = analyzeRootNames(api, 4);
+
+            assertFalse(serial.isEmpty());
+            assertEquals(serial, concurrent);
+        } finally {
+            deleteDir(compRes.compilationPath);
+        }
+    }
+
+    private Set<String> analyzeRootNames(API api, int listingThreads) {
+        JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(apiAnalyzer, api, emptyList(),
+                Executors.newSingleThreadExecutor(), null, false, null, null, listingThreads);
+        try {
+            JavaElementForest forest = analyzer.analyze(TreeFilter.matchAndDescend());
+            analyzer.prune(forest);
+            return forest.getRoots().stream().map(JavaElement::getFullHumanReadableString).collect(toSet());
+        } finally {
+            if (analyzer.getCompilationValve() != null) {
+                analyzer.getCompilationValve().removeCompiledResults();
+            }
+        }
+    }
+
     @Test
     public void testPreventRecursionWhenConstructingInheritedMembers() throws Exception {
         ArchiveAndCompilationPath archive = createCompiledJar("a.jar", "misc/MemberInheritsOwner.java");
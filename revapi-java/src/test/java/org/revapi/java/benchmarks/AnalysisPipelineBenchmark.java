@@ -0,0 +1,353 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.benchmarks;
+
+import static java.util.Collections.singletonList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.AnalysisResult;
+import org.revapi.Metrics;
+import org.revapi.Reporter;
+import org.revapi.Revapi;
+import org.revapi.base.FileArchive;
+import org.revapi.java.JavaApiAnalyzer;
+import org.revapi.reporter.json.JsonReporter;
+import org.revapi.reporter.text.TextReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the whole analysis pipeline on a {@link SyntheticApi synthetic API} of a configurable size.
+ *
+ * <p>
+ * Each benchmark runs the whole analysis, so its primary score is the duration of the complete pipeline. The
+ * {@code diffTraversal}, {@code transforms}, {@code textReporter} and {@code jsonReporter} benchmarks also report the
+ * time spent in their phase alone as the {@code phaseMillis} secondary result. It is read from the {@link Metrics
+ * metrics} of the analysis: the difference analysis of the element pairs including the sorting of their children, the
+ * transformation of the reports and the calls to the single reporter (without the flush of its output when the analysis
+ * result is closed) respectively. The {@code endToEnd} benchmark runs with all the extensions on the classpath and only
+ * has the primary score.
+ *
+ * <p>
+ * The {@link #main(String[])} method stores the results as JSON and can compare them with a baseline stored by a
+ * previous run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AnalysisPipelineBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(AnalysisPipelineBenchmark.class);
+
+    @Param("500")
+    public int classes = 500;
+
+    @Param("3")
+    public int hierarchyDepth = 3;
+
+    @Param("3")
+    public int overloads = 3;
+
+    @Param("true")
+    public boolean generics = true;
+
+    private Path workDir;
+    private API oldApi;
+    private API newApi;
+    private JsonNode configuration;
+
+    private Revapi traversal;
+    private Revapi transforms;
+    private Revapi textReporter;
+    private Revapi jsonReporter;
+    private Revapi endToEnd;
+
+    /**
+     * Runs the benchmarks and stores the results in the file specified by the {@code revapi.benchmark.results} system
+     * property ({@code target/benchmarks/analysis-pipeline.json} by default).
+     *
+     * <p>
+     * If the {@code revapi.benchmark.baseline} system property points to the results of a previous run, the scores are
+     * compared with it and an exception is thrown if any of the benchmarks got slower by more than the
+     * {@code revapi.benchmark.tolerance} (0.1, i.e. 10%, by default).
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        File results = new File(
+                System.getProperty("revapi.benchmark.results", "target/benchmarks/analysis-pipeline.json"));
+        Files.createDirectories(results.getAbsoluteFile().getParentFile().toPath());
+
+        new Runner(new OptionsBuilder().include(AnalysisPipelineBenchmark.class.getSimpleName()).forks(1)
+                .resultFormat(ResultFormatType.JSON).result(results.getPath()).build()).run();
+
+        String baseline = System.getProperty("revapi.benchmark.baseline");
+        if (baseline != null) {
+            double tolerance = Double.parseDouble(System.getProperty("revapi.benchmark.tolerance", "0.1"));
+            if (!compareWithBaseline(new File(baseline), results, tolerance)) {
+                throw new IllegalStateException("Some of the benchmarks regressed against the baseline " + baseline);
+            }
+        }
+    }
+
+    /**
+     * Compares the average times of the benchmarks in the two JMH result files. The time of the measured phase is
+     * compared for the benchmarks that report it, the time of the whole analysis for the rest.
+     *
+     * @return true if none of the benchmarks got slower than the baseline by more than the tolerance
+     */
+    static boolean compareWithBaseline(File baseline, File results, double tolerance) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Double> baselineScores = new HashMap<>();
+        for (JsonNode result : mapper.readTree(baseline)) {
+            baselineScores.put(resultKey(result), score(result));
+        }
+
+        boolean ok = true;
+        for (JsonNode result : mapper.readTree(results)) {
+            String key = resultKey(result);
+            Double baselineScore = baselineScores.get(key);
+            if (baselineScore == null || baselineScore <= 0) {
+                LOG.info("{}: no baseline", key);
+                continue;
+            }
+
+            double ratio = score(result) / baselineScore;
+            String change = String.format("%+.1f%%", (ratio - 1) * 100);
+            if (ratio > 1 + tolerance) {
+                ok = false;
+                LOG.warn("{}: {} REGRESSION", key, change);
+            } else {
+                LOG.info("{}: {}", key, change);
+            }
+        }
+
+        return ok;
+    }
+
+    private static String resultKey(JsonNode result) {
+        return result.path("benchmark").asText() + result.path("params");
+    }
+
+    private static double score(JsonNode result) {
+        JsonNode phase = result.path("secondaryMetrics").path("phaseMillis");
+        return (phase.isMissingNode() ? result.path("primaryMetric") : phase).path("score").asDouble();
+    }
+
+    @Setup(Level.Trial)
+    public void prepareApis() throws IOException {
+        workDir = Files.createTempDirectory("revapi-pipeline-benchmark");
+
+        SyntheticApi api = new SyntheticApi(classes, hierarchyDepth, overloads, generics);
+        oldApi = API.of(new FileArchive(api.createJar(workDir, "v1", false))).build();
+        newApi = API.of(new FileArchive(api.createJar(workDir, "v2", true))).build();
+
+        ArrayNode config = JsonNodeFactory.instance.arrayNode();
+        config.add(reporterConfiguration("revapi.reporter.text", "report.txt"));
+        config.add(reporterConfiguration("revapi.reporter.json", "report.json"));
+        configuration = config;
+
+        traversal = Revapi.builder().withAnalyzers(singletonList(JavaApiAnalyzer.class)).build();
+        transforms = Revapi.builder().withAnalyzers(singletonList(JavaApiAnalyzer.class))
+                .withTransformsFromThreadContextClassLoader().withFiltersFromThreadContextClassLoader()
+                .withMatchersFromThreadContextClassLoader().build();
+        textReporter = Revapi.builder().withAnalyzers(singletonList(JavaApiAnalyzer.class))
+                .withReporters(singletonList((Class<? extends Reporter>) TextReporter.class)).build();
+        jsonReporter = Revapi.builder().withAnalyzers(singletonList(JavaApiAnalyzer.class))
+                .withReporters(singletonList((Class<? extends Reporter>) JsonReporter.class)).build();
+        endToEnd = Revapi.builder().withAllExtensionsFromThreadContextClassLoader().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteApis() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void diffTraversal(PhaseTime phase, Blackhole hole) throws Exception {
+        Metrics metrics = analyze(traversal);
+        phase.record(traversalNanos(metrics));
+        hole.consume(metrics);
+    }
+
+    @Benchmark
+    public void transforms(PhaseTime phase, Blackhole hole) throws Exception {
+        Metrics metrics = analyze(transforms);
+        phase.record(transformsNanos(metrics));
+        hole.consume(metrics);
+    }
+
+    @Benchmark
+    public void textReporter(PhaseTime phase, Blackhole hole) throws Exception {
+        Metrics metrics = analyze(textReporter);
+        phase.record(reporterNanos(metrics, TextReporter.class));
+        hole.consume(metrics);
+    }
+
+    @Benchmark
+    public void jsonReporter(PhaseTime phase, Blackhole hole) throws Exception {
+        Metrics metrics = analyze(jsonReporter);
+        phase.record(reporterNanos(metrics, JsonReporter.class));
+        hole.consume(metrics);
+    }
+
+    @Benchmark
+    public void endToEnd(Blackhole hole) throws Exception {
+        hole.consume(analyze(endToEnd));
+    }
+
+    @Test
+    public void testAnalyzesSyntheticApis() throws Exception {
+        classes = 30;
+        prepareApis();
+        try {
+            for (Revapi revapi : new Revapi[] { traversal, transforms, textReporter, jsonReporter, endToEnd }) {
+                Metrics metrics = analyze(revapi);
+                Assertions.assertTrue(metrics.getCounters().get("differences").get() > 0);
+                Assertions.assertTrue(traversalNanos(metrics) > 0);
+            }
+
+            Assertions.assertTrue(transformsNanos(analyze(transforms)) > 0);
+            Assertions.assertTrue(reporterNanos(analyze(textReporter), TextReporter.class) > 0);
+            Assertions.assertTrue(reporterNanos(analyze(jsonReporter), JsonReporter.class) > 0);
+
+            Assertions.assertTrue(workDir.resolve("report.txt").toFile().length() > 0);
+            Assertions.assertTrue(workDir.resolve("report.json").toFile().length() > 0);
+        } finally {
+            deleteApis();
+        }
+    }
+
+    @Test
+    public void testComparesPhasesWithBaseline() throws Exception {
+        Path dir = Files.createTempDirectory("revapi-pipeline-benchmark");
+        try {
+            File baseline = writeResults(dir.resolve("baseline.json"), 10, 100);
+            File same = writeResults(dir.resolve("same.json"), 10, 100);
+            File slowerAnalysis = writeResults(dir.resolve("slower-analysis.json"), 10, 200);
+            File slowerPhase = writeResults(dir.resolve("slower-phase.json"), 20, 100);
+
+            Assertions.assertTrue(compareWithBaseline(baseline, same, 0.1));
+            // only the phase is compared if it is present
+            Assertions.assertTrue(compareWithBaseline(baseline, slowerAnalysis, 0.1));
+            Assertions.assertFalse(compareWithBaseline(baseline, slowerPhase, 0.1));
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static File writeResults(Path file, double phaseMillis, double totalMillis) throws IOException {
+        ArrayNode results = JsonNodeFactory.instance.arrayNode();
+        ObjectNode result = results.addObject();
+        result.put("benchmark", "transforms");
+        result.putObject("primaryMetric").put("score", totalMillis);
+        result.putObject("secondaryMetrics").putObject("phaseMillis").put("score", phaseMillis);
+
+        new ObjectMapper().writeValue(file.toFile(), results);
+        return file.toFile();
+    }
+
+    private static long traversalNanos(Metrics metrics) {
+        return metrics.timer("analyses").getTotalNanos() + metrics.timer("sorts").getTotalNanos();
+    }
+
+    private static long transformsNanos(Metrics metrics) {
+        return metrics.timer("reportTransforms").getTotalNanos();
+    }
+
+    private static long reporterNanos(Metrics metrics, Class<? extends Reporter> reporter) {
+        return metrics.timer("reporter " + reporter.getName()).getTotalNanos();
+    }
+
+    private Metrics analyze(Revapi revapi) throws Exception {
+        AnalysisContext ctx = AnalysisContext.builder(revapi).withOldAPI(oldApi).withNewAPI(newApi)
+                .withConfiguration(configuration).build();
+
+        // closing the result flushes the output of the reporters
+        try (AnalysisResult result = revapi.analyze(ctx)) {
+            result.throwIfFailed();
+            return result.getMetrics();
+        }
+    }
+
+    private ObjectNode reporterConfiguration(String extension, String output) {
+        ObjectNode ret = JsonNodeFactory.instance.objectNode();
+        ret.put("extension", extension);
+        ret.putObject("configuration").put("minSeverity", "EQUIVALENT").put("output",
+                workDir.resolve(output).toString());
+        return ret;
+    }
+
+    /**
+     * Reports the average time spent in the measured phase of a single analysis during an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PhaseTime {
+        public double phaseMillis;
+        private long totalNanos;
+        private int analyses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            phaseMillis = 0;
+            totalNanos = 0;
+            analyses = 0;
+        }
+
+        void record(long nanos) {
+            totalNanos += nanos;
+            analyses++;
+            phaseMillis = totalNanos / 1_000_000d / analyses;
+        }
+    }
+}
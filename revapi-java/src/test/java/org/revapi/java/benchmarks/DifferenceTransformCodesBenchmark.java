@@ -16,18 +16,40 @@
  */
 package org.revapi.java.benchmarks;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.revapi.DifferenceTransform;
+import org.revapi.DifferenceTransformDispatch;
 import org.revapi.java.transforms.annotations.DownplayHarmlessAnnotationChanges;
+import org.revapi.java.transforms.annotations.NoLongerDeprecated;
+import org.revapi.java.transforms.annotations.NoLongerInherited;
+import org.revapi.java.transforms.annotations.NowDeprecated;
+import org.revapi.java.transforms.annotations.NowInherited;
+import org.revapi.java.transforms.methods.AnnotationTypeAttributeAdded;
+import org.revapi.java.transforms.methods.AnnotationTypeAttributeRemoved;
 
 @State(Scope.Benchmark)
 public class DifferenceTransformCodesBenchmark {
@@ -41,6 +63,21 @@ public class DifferenceTransformCodesBenchmark {
     // Complex case using DownplayHarmlessAnnotationChances which has multiple Patterns and complex Predicates.
     private DownplayHarmlessAnnotationChanges complex;
 
+    // Looking up the transform blocks for a difference code, as done by the analysis for each difference. All the java
+    // transforms are each in its own block.
+    private Set<List<DifferenceTransform<?>>> blocks;
+    private List<DifferenceTransform<?>> eligibleTransforms;
+    private DifferenceTransformDispatch.Restricted dispatch;
+    private Map<String, Set<List<DifferenceTransform<?>>>> legacyCache;
+
+    /**
+     * Runs the benchmarks with the GC profiler which shows the allocation rate of each of them.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DifferenceTransformCodesBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).forks(1).build()).run();
+    }
+
     @Setup
     public void prepareDifferenceTransformCodes() {
         this.code = "java.annotation.attributeValueChanged";
@@ -49,6 +86,14 @@ public class DifferenceTransformCodesBenchmark {
         this.simplePredicate = __ -> true;
 
         this.complex = new DownplayHarmlessAnnotationChanges();
+
+        this.eligibleTransforms = Arrays.asList(complex, new NoLongerDeprecated(), new NowDeprecated(),
+                new NoLongerInherited(), new NowInherited(), new AnnotationTypeAttributeAdded(),
+                new AnnotationTypeAttributeRemoved());
+        this.blocks = new HashSet<>();
+        eligibleTransforms.forEach(t -> blocks.add(Collections.singletonList(t)));
+        this.dispatch = new DifferenceTransformDispatch(blocks).restrictTo(eligibleTransforms);
+        this.legacyCache = new HashMap<>();
     }
 
     @Benchmark
@@ -83,6 +128,79 @@ public class DifferenceTransformCodesBenchmark {
         }
     }
 
+    @Benchmark
+    public void dispatchTable(Blackhole blackhole) {
+        for (List<DifferenceTransform<?>> block : dispatch.getBlocks(code)) {
+            blackhole.consume(block);
+        }
+    }
+
+    /**
+     * The lookup as it used to be done before the introduction of the {@link DifferenceTransformDispatch}. The matching
+     * blocks were cached per code but the cached set needed to be copied and restricted to the eligible transforms for
+     * each difference.
+     */
+    @Benchmark
+    public void legacyLookup(Blackhole blackhole) {
+        Set<List<DifferenceTransform<?>>> ret = legacyCache.get(code);
+        if (ret == null) {
+            ret = new HashSet<>();
+            for (List<DifferenceTransform<?>> ts : blocks) {
+                List<DifferenceTransform<?>> actualTs = new ArrayList<>(ts.size());
+                for (DifferenceTransform<?> t : ts) {
+                    for (Predicate<String> predicate : t.getDifferenceCodePredicates()) {
+                        if (predicate.test(code)) {
+                            actualTs.add(t);
+                            break;
+                        }
+                    }
+                }
+                if (!actualTs.isEmpty()) {
+                    ret.add(actualTs);
+                }
+            }
+            legacyCache.put(code, ret);
+        }
+
+        ret = new HashSet<>(ret);
+        ret.forEach(l -> l.retainAll(eligibleTransforms));
+
+        for (List<DifferenceTransform<?>> block : ret) {
+            blackhole.consume(block);
+        }
+    }
+
+    @Test
+    public void testDispatchDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        prepareDifferenceTransformCodes();
+
+        int matching = 0;
+        // warm up the caches
+        for (List<DifferenceTransform<?>> block : dispatch.getBlocks(code)) {
+            matching += block.size();
+        }
+        Assertions.assertEquals(1, matching);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; ++i) {
+            for (List<DifferenceTransform<?>> block : dispatch.getBlocks(code)) {
+                matching += block.size();
+            }
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        Assertions.assertEquals(10_001, matching);
+        // allow for a couple of stray allocations by the measurement itself, but the 10000 lookups must not allocate
+        Assertions.assertTrue(allocated < 1024, "The lookups allocated " + allocated + " bytes.");
+    }
+
     @Test
     public void testCodeMatching() {
         prepareDifferenceTransformCodes();
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.revapi.TreeFilter;
+import org.revapi.java.JavaArchiveAnalyzer;
+import org.revapi.java.model.JavaElementForest;
+import org.revapi.java.spi.JavaElement;
+
+/**
+ * Measures the comparisons of the elements, like the analysis does when it looks the elements up in the hash and sorted
+ * sets while tracking the matching element pairs, the references or the elements to prune.
+ */
+@State(Scope.Benchmark)
+public class ElementIdentityBenchmark {
+    private List<JavaElement> elements;
+    private Set<JavaElement> sorted;
+    private List<JavaElement> lookups;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ElementIdentityBenchmark.class.getSimpleName()).forks(1).build()).run();
+    }
+
+    @Setup
+    public void prepareTrees() throws IOException {
+        TreeConstructionBenchmark construction = new TreeConstructionBenchmark();
+        construction.prepareAnalyzer();
+
+        elements = constructTree(construction.getArchiveAnalyzer());
+        sorted = new TreeSet<>(elements);
+
+        // the copies from another tree of the same API cannot be found merely by the object identity
+        lookups = constructTree(construction.getArchiveAnalyzer());
+    }
+
+    /**
+     * The elements next to each other in the tree are mostly the members of the same type, whose representations differ
+     * only at the very end. This is the worst case for the elements colliding in a hash bucket.
+     */
+    @Benchmark
+    public void equalsOfNeighbors(Blackhole hole) {
+        for (int i = 1; i < elements.size(); ++i) {
+            hole.consume(elements.get(i - 1).equals(elements.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void sortedSetLookups(Blackhole hole) {
+        for (JavaElement e : lookups) {
+            hole.consume(sorted.contains(e));
+        }
+    }
+
+    @Test
+    public void testLookups() throws IOException {
+        prepareTrees();
+
+        for (JavaElement e : lookups) {
+            Assertions.assertTrue(sorted.contains(e), () -> "Element " + e + " not found in the sorted set.");
+        }
+    }
+
+    private static List<JavaElement> constructTree(JavaArchiveAnalyzer analyzer) {
+        JavaElementForest forest = analyzer.analyze(TreeFilter.matchAndDescend());
+        analyzer.prune(forest);
+
+        List<JavaElement> ret = forest.stream(JavaElement.class, true, null).collect(Collectors.toList());
+
+        // cache the representations like the analysis does while traversing the tree
+        ret.forEach(JavaElement::getFullHumanReadableString);
+
+        return ret;
+    }
+}
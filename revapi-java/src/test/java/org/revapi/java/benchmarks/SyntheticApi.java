@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+
+/**
+ * Generates a synthetic API of a configurable size, compiles it and packages it in a jar.
+ *
+ * <p>
+ * The API consists of classes in chains of inheritance of the configured depth. Each class has a field, a constant and
+ * the configured number of overloads of a method, optionally using a type parameter. The changed version of the API
+ * differs in every 10th class - a method overload is removed, a return type changed or a method added.
+ */
+final class SyntheticApi {
+    private static final int CLASSES_PER_PACKAGE = 50;
+
+    private final int classes;
+    private final int hierarchyDepth;
+    private final int overloads;
+    private final boolean generics;
+
+    SyntheticApi(int classes, int hierarchyDepth, int overloads, boolean generics) {
+        this.classes = classes;
+        this.hierarchyDepth = Math.max(1, hierarchyDepth);
+        this.overloads = Math.max(1, overloads);
+        this.generics = generics;
+    }
+
+    /**
+     * Compiles the API and exports it as a jar in the provided directory.
+     *
+     * @param dir
+     *            the directory to create the jar in
+     * @param name
+     *            the name of the jar (without the extension)
+     * @param changed
+     *            whether to generate the changed version of the API
+     *
+     * @return the jar file
+     */
+    File createJar(Path dir, String name, boolean changed) throws IOException {
+        Path classesDir = Files.createDirectories(dir.resolve(name + "-classes"));
+
+        List<JavaFileObject> sources = new ArrayList<>(classes);
+        for (int i = 0; i < classes; ++i) {
+            sources.add(new Source(packageName(i) + "." + className(i), classSource(i, changed)));
+        }
+
+        List<String> options = Arrays.asList("-d", classesDir.toString());
+        if (!ToolProvider.getSystemJavaCompiler().getTask(null, null, null, options, null, sources).call()) {
+            throw new IllegalStateException("Failed to compile the synthetic API " + name + ".");
+        }
+
+        JavaArchive archive = ShrinkWrap.create(JavaArchive.class, name + ".jar");
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            files.filter(Files::isRegularFile).forEach(f -> archive.addAsResource(f.toFile(),
+                    classesDir.relativize(f).toString().replace(File.separatorChar, '/')));
+        }
+
+        File jar = dir.resolve(name + ".jar").toFile();
+        archive.as(ZipExporter.class).exportTo(jar, true);
+        return jar;
+    }
+
+    private String classSource(int i, boolean changed) {
+        String typeParam = generics ? "T" : "Object";
+
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(packageName(i)).append(";\n\n");
+        src.append("public class ").append(className(i));
+        if (generics) {
+            src.append("<T extends java.lang.Comparable<T>>");
+        }
+        if (i % hierarchyDepth != 0) {
+            src.append(" extends ").append(packageName(i - 1)).append('.').append(className(i - 1));
+            if (generics) {
+                src.append("<T>");
+            }
+        }
+        src.append(" implements java.io.Serializable {\n");
+
+        src.append("    public static final int CONSTANT_").append(i).append(" = ").append(i).append(";\n");
+        src.append("    public ").append(typeParam).append(" value").append(i).append(";\n");
+
+        boolean changes = changed && i % 10 == 0;
+        int methods = changes && i % 30 == 0 ? overloads - 1 : overloads;
+        for (int j = 0; j < methods; ++j) {
+            src.append("    public java.util.List<").append(typeParam).append("> method(");
+            for (int p = 0; p < j; ++p) {
+                src.append("int p").append(p).append(", ");
+            }
+            src.append(typeParam).append(" value) {\n        return null;\n    }\n");
+        }
+
+        // the overrides cannot change the return type, so this is a method only this class declares
+        String returnType = changes && i % 30 == 10 ? "java.util.Collection" : "java.util.List";
+        src.append("    public ").append(returnType).append('<').append(typeParam).append("> values").append(i)
+                .append("() {\n        return null;\n    }\n");
+
+        if (changes && i % 30 == 20) {
+            src.append("    public void added").append(i).append("() {\n    }\n");
+        }
+
+        src.append("}\n");
+        return src.toString();
+    }
+
+    private static String packageName(int i) {
+        return "synthetic.p" + (i / CLASSES_PER_PACKAGE);
+    }
+
+    private static String className(int i) {
+        return "C" + i;
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String content;
+
+        Source(String className, String content) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
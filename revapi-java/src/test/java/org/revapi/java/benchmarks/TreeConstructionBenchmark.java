@@ -20,12 +20,18 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Properties;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.revapi.API;
 import org.revapi.AnalysisContext;
 import org.revapi.TreeFilter;
@@ -33,12 +39,31 @@ import org.revapi.base.FileArchive;
 import org.revapi.java.JavaApiAnalyzer;
 import org.revapi.java.JavaArchiveAnalyzer;
 import org.revapi.java.model.JavaElementForest;
+import org.revapi.java.spi.JavaElement;
 
 @State(Scope.Benchmark)
 public class TreeConstructionBenchmark {
 
+    /**
+     * The number of threads used to list the classes in the archives. Only makes a difference if there is more than 1
+     * main archive.
+     */
+    @Param({ "1", "4" })
+    public int threads = 1;
+
     private JavaArchiveAnalyzer archiveAnalyzer;
 
+    /**
+     * Runs the benchmarks with the GC profiler, which reports the memory allocated for each tree
+     * ({@code gc.alloc.rate.norm}). Comparing {@code constructTree} with {@code constructAndTraverseTree} shows how
+     * much of the tree is only materialized once the analysis descends into it, like the children of the inherited
+     * members.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TreeConstructionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).forks(1).build()).run();
+    }
+
     @Setup
     public void prepareAnalyzer() throws IOException {
         Properties jarLocations = new Properties();
@@ -63,10 +88,16 @@ public class TreeConstructionBenchmark {
 
         API api = apiBld.build();
         JavaApiAnalyzer apiAnalyzer = new JavaApiAnalyzer();
-        apiAnalyzer.initialize(AnalysisContext.builder().withOldAPI(api).withNewAPI(api).build());
+        AnalysisContext ctx = AnalysisContext.builder().withOldAPI(api).withNewAPI(api).build();
+        apiAnalyzer.initialize(
+                ctx.copyWithConfiguration(JsonNodeFactory.instance.objectNode().put("archiveListingThreads", threads)));
         archiveAnalyzer = apiAnalyzer.getArchiveAnalyzer(api);
     }
 
+    JavaArchiveAnalyzer getArchiveAnalyzer() {
+        return archiveAnalyzer;
+    }
+
     @Benchmark
     public void constructTree(Blackhole hole) {
         JavaElementForest forest = archiveAnalyzer.analyze(TreeFilter.matchAndDescend());
@@ -74,6 +105,13 @@ public class TreeConstructionBenchmark {
         hole.consume(forest);
     }
 
+    @Benchmark
+    public void constructAndTraverseTree(Blackhole hole) {
+        JavaElementForest forest = archiveAnalyzer.analyze(TreeFilter.matchAndDescend());
+        archiveAnalyzer.prune(forest);
+        forest.stream(JavaElement.class, true, null).forEach(hole::consume);
+    }
+
     @Test
     public void testConstructTree() throws IOException {
         prepareAnalyzer();
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.type.TypeMirror;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.revapi.TreeFilter;
+import org.revapi.java.JavaArchiveAnalyzer;
+import org.revapi.java.model.JavaElementForest;
+import org.revapi.java.spi.JavaMethodElement;
+import org.revapi.java.spi.TypeEnvironment;
+import org.revapi.java.spi.Util;
+
+/**
+ * Measures the construction of the unique strings of the return and parameter types of all the methods, like the checks
+ * and the method matching do for each method.
+ */
+@State(Scope.Benchmark)
+public class TypeStringsBenchmark {
+    private List<TypeMirror> types;
+    private TypeEnvironment environment;
+
+    /**
+     * Runs the benchmarks with the GC profiler which shows the allocations saved by the type environment remembering
+     * the strings ({@code gc.alloc.rate.norm}).
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TypeStringsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).forks(1).build()).run();
+    }
+
+    @Setup
+    public void prepareTypes() throws IOException {
+        TreeConstructionBenchmark construction = new TreeConstructionBenchmark();
+        construction.prepareAnalyzer();
+
+        JavaArchiveAnalyzer analyzer = construction.getArchiveAnalyzer();
+        JavaElementForest forest = analyzer.analyze(TreeFilter.matchAndDescend());
+        analyzer.prune(forest);
+
+        types = new ArrayList<>();
+        forest.stream(JavaMethodElement.class, true, null).forEach(m -> {
+            environment = m.getTypeEnvironment();
+            types.add(m.getModelRepresentation().getReturnType());
+            types.addAll(m.getModelRepresentation().getParameterTypes());
+        });
+    }
+
+    @Benchmark
+    public void utilUniqueStrings(Blackhole hole) {
+        for (TypeMirror t : types) {
+            hole.consume(Util.toUniqueString(t));
+        }
+    }
+
+    @Benchmark
+    public void environmentUniqueStrings(Blackhole hole) {
+        for (TypeMirror t : types) {
+            hole.consume(environment.toUniqueString(t));
+        }
+    }
+
+    @Test
+    public void testSameStrings() throws IOException {
+        prepareTypes();
+
+        Assertions.assertFalse(types.isEmpty());
+        for (TypeMirror t : types) {
+            Assertions.assertEquals(Util.toUniqueString(t), environment.toUniqueString(t));
+            Assertions.assertSame(environment.toUniqueString(t), environment.toUniqueString(t));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.compilation;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import javax.annotation.Nullable;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.Archive;
+import org.revapi.TreeFilter;
+import org.revapi.base.FileArchive;
+import org.revapi.java.AnalysisConfiguration;
+import org.revapi.java.spi.JarExtractor;
+
+public class ArchiveCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testTransformedArchiveReused() throws Exception {
+        Archive archive = archive("a.jar", "contents");
+        Path original = ((FileArchive) archive).getFile().toPath();
+        Path cacheDir = tmp.newFolder("cache").toPath();
+        ArchiveCache cache = new ArchiveCache(cacheDir, "config");
+
+        AtomicInteger transformations = new AtomicInteger();
+        ArchiveCache.Transformer transformer = a -> {
+            transformations.incrementAndGet();
+            return Optional.of(new ByteArrayInputStream("transformed".getBytes(StandardCharsets.UTF_8)));
+        };
+
+        Path cached1 = cache.materialize(archive, original, transformer);
+        Path cached2 = cache.materialize(archive, original, transformer);
+
+        assertEquals(1, transformations.get());
+        assertEquals(cached1, cached2);
+        assertArrayEquals("transformed".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(cached1));
+        assertEquals(1, countCachedArchives(cacheDir));
+    }
+
+    @Test
+    public void testUntransformedFileNotCopied() throws Exception {
+        Archive archive = archive("a.jar", "contents");
+        Path original = ((FileArchive) archive).getFile().toPath();
+        Path cacheDir = tmp.newFolder("cache").toPath();
+        ArchiveCache cache = new ArchiveCache(cacheDir, "config");
+
+        AtomicInteger transformations = new AtomicInteger();
+        ArchiveCache.Transformer transformer = a -> {
+            transformations.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertEquals(original, cache.materialize(archive, original, transformer));
+        assertEquals(original, cache.materialize(archive, original, transformer));
+
+        // the second time, the cache knows the archive doesn't need transforming
+        assertEquals(1, transformations.get());
+        assertEquals(0, countCachedArchives(cacheDir));
+    }
+
+    @Test
+    public void testDifferentContentsOrConfigurationNotShared() throws Exception {
+        Path cacheDir = tmp.newFolder("cache").toPath();
+
+        ArchiveCache.Transformer transformer = a -> Optional.empty();
+
+        // with no original file, the archives themselves are stored in the cache
+        new ArchiveCache(cacheDir, "config").materialize(archive("a.jar", "v1"), null, transformer);
+        Path v2 = new ArchiveCache(cacheDir, "config").materialize(archive("b.jar", "v2"), null, transformer);
+        new ArchiveCache(cacheDir, "other-config").materialize(archive("c.jar", "v1"), null, transformer);
+
+        assertEquals(3, countCachedArchives(cacheDir));
+        assertArrayEquals("v2".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(v2));
+    }
+
+    @Test
+    public void testCompilerCachesTransformedFileBackedArchives() throws Exception {
+        File jar = new File(tmp.newFolder("jar"), "archive.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("file.txt"));
+            out.write("contents".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        Archive archive = new FileArchive(jar);
+        Path cacheDir = tmp.newFolder("cache").toPath();
+        CountingExtractor extractor = new CountingExtractor();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 0; i < 2; ++i) {
+                API api = API.of(archive).build();
+                Compiler compiler = new Compiler(executor, new StringWriter(), singletonList(extractor),
+                        singletonList(archive), emptyList(), TreeFilter.matchAndDescend(),
+                        new ArchiveCache(cacheDir, "config"), 1);
+
+                compiler.compile(new ProbingEnvironment(api), AnalysisConfiguration.MissingClassReporting.IGNORE, false)
+                        .removeCompiledResults();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the second compilation found the extracted archive in the cache
+        assertEquals(1, extractor.extractions.get());
+        assertEquals(1, countCachedArchives(cacheDir));
+    }
+
+    private Archive archive(String dirName, String contents) throws Exception {
+        File dir = tmp.newFolder(dirName);
+        File f = new File(dir, "archive.jar");
+        Files.write(f.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        return new FileArchive(f);
+    }
+
+    private static long countCachedArchives(Path cacheDir) throws Exception {
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".jar")).count();
+        }
+    }
+
+    private static final class CountingExtractor implements JarExtractor {
+        final AtomicInteger extractions = new AtomicInteger();
+
+        @Override
+        public Optional<InputStream> extract(Archive archive) {
+            extractions.incrementAndGet();
+            try {
+                return Optional.of(archive.openStream());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "counting";
+        }
+
+        @Nullable
+        @Override
+        public Reader getJSONSchema() {
+            return null;
+        }
+
+        @Override
+        public void initialize(AnalysisContext analysisContext) {
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.compilation;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClasspathScannerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testListedClassesMatchTheFileManager() throws Exception {
+        File jar = tmp.newFile("archive.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (String entry : asList("A.class", "pkg/", "pkg/B.class", "pkg/B$Inner.class", "pkg/package-info.class",
+                    "pkg/resource.txt", "module-info.class", "META-INF/versions/9/pkg/B.class",
+                    "META-INF/versions/9/module-info.class", "not-a-package/C.class")) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.closeEntry();
+            }
+        }
+
+        Set<String> listedByCompiler = new HashSet<>();
+        try (StandardJavaFileManager fileManager = ToolProvider.getSystemJavaCompiler().getStandardFileManager(null,
+                null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, singleton(jar));
+            for (JavaFileObject jfo : fileManager.list(StandardLocation.CLASS_PATH, "",
+                    EnumSet.of(JavaFileObject.Kind.CLASS), true)) {
+                listedByCompiler.add(fileManager.inferBinaryName(StandardLocation.CLASS_PATH, jfo));
+            }
+        }
+
+        assertTrue(listedByCompiler.contains("pkg.B$Inner"));
+
+        // the module descriptors are not scanned
+        listedByCompiler.remove("module-info");
+        assertEquals(listedByCompiler, new HashSet<>(ClasspathScanner.listClasses(jar)));
+    }
+}
@@ -206,6 +206,26 @@ public class ForestPruningTest extends AbstractJavaElementAnalyzerTest {
         assertFalse(forest.getRoots().contains(E));
     }
 
+    @Test
+    public void testChainOfTypesRemoved() throws Exception {
+        createEnvironment();
+
+        // removing Cm leaves E unused and F, which only contains FFF, is not in the API either. FFF is re-added to the
+        // roots once F is removed, but it is only used by Em, so it can only be removed in the round after E
+        Cm.getParent().getChildren().remove(Cm);
+        analyzer.prune(forest);
+
+        assertFalse(forest.getRoots().contains(E));
+        assertFalse(forest.getRoots().contains(FFF));
+        assertFalse(forest.getRoots().contains(F));
+        assertTrue(E.getUseSites().isEmpty());
+        assertTrue(FFF.getUseSites().isEmpty());
+
+        assertTrue(forest.getRoots().contains(A));
+        assertTrue(forest.getRoots().contains(B));
+        assertTrue(forest.getRoots().contains(C));
+    }
+
     @Test
     public void testInnerTypesAffected() throws Exception {
         createEnvironment();
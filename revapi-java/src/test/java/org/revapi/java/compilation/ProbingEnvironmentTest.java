@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.java.compilation;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import javax.lang.model.type.TypeMirror;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.java.spi.Util;
+import org.revapi.testjars.CompiledJar;
+import org.revapi.testjars.junit4.Jar;
+
+public class ProbingEnvironmentTest {
+
+    @Rule
+    public Jar jar = new Jar();
+
+    private CompiledJar.Environment env;
+    private ProbingEnvironment environment;
+    private TypeMirror base;
+    private TypeMirror sub;
+
+    @Before
+    public void createEnvironment() throws Exception {
+        env = jar.from().classPathSources("/typehierarchy/", "Base.java", "Iface.java", "Sub.java").build().analyze();
+
+        environment = new ProbingEnvironment(API.builder().build());
+        environment.setProcessingEnvironment(env.processingEnvironment());
+
+        base = env.elements().getTypeElement("Base").asType();
+        sub = env.elements().getTypeElement("Sub").asType();
+    }
+
+    @Test
+    public void testSuperClassesAreTheSameAsComputedByUtil() {
+        List<TypeMirror> superClasses = environment.getAllSuperClasses(sub);
+
+        assertEquals(uniqueStrings(Util.getAllSuperClasses(env.types(), sub)), uniqueStrings(superClasses));
+        assertEquals(2, superClasses.size());
+        assertSame(superClasses, environment.getAllSuperClasses(sub));
+    }
+
+    @Test
+    public void testSuperInterfacesAreTheSameAsComputedByUtil() {
+        List<TypeMirror> superInterfaces = environment.getAllSuperInterfaces(sub);
+
+        assertEquals(uniqueStrings(Util.getAllSuperInterfaces(env.types(), sub)), uniqueStrings(superInterfaces));
+        assertEquals(3, superInterfaces.size());
+        assertSame(superInterfaces, environment.getAllSuperInterfaces(sub));
+    }
+
+    @Test
+    public void testSubtypeChecks() {
+        TypeMirror serializable = env.elements().getTypeElement("java.io.Serializable").asType();
+        TypeMirror iface = env.elements().getTypeElement("Iface").asType();
+        TypeMirror comparableOfBase = env.types().directSupertypes(base).get(1);
+
+        assertTrue(environment.isSubtype(sub, singletonList(sub)));
+        assertTrue(environment.isSubtype(sub, singletonList(serializable)));
+        assertTrue(environment.isSubtype(sub, singletonList(comparableOfBase)));
+        assertTrue(environment.isSubtype(sub, singletonList(base)));
+        assertFalse(environment.isSubtype(base, singletonList(iface)));
+        assertFalse(environment.isSubtype(base, singletonList(sub)));
+
+        for (TypeMirror t : new TypeMirror[] { base, sub, serializable, iface, comparableOfBase }) {
+            for (TypeMirror s : new TypeMirror[] { base, sub, serializable, iface, comparableOfBase }) {
+                assertEquals(Util.isSubtype(t, singletonList(s), env.types()),
+                        environment.isSubtype(t, singletonList(s)));
+            }
+        }
+    }
+
+    @Test
+    public void testReleasedHierarchiesAreComputedAnew() {
+        List<TypeMirror> superClasses = environment.getAllSuperClasses(sub);
+
+        environment.releaseTypeCaches();
+
+        List<TypeMirror> recomputed = environment.getAllSuperClasses(sub);
+        assertNotSame(superClasses, recomputed);
+        assertEquals(uniqueStrings(superClasses), uniqueStrings(recomputed));
+        assertTrue(environment.isSubtype(sub, singletonList(base)));
+    }
+
+    private static List<String> uniqueStrings(List<TypeMirror> types) {
+        return types.stream().map(Util::toUniqueString).collect(toList());
+    }
+}
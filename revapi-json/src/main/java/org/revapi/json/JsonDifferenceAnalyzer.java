@@ -20,6 +20,7 @@ import java.net.URI;
 
 import javax.annotation.Nullable;
 
+import org.revapi.DifferenceAnalyzer;
 import org.revapi.jackson.JacksonDifferenceAnalyzer;
 
 public class JsonDifferenceAnalyzer extends JacksonDifferenceAnalyzer<JsonElement> {
@@ -38,6 +39,17 @@ public class JsonDifferenceAnalyzer extends JacksonDifferenceAnalyzer<JsonElemen
         return "json.valueChanged";
     }
 
+    /**
+     * The analyzer doesn't hold any state and can therefore be used by several threads at once. The subclasses that
+     * introduce some state need to override this method.
+     *
+     * @return this instance
+     */
+    @Override
+    public DifferenceAnalyzer<JsonElement> fork() {
+        return this;
+    }
+
     @Nullable
     @Override
     protected URI documentationLinkForCode(String code) {
@@ -42,6 +42,9 @@ import org.revapi.Reporter;
  * @since 0.3.11
  */
 abstract class AbstractRevapiMojo extends AbstractMojo {
+    // CompilationPool.CONTEXT_DATA_KEY, revapi-java is not a compile-time dependency of the plugin
+    static final String COMPILATION_POOL_CONTEXT_DATA_KEY = "org.revapi.java.compilationPool";
+
     /**
      * The JSON or XML configuration of the extensions pipeline. This enables the users easily specify which extensions
      * should be included/excluded in the Revapi analysis pipeline and also to define transformation blocks - a way of
@@ -375,6 +378,17 @@ abstract class AbstractRevapiMojo extends AbstractMojo {
     @Parameter(property = Props.expandProperties.NAME, defaultValue = Props.expandProperties.DEFAULT_VALUE)
     protected boolean expandProperties;
 
+    /**
+     * If set to true, the java compiler and the threads used to analyze the Java APIs are kept around and reused by the
+     * subsequent analyses in the same JVM. This saves the lookup of the compiler and the creation of the threads in
+     * multi-module builds. The idle threads are released eventually. Each compilation still starts with empty symbol
+     * tables and its own file manager.
+     *
+     * @since 0.16.0
+     */
+    @Parameter(property = Props.reuseCompilers.NAME, defaultValue = Props.reuseCompilers.DEFAULT_VALUE)
+    protected boolean reuseCompilers;
+
     static Criticality determineCriticality(PipelineConfiguration configuration, String propertyValue,
             String propertyName, DifferenceSeverity fallBackSeverity) throws MojoExecutionException {
         if (propertyValue != null) {
@@ -455,6 +469,13 @@ abstract class AbstractRevapiMojo extends AbstractMojo {
     AnalyzerBuilder.Result buildAnalyzer(MavenProject project, PipelineConfiguration.Builder pipelineConfiguration,
             Class<? extends Reporter> reporter, Map<String, Object> contextData,
             Map<String, Object> propertyOverrides) {
+        if (overrideOrDefault("reuseCompilers", this.reuseCompilers, propertyOverrides)) {
+            contextData = new HashMap<>(contextData);
+            // the plugin class realm and therefore also the pool of the java analyzer is shared by all the modules in
+            // the build
+            contextData.put(COMPILATION_POOL_CONTEXT_DATA_KEY, true);
+        }
+
         return AnalyzerBuilder.forGavs(this.oldArtifacts, this.newArtifacts)
                 .withAlwaysCheckForReleasedVersion(overrideOrDefault("alwaysCheckForReleaseVersion",
                         this.alwaysCheckForReleaseVersion, propertyOverrides))
@@ -547,7 +568,7 @@ abstract class AbstractRevapiMojo extends AbstractMojo {
         return true;
     }
 
-    private Map<String, Object> toContextData(Object... contextDataKeyValues) {
+    Map<String, Object> toContextData(Object... contextDataKeyValues) {
         if (contextDataKeyValues.length % 2 != 0) {
             throw new IllegalArgumentException("Key-value pairs not balanced.");
         }
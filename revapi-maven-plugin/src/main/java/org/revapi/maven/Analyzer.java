@@ -31,6 +31,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -325,8 +327,28 @@ public final class Analyzer {
             if (resolveDependencies) {
                 String[] resolvedOld = oldArchives.stream().map(MavenArchive::getName).toArray(String[]::new);
                 String[] resolvedNew = newArchives.stream().map(MavenArchive::getName).toArray(String[]::new);
-                oldTransitiveDeps.addAll(collectDeps("old", resolver, resolvedOld));
+
+                // the old and new dependencies are independent of each other, so let's collect them concurrently
+                CompletableFuture<Set<MavenArchive>> oldDeps = CompletableFuture
+                        .supplyAsync(() -> collectDeps("old", resolver, resolvedOld), r -> {
+                            Thread t = new Thread(r, "Revapi old API dependency resolution of " + project.getId());
+                            t.setDaemon(true);
+                            t.start();
+                        });
+
                 newTransitiveDeps.addAll(collectDeps("new", resolver, resolvedNew));
+
+                try {
+                    oldTransitiveDeps.addAll(oldDeps.join());
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw e;
+                }
             }
 
             promoteDependencies(oldArchives, oldTransitiveDeps, oldPromotedDependencies);
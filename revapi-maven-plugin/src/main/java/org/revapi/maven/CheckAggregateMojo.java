@@ -0,0 +1,239 @@
+/*
+ * Copyright 2014-2023 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.maven;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.revapi.AnalysisResult;
+import org.revapi.Criticality;
+import org.revapi.PipelineConfiguration;
+import org.revapi.Revapi;
+import org.revapi.maven.utils.ArtifactResolver;
+
+/**
+ * Runs the API check of all the projects in the reactor using the configuration supplied at the top level aggregator
+ * project.
+ * <p>
+ * The artifacts to compare are taken from the configurations of the child projects while the configuration of Revapi
+ * and the extensions to use are taken from the aggregator project, like with the {@code report-aggregate} goal (see
+ * {@link ReportAggregateMojo}). The artifacts of all the projects, including their transitive dependencies, are
+ * resolved up front, one project after another, before any analysis starts. The analyses then share a single instance
+ * of Revapi and run in parallel on a bounded number of threads (see {@link #aggregateThreads}). The problems found are
+ * reported per project and the build fails once all the analyses finish if any of them found problems that should fail
+ * the build.
+ * <p>
+ * If {@link #ignoreSuggestionsFile} is set, the suggestions of all the projects are collected in it.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.16.0
+ */
+@Mojo(name = "check-aggregate", aggregator = true, defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+@Execute(phase = LifecyclePhase.PACKAGE)
+public class CheckAggregateMojo extends CheckMojo {
+
+    @Component
+    private MavenSession mavenSession;
+
+    /**
+     * The maximum number of projects to analyze in parallel. If 0 or less, the number of the available processors is
+     * used.
+     *
+     * @since 0.16.0
+     */
+    @Parameter(property = Props.aggregateThreads.NAME, defaultValue = Props.aggregateThreads.DEFAULT_VALUE)
+    private int aggregateThreads;
+
+    @Override
+    public void doExecute() throws MojoExecutionException, MojoFailureException {
+        // aggregate check makes sense only for POM
+        if (!"pom".equals(project.getArtifact().getArtifactHandler().getPackaging())) {
+            return;
+        }
+
+        List<MavenProject> dependents = mavenSession.getProjectDependencyGraph().getDownstreamProjects(project, true);
+        dependents.sort(Comparator.comparing(p -> p.getArtifact().toString()));
+
+        // resolve everything before starting the analyses so that they don't compete for the repositories
+        ArtifactResolver resolver = ReactorArtifacts.newResolver(repositorySystem, repositorySystemSession,
+                mavenSession.getCurrentProject().getRemoteProjectRepositories(), resolveProvidedDependencies,
+                resolveTransitiveProvidedDependencies, alwaysCheckForReleaseVersion);
+
+        Map<MavenProject, ReactorArtifacts> projectArtifacts = new LinkedHashMap<>();
+        for (MavenProject p : dependents) {
+            projectArtifacts.put(p, ReactorArtifacts.resolve(p, resolver, getLog()));
+        }
+
+        Criticality maxCriticality = determineMaximumCriticality(
+                PipelineConfigurationParser.parse(pipelineConfiguration).build());
+
+        if (ignoreSuggestionsFile != null) {
+            try {
+                Files.deleteIfExists(ignoreSuggestionsFile.toPath());
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to delete the ignore suggestions file.", e);
+            }
+        }
+
+        int threads = aggregateThreads > 0 ? aggregateThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "Revapi Aggregate Check Thread #" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<String> failures = new ArrayList<>();
+            List<String> errors = new ArrayList<>();
+
+            Map<MavenProject, Analyzer> analyzers = new LinkedHashMap<>();
+            Map<MavenProject, StringWriter> outputs = new HashMap<>();
+            Revapi sharedRevapi = null;
+            for (Map.Entry<MavenProject, ReactorArtifacts> e : projectArtifacts.entrySet()) {
+                StringWriter wrt = new StringWriter();
+                Analyzer analyzer = prepareAnalyzer(sharedRevapi, e.getKey(), e.getValue(), maxCriticality, wrt);
+                if (analyzer == null) {
+                    continue;
+                }
+
+                if (sharedRevapi == null) {
+                    sharedRevapi = analyzer.getRevapi();
+                }
+
+                // resolve the transitive dependencies, too, so that the parallel analyses don't resolve anything
+                String projectId = e.getKey().getArtifact().toString();
+                try {
+                    analyzer.resolveArtifacts();
+                } catch (RuntimeException ex) {
+                    getLog().error("Failed to resolve the artifacts of " + projectId + ".", ex);
+                    errors.add(projectId);
+                    continue;
+                }
+
+                analyzers.put(e.getKey(), analyzer);
+                outputs.put(e.getKey(), wrt);
+            }
+
+            Map<MavenProject, Future<?>> checks = new LinkedHashMap<>();
+            analyzers.forEach((p, analyzer) -> checks.put(p, executor.submit(() -> {
+                try (AnalysisResult res = analyzer.analyze()) {
+                    checkResult(res, outputs.get(p), true);
+                }
+                return null;
+            })));
+
+            for (Map.Entry<MavenProject, Future<?>> e : checks.entrySet()) {
+                String projectId = e.getKey().getArtifact().toString();
+                try {
+                    e.getValue().get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof MojoFailureException) {
+                        failures.add(projectId + ":\n" + cause.getMessage());
+                    } else {
+                        getLog().error("Failed to execute the API analysis of " + projectId + ".", cause);
+                        errors.add(projectId);
+                    }
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                throw new MojoExecutionException("Failed to execute the API analysis of " + errors + ".");
+            }
+
+            if (!failures.isEmpty()) {
+                throw new MojoFailureException("API problems found in " + failures.size() + " of " + checks.size()
+                        + " projects.\n\n" + String.join("\n\n", failures));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the API analyses to finish.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Analyzer prepareAnalyzer(Revapi revapi, MavenProject project, ReactorArtifacts artifacts,
+            Criticality maxCriticality, StringWriter wrt) {
+
+        if (!artifacts.isComparable()) {
+            return null;
+        }
+
+        Xpp3Dom runConfig = (Xpp3Dom) ReactorArtifacts.findRevapi(project).getConfiguration();
+
+        String versionRegex = ReactorArtifacts.getValueOfChild(runConfig, "versionFormat");
+
+        Map<String, Object> contextData = toContextData(reporterContextData(maxCriticality, wrt));
+        if (reuseCompilers) {
+            contextData.put(COMPILATION_POOL_CONTEXT_DATA_KEY, true);
+        }
+
+        PipelineConfiguration.Builder pipelineCfg = PipelineConfigurationParser.parse(this.pipelineConfiguration);
+
+        AnalyzerBuilder bld = AnalyzerBuilder.forArtifacts(artifacts.oldArtifacts, artifacts.newArtifacts)
+                .withAlwaysCheckForReleasedVersion(this.alwaysCheckForReleaseVersion)
+                .withPipelineConfiguration(pipelineCfg).withAnalysisConfiguration(this.analysisConfiguration)
+                .withAnalysisConfigurationFiles(this.analysisConfigurationFiles)
+                .withCheckDependencies(this.checkDependencies)
+                .withResolveProvidedDependencies(this.resolveProvidedDependencies)
+                .withResolveTransitiveProvidedDependencies(this.resolveTransitiveProvidedDependencies)
+                .withDisallowedExtensions(disallowedExtensions)
+                .withFailOnMissingConfigurationFiles(this.failOnMissingConfigurationFiles)
+                .withFailOnUnresolvedArtifacts(this.failOnUnresolvedArtifacts)
+                .withFailOnUnresolvedDependencies(this.failOnUnresolvedDependencies).withLocale(Locale.getDefault())
+                .withLog(getLog()).withProject(project).withRepositorySystem(repositorySystem)
+                .withRepositorySystemSession(repositorySystemSession).withSkip(skip)
+                .withExpandProperties(expandProperties).withVersionFormat(versionRegex)
+                .withNewPromotedDependencies(
+                        newPromotedDependencies == null ? promotedDependencies : newPromotedDependencies)
+                .withOldPromotedDependencies(
+                        oldPromotedDependencies == null ? promotedDependencies : oldPromotedDependencies)
+                .withReporter(BuildTimeReporter.class).withContextData(contextData);
+
+        if (revapi != null) {
+            bld = bld.withRevapiInstance(revapi);
+        }
+
+        return bld.build().analyzer;
+    }
+}
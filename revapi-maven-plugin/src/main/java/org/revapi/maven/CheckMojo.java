@@ -84,7 +84,7 @@ public class CheckMojo extends AbstractRevapiMojo {
      * @since 0.11.6
      */
     @Parameter(property = Props.ignoreSuggestionsFile.NAME, defaultValue = Props.ignoreSuggestionsFile.DEFAULT_VALUE)
-    private File ignoreSuggestionsFile;
+    protected File ignoreSuggestionsFile;
 
     /**
      * The message that is appended to the end of the plugin error output when the API problems fail the build. This
@@ -99,67 +99,105 @@ public class CheckMojo extends AbstractRevapiMojo {
     @Override
     public void doExecute() throws MojoExecutionException, MojoFailureException {
         StringWriter wrt = new StringWriter();
-        BuildTimeReporter reporter;
 
         PipelineConfiguration.Builder pipelineCfg = PipelineConfigurationParser.parse(pipelineConfiguration);
         Criticality maxCriticality = determineMaximumCriticality(pipelineCfg.build());
 
         try (AnalysisResult res = analyze(BuildTimeReporter.class, pipelineCfg,
-                BuildTimeReporter.BREAKING_CRITICALITY_KEY, maxCriticality, "maven-log", getLog(), "writer", wrt,
-                BuildTimeReporter.OUTPUT_NON_IDENTIFYING_ATTACHMENTS, outputNonIdentifyingDifferenceInfo,
-                BuildTimeReporter.SUGGESTIONS_BUILDER_KEY, getSuggestionsBuilder())) {
+                reporterContextData(maxCriticality, wrt))) {
 
-            res.throwIfFailed();
+            checkResult(res, wrt, false);
+        } catch (MojoFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MojoExecutionException("Failed to execute the API analysis.", e);
+        }
+    }
 
-            reporter = res.getExtensions().getFirstExtension(BuildTimeReporter.class, null);
+    /**
+     * @param maxCriticality
+     *            the criticality of the differences that break the build
+     * @param wrt
+     *            the writer to collect the output of the other reporters in
+     *
+     * @return the context data the {@link BuildTimeReporter} needs
+     */
+    Object[] reporterContextData(Criticality maxCriticality, StringWriter wrt) {
+        return new Object[] { BuildTimeReporter.BREAKING_CRITICALITY_KEY, maxCriticality, "maven-log", getLog(),
+                "writer", wrt, BuildTimeReporter.OUTPUT_NON_IDENTIFYING_ATTACHMENTS, outputNonIdentifyingDifferenceInfo,
+                BuildTimeReporter.SUGGESTIONS_BUILDER_KEY, getSuggestionsBuilder() };
+    }
 
-            if (reporter != null && reporter.hasBreakingProblems()) {
-                String report = reporter.getAllProblemsMessage();
-                String additionalOutput = wrt.toString();
-                if (!additionalOutput.isEmpty()) {
-                    report += "\n\nAdditionally, the configured reporters reported:\n\n" + additionalOutput;
-                }
+    /**
+     * Reports the problems found by the analysis and fails if they should break the build.
+     *
+     * @param res
+     *            the result of the analysis
+     * @param wrt
+     *            the writer with the output of the other reporters
+     * @param appendSuggestions
+     *            whether to append to the {@link #ignoreSuggestionsFile} instead of creating it
+     *
+     * @throws MojoFailureException
+     *             if the analysis found problems that should fail the build
+     * @throws Exception
+     *             if the analysis failed or the suggestions could not be written
+     */
+    void checkResult(AnalysisResult res, StringWriter wrt, boolean appendSuggestions) throws Exception {
+        res.throwIfFailed();
 
-                if (outputIgnoreSuggestions || ignoreSuggestionsFile != null) {
-                    getLog().info("API problems found.");
-                    String message = "If you're using the semver-ignore extension, update your module's"
-                            + " version to one compatible with the current changes (e.g. mvn package"
-                            + " revapi:update-versions). If you want to explicitly ignore these changes or provide"
-                            + " justifications for them, add the " + ignoreSuggestionsFormat + " snippets to your"
-                            + " Revapi configuration for the \"revapi.differences\" extension.";
-                    String suggestions = reporter.getIgnoreSuggestion();
-
-                    if (outputIgnoreSuggestions) {
-                        getLog().info(message + "\n\n" + suggestions);
-                    }
+        BuildTimeReporter reporter = res.getExtensions().getFirstExtension(BuildTimeReporter.class, null);
+
+        if (reporter != null && reporter.hasBreakingProblems()) {
+            String report = reporter.getAllProblemsMessage();
+            String additionalOutput = wrt.toString();
+            if (!additionalOutput.isEmpty()) {
+                report += "\n\nAdditionally, the configured reporters reported:\n\n" + additionalOutput;
+            }
 
-                    if (ignoreSuggestionsFile != null && suggestions != null) {
+            if (outputIgnoreSuggestions || ignoreSuggestionsFile != null) {
+                getLog().info("API problems found.");
+                String message = "If you're using the semver-ignore extension, update your module's"
+                        + " version to one compatible with the current changes (e.g. mvn package"
+                        + " revapi:update-versions). If you want to explicitly ignore these changes or provide"
+                        + " justifications for them, add the " + ignoreSuggestionsFormat + " snippets to your"
+                        + " Revapi configuration for the \"revapi.differences\" extension.";
+                String suggestions = reporter.getIgnoreSuggestion();
+
+                if (outputIgnoreSuggestions) {
+                    getLog().info(message + "\n\n" + suggestions);
+                }
+
+                if (ignoreSuggestionsFile != null && suggestions != null) {
+                    if (appendSuggestions) {
+                        synchronized (this) {
+                            Files.write(ignoreSuggestionsFile.toPath(),
+                                    (suggestions + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                                    StandardOpenOption.APPEND);
+                        }
+                    } else {
                         Files.write(ignoreSuggestionsFile.toPath(), suggestions.getBytes(StandardCharsets.UTF_8),
                                 StandardOpenOption.CREATE);
-                        if (!outputIgnoreSuggestions) {
-                            getLog().info(message);
-                        }
-                        getLog().info("Snippets written to " + ignoreSuggestionsFile);
                     }
-                    // this will be part of the error message
-                    if (failBuildOnProblemsFound) {
-                        report += "\n" + buildFailureMessage;
+                    if (!outputIgnoreSuggestions) {
+                        getLog().info(message);
                     }
+                    getLog().info("Snippets written to " + ignoreSuggestionsFile);
                 }
-
+                // this will be part of the error message
                 if (failBuildOnProblemsFound) {
-                    throw new MojoFailureException(report);
-                } else if (!outputIgnoreSuggestions) {
-                    getLog().info("API problems found but letting the build pass as configured.");
-                    Stream.of(report.split("\n")).forEach(l -> getLog().info(l));
+                    report += "\n" + buildFailureMessage;
                 }
-            } else {
-                getLog().info("API checks completed without failures.");
             }
-        } catch (MojoFailureException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new MojoExecutionException("Failed to execute the API analysis.", e);
+
+            if (failBuildOnProblemsFound) {
+                throw new MojoFailureException(report);
+            } else if (!outputIgnoreSuggestions) {
+                getLog().info("API problems found but letting the build pass as configured.");
+                Stream.of(report.split("\n")).forEach(l -> getLog().info(l));
+            }
+        } else {
+            getLog().info("API checks completed without failures.");
         }
     }
 
@@ -62,7 +62,7 @@ class MavenArchive implements Archive.Versioned {
         if ("pom".equals(artifact.getExtension())) {
             return new Empty(artifact);
         } else {
-            return new MavenArchive(artifact);
+            return new Stored(artifact);
         }
     }
 
@@ -112,6 +112,21 @@ class MavenArchive implements Archive.Versioned {
         return "MavenArchive[gav=" + gav + ", file=" + file + ']';
     }
 
+    /**
+     * An archive with the data in the artifact file, which the extensions can therefore use directly.
+     */
+    public static final class Stored extends MavenArchive implements Archive.FileBacked {
+
+        public Stored(Artifact artifact) {
+            super(artifact);
+        }
+
+        @Override
+        public File getFile() {
+            return super.file;
+        }
+    }
+
     public static final class Empty extends MavenArchive {
 
         public Empty(Artifact artifact) {
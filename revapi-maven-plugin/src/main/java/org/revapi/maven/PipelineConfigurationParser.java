@@ -107,6 +107,13 @@ final class PipelineConfigurationParser {
 
                     bld.addUntypedSeverityMapping(severity, criticalityName);
                 }
+                break;
+            case "parallelTreeConstruction":
+                bld.withParallelTreeConstruction(Boolean.parseBoolean(c.getValue()));
+                break;
+            case "differenceAnalysisThreads":
+                bld.withDifferenceAnalysisThreads(Integer.parseInt(c.getValue()));
+                break;
             }
         }
 
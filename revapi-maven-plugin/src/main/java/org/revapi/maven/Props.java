@@ -212,6 +212,16 @@ final class Props {
         static final String DEFAULT_VALUE = "";
     }
 
+    static final class reuseCompilers {
+        static final String NAME = PREFIX + "reuseCompilers";
+        static final String DEFAULT_VALUE = "false";
+    }
+
+    static final class aggregateThreads {
+        static final String NAME = PREFIX + "aggregateThreads";
+        static final String DEFAULT_VALUE = "0";
+    }
+
     static final class buildFailureMessage {
         static final String NAME = "buildFailureMessage";
         static final String DEFAULT_VALUE = "Consult the plugin output above for suggestions on how to ignore the found"
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2014-2023 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.maven;
+
+import static org.revapi.maven.utils.ArtifactResolver.getRevapiDependencySelector;
+import static org.revapi.maven.utils.ArtifactResolver.getRevapiDependencyTraverser;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.VersionRangeResolutionException;
+import org.revapi.maven.utils.ArtifactResolver;
+
+/**
+ * The old and new artifacts of a project in a reactor, as configured in the configuration of the revapi plugin of that
+ * project. Used by the goals that analyze all the projects in the reactor at once.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.16.0
+ */
+final class ReactorArtifacts {
+    private static final ReactorArtifacts NONE = new ReactorArtifacts(null, null);
+
+    final Artifact[] oldArtifacts;
+    final Artifact[] newArtifacts;
+
+    private ReactorArtifacts(Artifact[] oldArtifacts, Artifact[] newArtifacts) {
+        this.oldArtifacts = oldArtifacts;
+        this.newArtifacts = newArtifacts;
+    }
+
+    /**
+     * Creates the resolver to resolve the artifacts of all the projects in the reactor with.
+     */
+    static ArtifactResolver newResolver(RepositorySystem repositorySystem, RepositorySystemSession repositorySession,
+            List<RemoteRepository> repositories, boolean resolveProvidedDependencies,
+            boolean resolveTransitiveProvidedDependencies, boolean alwaysCheckForReleaseVersion) {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(repositorySession);
+        session.setDependencySelector(
+                getRevapiDependencySelector(resolveProvidedDependencies, resolveTransitiveProvidedDependencies));
+        session.setDependencyTraverser(
+                getRevapiDependencyTraverser(resolveProvidedDependencies, resolveTransitiveProvidedDependencies));
+
+        if (alwaysCheckForReleaseVersion) {
+            session.setUpdatePolicy(RepositoryPolicy.UPDATE_POLICY_ALWAYS);
+        }
+
+        return new ArtifactResolver(repositorySystem, session, repositories);
+    }
+
+    /**
+     * Resolves the old and new artifacts of the provided project as configured in its revapi plugin configuration.
+     *
+     * @param project
+     *            the project to resolve the artifacts of
+     * @param resolver
+     *            the resolver to use
+     * @param log
+     *            the log to warn about the unresolvable artifacts to
+     *
+     * @return the resolved artifacts, never null
+     */
+    static ReactorArtifacts resolve(MavenProject project, ArtifactResolver resolver, Log log) {
+        Plugin revapiPlugin = findRevapi(project);
+        if (revapiPlugin == null) {
+            return NONE;
+        }
+
+        Xpp3Dom pluginConfig = (Xpp3Dom) revapiPlugin.getConfiguration();
+
+        String[] oldArtifacts = getArtifacts(pluginConfig, "oldArtifacts");
+        String[] newArtifacts = getArtifacts(pluginConfig, "newArtifacts");
+        String oldVersion = getValueOfChild(pluginConfig, "oldVersion");
+        if (oldVersion == null) {
+            oldVersion = System.getProperties().getProperty(Props.oldVersion.NAME, Props.oldVersion.DEFAULT_VALUE);
+        }
+        String newVersion = getValueOfChild(pluginConfig, "newVersion");
+        if (newVersion == null) {
+            newVersion = System.getProperties().getProperty(Props.newVersion.NAME, project.getVersion());
+        }
+
+        String defaultOldArtifact = Analyzer.getProjectArtifactCoordinates(project, oldVersion);
+        String defaultNewArtifact = Analyzer.getProjectArtifactCoordinates(project, newVersion);
+
+        if (oldArtifacts == null || oldArtifacts.length == 0) {
+            if (!project.getArtifact().getArtifactHandler().isAddedToClasspath()) {
+                return NONE;
+            }
+            oldArtifacts = new String[] { defaultOldArtifact };
+        }
+        if (newArtifacts == null || newArtifacts.length == 0) {
+            if (!project.getArtifact().getArtifactHandler().isAddedToClasspath()) {
+                return NONE;
+            }
+            newArtifacts = new String[] { defaultNewArtifact };
+        }
+        String versionRegexString = getValueOfChild(pluginConfig, "versionFormat");
+        Pattern versionRegex = versionRegexString == null ? null : Pattern.compile(versionRegexString);
+
+        Function<String, Artifact> resolve = gav -> {
+            try {
+                return Analyzer.resolveConstrained(project, gav, versionRegex, resolver);
+            } catch (VersionRangeResolutionException | ArtifactResolutionException e) {
+                log.warn("Could not resolve artifact '" + gav + "' with message: " + e.getMessage());
+                return null;
+            }
+        };
+
+        return new ReactorArtifacts(
+                Stream.of(oldArtifacts).map(resolve).filter(f -> f != null).toArray(Artifact[]::new),
+                Stream.of(newArtifacts).map(resolve).filter(f -> f != null).toArray(Artifact[]::new));
+    }
+
+    /**
+     * @return true if there are both old and new artifacts to compare
+     */
+    boolean isComparable() {
+        return oldArtifacts != null && oldArtifacts.length != 0 && newArtifacts != null && newArtifacts.length != 0;
+    }
+
+    static Plugin findRevapi(MavenProject project) {
+        return project.getBuildPlugins().stream().filter(p -> "org.revapi:revapi-maven-plugin".equals(p.getKey()))
+                .findAny().orElse(null);
+    }
+
+    static String[] getArtifacts(Xpp3Dom config, String artifactTag) {
+        Xpp3Dom oldArtifactsXml = config == null ? null : config.getChild(artifactTag);
+
+        if (oldArtifactsXml == null) {
+            return new String[0];
+        }
+
+        if (oldArtifactsXml.getChildCount() == 0) {
+            String artifact = oldArtifactsXml.getValue();
+            return new String[] { artifact };
+        } else {
+            String[] ret = new String[oldArtifactsXml.getChildCount()];
+            for (int i = 0; i < oldArtifactsXml.getChildCount(); ++i) {
+                ret[i] = oldArtifactsXml.getChild(i).getValue();
+            }
+
+            return ret;
+        }
+    }
+
+    static String getValueOfChild(Xpp3Dom element, String childName) {
+        Xpp3Dom child = element == null ? null : element.getChild(childName);
+        return child == null ? null : child.getValue();
+    }
+}
@@ -18,8 +18,6 @@ package org.revapi.maven;
 
 import static org.apache.maven.plugins.annotations.LifecyclePhase.PACKAGE;
 import static org.apache.maven.plugins.annotations.LifecyclePhase.SITE;
-import static org.revapi.maven.utils.ArtifactResolver.getRevapiDependencySelector;
-import static org.revapi.maven.utils.ArtifactResolver.getRevapiDependencyTraverser;
 
 import java.io.File;
 import java.text.MessageFormat;
@@ -30,9 +28,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.execution.MavenSession;
@@ -43,11 +39,6 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.reporting.MavenReportException;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
-import org.eclipse.aether.DefaultRepositorySystemSession;
-import org.eclipse.aether.artifact.Artifact;
-import org.eclipse.aether.repository.RepositoryPolicy;
-import org.eclipse.aether.resolution.ArtifactResolutionException;
-import org.eclipse.aether.resolution.VersionRangeResolutionException;
 import org.revapi.API;
 import org.revapi.AnalysisResult;
 import org.revapi.Revapi;
@@ -125,9 +116,13 @@ public class ReportAggregateMojo extends ReportMojo {
             return as.compareTo(bs);
         });
 
-        Map<MavenProject, ProjectVersions> projectVersions = dependents.stream()
-                .collect(Collectors.toMap(Function.identity(), this::getRunConfig));
-        projectVersions.put(project, getRunConfig(project));
+        ArtifactResolver resolver = ReactorArtifacts.newResolver(repositorySystem, repositorySystemSession,
+                mavenSession.getCurrentProject().getRemoteProjectRepositories(), resolveProvidedDependencies,
+                resolveTransitiveProvidedDependencies, alwaysCheckForReleaseVersion);
+
+        Map<MavenProject, ReactorArtifacts> projectVersions = dependents.stream()
+                .collect(Collectors.toMap(Function.identity(), p -> ReactorArtifacts.resolve(p, resolver, getLog())));
+        projectVersions.put(project, ReactorArtifacts.resolve(project, resolver, getLog()));
 
         ResourceBundle messages = getBundle(locale);
         Sink sink = getSink();
@@ -184,74 +179,8 @@ public class ReportAggregateMojo extends ReportMojo {
         sink.section2_();
     }
 
-    private ProjectVersions getRunConfig(MavenProject project) {
-        ProjectVersions ret = new ProjectVersions();
-        Plugin revapiPlugin = findRevapi(project);
-        if (revapiPlugin == null) {
-            return ret;
-        }
-
-        Xpp3Dom pluginConfig = (Xpp3Dom) revapiPlugin.getConfiguration();
-
-        String[] oldArtifacts = getArtifacts(pluginConfig, "oldArtifacts");
-        String[] newArtifacts = getArtifacts(pluginConfig, "newArtifacts");
-        String oldVersion = getValueOfChild(pluginConfig, "oldVersion");
-        if (oldVersion == null) {
-            oldVersion = System.getProperties().getProperty(Props.oldVersion.NAME, Props.oldVersion.DEFAULT_VALUE);
-        }
-        String newVersion = getValueOfChild(pluginConfig, "newVersion");
-        if (newVersion == null) {
-            newVersion = System.getProperties().getProperty(Props.newVersion.NAME, project.getVersion());
-        }
-
-        String defaultOldArtifact = Analyzer.getProjectArtifactCoordinates(project, oldVersion);
-        String defaultNewArtifact = Analyzer.getProjectArtifactCoordinates(project, newVersion);
-
-        if (oldArtifacts == null || oldArtifacts.length == 0) {
-            if (!project.getArtifact().getArtifactHandler().isAddedToClasspath()) {
-                return ret;
-            }
-            oldArtifacts = new String[] { defaultOldArtifact };
-        }
-        if (newArtifacts == null || newArtifacts.length == 0) {
-            if (!project.getArtifact().getArtifactHandler().isAddedToClasspath()) {
-                return ret;
-            }
-            newArtifacts = new String[] { defaultNewArtifact };
-        }
-        String versionRegexString = getValueOfChild(pluginConfig, "versionFormat");
-        Pattern versionRegex = versionRegexString == null ? null : Pattern.compile(versionRegexString);
-
-        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(repositorySystemSession);
-        session.setDependencySelector(
-                getRevapiDependencySelector(resolveProvidedDependencies, resolveTransitiveProvidedDependencies));
-        session.setDependencyTraverser(
-                getRevapiDependencyTraverser(resolveProvidedDependencies, resolveTransitiveProvidedDependencies));
-
-        if (alwaysCheckForReleaseVersion) {
-            session.setUpdatePolicy(RepositoryPolicy.UPDATE_POLICY_ALWAYS);
-        }
-
-        ArtifactResolver resolver = new ArtifactResolver(repositorySystem, session,
-                mavenSession.getCurrentProject().getRemoteProjectRepositories());
-
-        Function<String, Artifact> resolve = gav -> {
-            try {
-                return Analyzer.resolveConstrained(project, gav, versionRegex, resolver);
-            } catch (VersionRangeResolutionException | ArtifactResolutionException e) {
-                getLog().warn("Could not resolve artifact '" + gav + "' with message: " + e.getMessage());
-                return null;
-            }
-        };
-
-        ret.oldGavs = Stream.of(oldArtifacts).map(resolve).filter(f -> f != null).toArray(Artifact[]::new);
-        ret.newGavs = Stream.of(newArtifacts).map(resolve).filter(f -> f != null).toArray(Artifact[]::new);
-
-        return ret;
-    }
-
     private Analyzer prepareAnalyzer(Revapi revapi, MavenProject project, Locale locale,
-            ProjectVersions storedVersions) {
+            ReactorArtifacts storedVersions) {
 
         Plugin runPluginConfig = findRevapi(project);
 
@@ -261,16 +190,13 @@ public class ReportAggregateMojo extends ReportMojo {
 
         Xpp3Dom runConfig = (Xpp3Dom) runPluginConfig.getConfiguration();
 
-        Artifact[] oldArtifacts = storedVersions.oldGavs;
-        Artifact[] newArtifacts = storedVersions.newGavs;
-
-        if (oldArtifacts == null || oldArtifacts.length == 0 || newArtifacts == null || newArtifacts.length == 0) {
+        if (!storedVersions.isComparable()) {
             return null;
         }
 
-        String versionRegex = getValueOfChild(runConfig, "versionFormat");
+        String versionRegex = ReactorArtifacts.getValueOfChild(runConfig, "versionFormat");
 
-        AnalyzerBuilder bld = AnalyzerBuilder.forArtifacts(oldArtifacts, newArtifacts)
+        AnalyzerBuilder bld = AnalyzerBuilder.forArtifacts(storedVersions.oldArtifacts, storedVersions.newArtifacts)
                 .withAlwaysCheckForReleasedVersion(this.alwaysCheckForReleaseVersion)
                 .withPipelineConfiguration(PipelineConfigurationParser.parse(this.pipelineConfiguration))
                 .withAnalysisConfiguration(this.analysisConfiguration)
@@ -304,37 +230,10 @@ public class ReportAggregateMojo extends ReportMojo {
     }
 
     protected static Plugin findRevapi(MavenProject project) {
-        return project.getBuildPlugins().stream().filter(p -> "org.revapi:revapi-maven-plugin".equals(p.getKey()))
-                .findAny().orElse(null);
+        return ReactorArtifacts.findRevapi(project);
     }
 
     protected static String[] getArtifacts(Xpp3Dom config, String artifactTag) {
-        Xpp3Dom oldArtifactsXml = config == null ? null : config.getChild(artifactTag);
-
-        if (oldArtifactsXml == null) {
-            return new String[0];
-        }
-
-        if (oldArtifactsXml.getChildCount() == 0) {
-            String artifact = oldArtifactsXml.getValue();
-            return new String[] { artifact };
-        } else {
-            String[] ret = new String[oldArtifactsXml.getChildCount()];
-            for (int i = 0; i < oldArtifactsXml.getChildCount(); ++i) {
-                ret[i] = oldArtifactsXml.getChild(i).getValue();
-            }
-
-            return ret;
-        }
-    }
-
-    private static String getValueOfChild(Xpp3Dom element, String childName) {
-        Xpp3Dom child = element == null ? null : element.getChild(childName);
-        return child == null ? null : child.getValue();
-    }
-
-    private static final class ProjectVersions {
-        Artifact[] oldGavs;
-        Artifact[] newGavs;
+        return ReactorArtifacts.getArtifacts(config, artifactTag);
     }
 }
@@ -18,9 +18,13 @@ package org.revapi.maven.utils;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -30,6 +34,7 @@ import org.eclipse.aether.AbstractForwardingRepositorySystemSession;
 import org.eclipse.aether.RepositoryException;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.collection.CollectRequest;
@@ -75,6 +80,8 @@ import org.slf4j.LoggerFactory;
  */
 public class ArtifactResolver {
     private static final Logger LOG = LoggerFactory.getLogger(ArtifactResolver.class);
+    private static final String COLLECTION_CACHE_KEY = ArtifactResolver.class.getName() + ".collectionCache";
+    private static final int COLLECTION_CACHE_SIZE = 16;
 
     private final RepositorySystem repositorySystem;
     private final RepositorySystemSession session;
@@ -188,32 +195,109 @@ public class ArtifactResolver {
         };
     }
 
+    /**
+     * Collects the transitive dependencies of all the provided artifacts in a single pass over the dependency graph.
+     * The artifacts are handled as if each of them was the root of its own dependency graph, but the versions of their
+     * common dependencies are mediated among all of them, like for a project that would depend on all the artifacts.
+     * The artifacts themselves are not included in the result. This also applies to an artifact that is at the same
+     * time a dependency of another of the artifacts - it is only handled as a root and is therefore not reported as a
+     * dependency, unlike when the dependencies of each artifact are collected separately.
+     * <p>
+     * The successful results are cached in the repository session so that collecting the dependencies of the same
+     * artifacts again with the same dependency selection rules doesn't need to walk the dependency graph again. Only
+     * the results of the last few distinct requests are kept.
+     * <p>
+     * The collection itself is done by {@link #collectTransitiveDeps(String[], Set, Set)}, which is the method to
+     * override in the subclasses.
+     *
+     * @param gavs
+     *            the coordinates of the artifacts to collect the dependencies of
+     *
+     * @return the collected dependencies and the failures encountered
+     *
+     * @throws RepositoryException
+     *             if any of the artifacts fails to resolve
+     */
     public CollectionResult collectTransitiveDeps(String... gavs) throws RepositoryException {
+        Map<CollectionKey, CollectionResult> cache = getCollectionCache();
+        CollectionKey key = new CollectionKey(gavs, session, repositories);
+
+        CollectionResult cached = cache == null ? null : cache.get(key);
+        if (cached != null) {
+            LOG.debug("Reusing the collected dependencies of {}", key.gavs);
+            return cached.copy();
+        }
 
         Set<Artifact> artifacts = new HashSet<>();
         Set<Exception> failures = new HashSet<>();
 
-        for (String gav : gavs) {
-            LOG.debug("Artifact resolution for {}", gav);
-            collectTransitiveDeps(gav, artifacts, failures);
+        LOG.debug("Artifact resolution for {}", key.gavs);
+        collectTransitiveDeps(gavs, artifacts, failures);
+
+        CollectionResult ret = new CollectionResult(failures, artifacts);
+
+        if (cache != null && failures.isEmpty()) {
+            cache.put(key, ret.copy());
         }
 
-        return new CollectionResult(failures, artifacts);
+        return ret;
     }
 
+    /**
+     * Collects the transitive dependencies of a single artifact.
+     *
+     * @param gav
+     *            the coordinates of the artifact
+     * @param resolvedArtifacts
+     *            the set to add the collected dependencies to
+     * @param failures
+     *            the set to add the failures to
+     *
+     * @throws RepositoryException
+     *             if the artifact fails to resolve
+     *
+     * @deprecated this is no longer called by {@link #collectTransitiveDeps(String...)}, which collects the
+     *             dependencies of all the artifacts at once. Override
+     *             {@link #collectTransitiveDeps(String[], Set, Set)} instead.
+     */
+    @Deprecated
     protected void collectTransitiveDeps(String gav, Set<Artifact> resolvedArtifacts, Set<Exception> failures)
             throws RepositoryException {
+        collectTransitiveDeps(new String[] { gav }, resolvedArtifacts, failures);
+    }
 
-        final Artifact rootArtifact = resolveArtifact(gav);
+    /**
+     * Collects the transitive dependencies of all the provided artifacts in a single request. This is called by
+     * {@link #collectTransitiveDeps(String...)} if there are no cached results for the artifacts.
+     *
+     * @param gavs
+     *            the coordinates of the artifacts to collect the dependencies of
+     * @param resolvedArtifacts
+     *            the set to add the collected dependencies to
+     * @param failures
+     *            the set to add the failures to
+     *
+     * @throws RepositoryException
+     *             if any of the artifacts fails to resolve
+     *
+     * @since 0.11.0
+     */
+    protected void collectTransitiveDeps(String[] gavs, Set<Artifact> resolvedArtifacts, Set<Exception> failures)
+            throws RepositoryException {
 
-        CollectRequest collectRequest = new CollectRequest(new Dependency(rootArtifact, null), repositories);
+        // all the roots are the dependencies of a single request, so that the parts of the dependency graph they share
+        // are only collected once
+        CollectRequest collectRequest = new CollectRequest().setRepositories(repositories);
+        for (String gav : gavs) {
+            collectRequest.addDependency(new Dependency(resolveArtifact(gav), null));
+        }
 
         DependencyRequest request = new DependencyRequest(collectRequest, null);
 
         DependencyResult result;
 
         try {
-            result = repositorySystem.resolveDependencies(session, request);
+            result = repositorySystem.resolveDependencies(new MultiRootSession(session), request);
         } catch (DependencyResolutionException dre) {
             result = dre.getResult();
         }
@@ -245,8 +329,9 @@ public class ArtifactResolver {
             public boolean visitLeave(DependencyNode node) {
                 depth--;
 
+                // the depth of 0 is the virtual root and 1 are the requested artifacts themselves
                 Dependency dep = node.getDependency();
-                if (dep == null || dep.getArtifact().equals(rootArtifact)) {
+                if (dep == null || depth < 2) {
                     return true;
                 }
 
@@ -259,6 +344,74 @@ public class ArtifactResolver {
         failures.addAll(result.getCollectExceptions());
     }
 
+    @SuppressWarnings("unchecked")
+    private Map<CollectionKey, CollectionResult> getCollectionCache() {
+        SessionData data = session.getData();
+        if (data == null) {
+            return null;
+        }
+
+        Object cache = data.get(COLLECTION_CACHE_KEY);
+        if (cache == null) {
+            data.set(COLLECTION_CACHE_KEY, null, Collections.synchronizedMap(new CollectionCache()));
+            cache = data.get(COLLECTION_CACHE_KEY);
+        }
+
+        return (Map<CollectionKey, CollectionResult>) cache;
+    }
+
+    /**
+     * Keeps only the most recently used results so that a long-lived session doesn't accumulate them.
+     */
+    private static final class CollectionCache extends LinkedHashMap<CollectionKey, CollectionResult> {
+        private static final long serialVersionUID = 1L;
+
+        CollectionCache() {
+            super(COLLECTION_CACHE_SIZE, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CollectionKey, CollectionResult> eldest) {
+            return size() > COLLECTION_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * The collected dependencies depend on the requested artifacts, the rules to select the dependencies with (i.e. the
+     * scopes to consider) and the repositories to look in.
+     */
+    private static final class CollectionKey {
+        final List<String> gavs;
+        final DependencySelector selector;
+        final DependencyTraverser traverser;
+        final List<RemoteRepository> repositories;
+
+        CollectionKey(String[] gavs, RepositorySystemSession session, List<RemoteRepository> repositories) {
+            this.gavs = Arrays.asList(gavs);
+            this.selector = session.getDependencySelector();
+            this.traverser = session.getDependencyTraverser();
+            this.repositories = repositories;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CollectionKey that = (CollectionKey) o;
+            return gavs.equals(that.gavs) && Objects.equals(selector, that.selector)
+                    && Objects.equals(traverser, that.traverser) && Objects.equals(repositories, that.repositories);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(gavs, selector, traverser, repositories);
+        }
+    }
+
     public static final class CollectionResult {
         private final Set<Artifact> resolvedArtifacts;
         private final Set<Exception> failures;
@@ -275,6 +428,10 @@ public class ArtifactResolver {
         public Set<Artifact> getResolvedArtifacts() {
             return resolvedArtifacts;
         }
+
+        private CollectionResult copy() {
+            return new CollectionResult(new HashSet<>(failures), new HashSet<>(resolvedArtifacts));
+        }
     }
 
     private Artifact resolveArtifact(Artifact artifact, RepositorySystemSession session)
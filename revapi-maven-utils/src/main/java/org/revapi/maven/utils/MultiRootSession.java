@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014-2023 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.maven.utils;
+
+import java.util.Objects;
+
+import org.eclipse.aether.AbstractForwardingRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencyManagement;
+import org.eclipse.aether.collection.DependencyManager;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.collection.DependencyTraverser;
+import org.eclipse.aether.graph.Dependency;
+
+/**
+ * A session to collect the dependencies of several root artifacts at once with.
+ * <p>
+ * If a collect request has no root dependency, the resolver considers the dependencies of the request the direct
+ * dependencies of a virtual root. The dependency selector, manager and traverser would therefore see the dependencies
+ * of each of the requested artifacts one level deeper than if the artifact was the root of the request, which would
+ * change what the top-level scopes of the {@link ScopeDependencySelector} and {@link ScopeDependencyTraverser} apply
+ * to. This session hides the level of the virtual root from them so that each requested artifact is handled as if it
+ * was the root of its own request.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.11.0
+ */
+final class MultiRootSession extends AbstractForwardingRepositorySystemSession {
+    private final RepositorySystemSession session;
+
+    MultiRootSession(RepositorySystemSession session) {
+        this.session = session;
+    }
+
+    @Override
+    protected RepositorySystemSession getSession() {
+        return session;
+    }
+
+    @Override
+    public DependencySelector getDependencySelector() {
+        DependencySelector selector = session.getDependencySelector();
+        return selector == null ? null : new RootSelector(selector, false);
+    }
+
+    @Override
+    public DependencyManager getDependencyManager() {
+        DependencyManager manager = session.getDependencyManager();
+        return manager == null ? null : new RootManager(manager, false);
+    }
+
+    @Override
+    public DependencyTraverser getDependencyTraverser() {
+        DependencyTraverser traverser = session.getDependencyTraverser();
+        return traverser == null ? null : new RootTraverser(traverser, false);
+    }
+
+    private static final class RootSelector implements DependencySelector {
+        private final DependencySelector selector;
+        private final boolean roots;
+
+        RootSelector(DependencySelector selector, boolean roots) {
+            this.selector = selector;
+            this.roots = roots;
+        }
+
+        @Override
+        public boolean selectDependency(Dependency dependency) {
+            return roots || selector.selectDependency(dependency);
+        }
+
+        @Override
+        public DependencySelector deriveChildSelector(DependencyCollectionContext context) {
+            return roots ? selector.deriveChildSelector(context) : new RootSelector(selector, true);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (null == obj || !getClass().equals(obj.getClass())) {
+                return false;
+            }
+
+            RootSelector that = (RootSelector) obj;
+            return roots == that.roots && selector.equals(that.selector);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(selector, roots);
+        }
+    }
+
+    private static final class RootManager implements DependencyManager {
+        private final DependencyManager manager;
+        private final boolean roots;
+
+        RootManager(DependencyManager manager, boolean roots) {
+            this.manager = manager;
+            this.roots = roots;
+        }
+
+        @Override
+        public DependencyManagement manageDependency(Dependency dependency) {
+            return roots ? null : manager.manageDependency(dependency);
+        }
+
+        @Override
+        public DependencyManager deriveChildManager(DependencyCollectionContext context) {
+            return roots ? manager.deriveChildManager(context) : new RootManager(manager, true);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (null == obj || !getClass().equals(obj.getClass())) {
+                return false;
+            }
+
+            RootManager that = (RootManager) obj;
+            return roots == that.roots && manager.equals(that.manager);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(manager, roots);
+        }
+    }
+
+    private static final class RootTraverser implements DependencyTraverser {
+        private final DependencyTraverser traverser;
+        private final boolean roots;
+
+        RootTraverser(DependencyTraverser traverser, boolean roots) {
+            this.traverser = traverser;
+            this.roots = roots;
+        }
+
+        @Override
+        public boolean traverseDependency(Dependency dependency) {
+            return roots || traverser.traverseDependency(dependency);
+        }
+
+        @Override
+        public DependencyTraverser deriveChildTraverser(DependencyCollectionContext context) {
+            return roots ? traverser.deriveChildTraverser(context) : new RootTraverser(traverser, true);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (null == obj || !getClass().equals(obj.getClass())) {
+                return false;
+            }
+
+            RootTraverser that = (RootTraverser) obj;
+            return roots == that.roots && traverser.equals(that.traverser);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(traverser, roots);
+        }
+    }
+}
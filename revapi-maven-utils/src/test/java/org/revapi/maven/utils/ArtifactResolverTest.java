@@ -93,12 +93,17 @@ public class ArtifactResolverTest {
         RepositorySystem repositorySystem = newRepositorySystem();
         DefaultRepositorySystemSession session = newRepositorySystemSession(repositorySystem, localRepo());
 
+        setScopes(session, resolveProvidedDependencies, resolveTransitiveProvidedDependencies);
+
+        return new ArtifactResolver(repositorySystem, session, repos());
+    }
+
+    private static void setScopes(DefaultRepositorySystemSession session, boolean resolveProvidedDependencies,
+            boolean resolveTransitiveProvidedDependencies) {
         session.setDependencySelector(
                 getRevapiDependencySelector(resolveProvidedDependencies, resolveTransitiveProvidedDependencies));
         session.setDependencyTraverser(
                 getRevapiDependencyTraverser(resolveProvidedDependencies, resolveTransitiveProvidedDependencies));
-
-        return new ArtifactResolver(repositorySystem, session, repos());
     }
 
     @Test
@@ -181,4 +186,61 @@ public class ArtifactResolverTest {
         assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("included"::equals).count());
         assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("optional"::equals).count());
     }
+
+    @Test
+    public void testCollectsMultipleRootsAsIfSeparately() throws RepositoryException {
+        ArtifactResolver resolver = getResolver(true, false);
+
+        CollectionResult res = resolver.collectTransitiveDeps("used-scopes:root:0", "ignored-scopes:root:0");
+
+        assertTrue(res.getFailures().isEmpty());
+        Set<Artifact> artifacts = res.getResolvedArtifacts();
+
+        // the top-level scopes must apply to the direct dependencies of each of the roots
+        assertEquals(6, artifacts.size());
+        assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("compile"::equals).count());
+        assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("deep-compile-compile"::equals).count());
+        assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("provided"::equals).count());
+        assertEquals(1,
+                artifacts.stream().map(Artifact::getArtifactId).filter("deep-provided-compile"::equals).count());
+        assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("included"::equals).count());
+        assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("optional"::equals).count());
+    }
+
+    @Test
+    public void testDoesNotReportRootsDependedOnByOtherRoots() throws RepositoryException {
+        ArtifactResolver resolver = getResolver(false, false);
+
+        CollectionResult res = resolver.collectTransitiveDeps("used-scopes:root:0", "used-scopes:compile:0");
+
+        assertTrue(res.getFailures().isEmpty());
+        Set<Artifact> artifacts = res.getResolvedArtifacts();
+
+        // "compile" is a dependency of "root" but because it is requested itself, it is not among the dependencies
+        assertEquals(1, artifacts.size());
+        assertEquals(1, artifacts.stream().map(Artifact::getArtifactId).filter("deep-compile-compile"::equals).count());
+    }
+
+    @Test
+    public void testReusesCollectedDependenciesWithSameScopes() throws RepositoryException {
+        RepositorySystem repositorySystem = newRepositorySystem();
+        DefaultRepositorySystemSession session = newRepositorySystemSession(repositorySystem, localRepo());
+        setScopes(session, false, false);
+
+        CollectionResult first = new ArtifactResolver(repositorySystem, session, repos())
+                .collectTransitiveDeps("used-scopes:root:0");
+        first.getResolvedArtifacts().clear();
+
+        CollectionResult second = new ArtifactResolver(repositorySystem, session, repos())
+                .collectTransitiveDeps("used-scopes:root:0");
+
+        assertEquals(2, second.getResolvedArtifacts().size());
+
+        setScopes(session, true, false);
+
+        CollectionResult third = new ArtifactResolver(repositorySystem, session, repos())
+                .collectTransitiveDeps("used-scopes:root:0");
+
+        assertEquals(4, third.getResolvedArtifacts().size());
+    }
 }
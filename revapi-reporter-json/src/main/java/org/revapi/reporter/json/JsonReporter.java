@@ -40,6 +40,8 @@ import org.revapi.reporter.file.AbstractFileReporter;
 public class JsonReporter extends AbstractFileReporter {
     private Set<Report> reports;
     private boolean prettyPrint;
+    private boolean streaming;
+    private JsonGenerator streamingGenerator;
 
     @Override
     protected void setOutput(PrintWriter wrt) {
@@ -61,26 +63,29 @@ public class JsonReporter extends AbstractFileReporter {
     public void initialize(@Nonnull AnalysisContext analysisContext) {
         super.initialize(analysisContext);
         prettyPrint = analysisContext.getConfigurationNode().path("indent").asBoolean(false);
+        streaming = analysisContext.getConfigurationNode().path("streaming").asBoolean(false);
         this.reports = new TreeSet<>(getReportsByElementOrderComparator());
+        this.streamingGenerator = null;
     }
 
     @Override
     protected void flushReports() {
         try {
+            if (streaming) {
+                // the reports have already been written as they came, we just need to close the array
+                JsonGenerator jsonGenerator = startStreaming();
+                streamingGenerator = null;
+                jsonGenerator.writeEndArray();
+                jsonGenerator.enable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                jsonGenerator.flush();
+                return;
+            }
+
             JsonGenerator jsonGenerator = createGenerator();
             jsonGenerator.writeStartArray();
-            reports.stream().flatMap(r -> {
-                String oldEl = r.getOldElement() == null ? null : r.getOldElement().getFullHumanReadableString();
-                String newEl = r.getNewElement() == null ? null : r.getNewElement().getFullHumanReadableString();
-
-                return r.getDifferences().stream().map(d -> new DifferenceWithElements(oldEl, newEl, d));
-            }).forEach(d -> {
-                try {
-                    writeDifference(jsonGenerator, d);
-                } catch (IOException e) {
-                    throw new IllegalStateException("Failed to write the output.", e);
-                }
-            });
+            for (Report r : reports) {
+                writeReport(jsonGenerator, r);
+            }
             jsonGenerator.writeEndArray();
             jsonGenerator.flush();
         } catch (IOException e) {
@@ -90,7 +95,39 @@ public class JsonReporter extends AbstractFileReporter {
 
     @Override
     protected void doReport(Report report) {
-        reports.add(report);
+        if (!streaming) {
+            reports.add(report);
+            return;
+        }
+
+        try {
+            JsonGenerator jsonGenerator = startStreaming();
+            writeReport(jsonGenerator, report);
+            // only hand the data over to the output, which does its own buffering, instead of flushing it all the way
+            // down after each report
+            jsonGenerator.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write the output.", e);
+        }
+    }
+
+    private JsonGenerator startStreaming() throws IOException {
+        if (streamingGenerator == null) {
+            streamingGenerator = createGenerator();
+            streamingGenerator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            streamingGenerator.writeStartArray();
+        }
+
+        return streamingGenerator;
+    }
+
+    private static void writeReport(JsonGenerator gen, Report r) throws IOException {
+        String oldEl = r.getOldElement() == null ? null : r.getOldElement().getFullHumanReadableString();
+        String newEl = r.getNewElement() == null ? null : r.getNewElement().getFullHumanReadableString();
+
+        for (Difference d : r.getDifferences()) {
+            writeDifference(gen, new DifferenceWithElements(oldEl, newEl, d));
+        }
     }
 
     private static void writeDifference(JsonGenerator gen, DifferenceWithElements de) throws IOException {
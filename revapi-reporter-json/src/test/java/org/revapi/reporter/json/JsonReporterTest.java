@@ -116,6 +116,43 @@ public class JsonReporterTest {
         assertEquals("at2val", attachment.get("value").asText());
     }
 
+    @Test
+    public void testReportsStreamed() throws Exception {
+        JsonReporter reporter = new JsonReporter();
+
+        Revapi r = new Revapi(PipelineConfiguration.builder().withReporters(JsonReporter.class).build());
+
+        AnalysisContext ctx = AnalysisContext.builder(r)
+                .withOldAPI(API.of(new FileArchive(new File("old-dummy.archive"))).build())
+                .withNewAPI(API.of(new FileArchive(new File("new-dummy.archive"))).build()).build();
+
+        AnalysisContext reporterCtx = r.prepareAnalysis(ctx).getFirstConfigurationOrNull(JsonReporter.class);
+
+        reporter.initialize(reporterCtx.copyWithConfiguration(JSONUtil.parse("{\"streaming\": true}")));
+
+        StringWriter out = new StringWriter();
+        PrintWriter wrt = new PrintWriter(out);
+
+        reporter.setOutput(wrt);
+
+        List<Report> reports = buildReports();
+        reporter.report(reports.get(0));
+
+        wrt.flush();
+        assertNotEquals(-1, out.toString().indexOf("code2"));
+
+        reporter.report(reports.get(1));
+
+        reporter.close();
+
+        JsonNode diffs = JSONUtil.parse(out.toString());
+
+        // the reports are written in the order they were received
+        assertEquals(2, diffs.size());
+        assertEquals("code2", diffs.get(0).get("code").asText());
+        assertEquals("code1", diffs.get(1).get("code").asText());
+    }
+
     @Test
     public void testIndentationApplied() throws Exception {
         JsonReporter reporter = new JsonReporter();
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.standalone;
+
+import static java.util.Collections.emptyList;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.revapi.Revapi;
+import org.revapi.base.FileArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single analysis requested on the command line. The job can either be run in the current process or sent to the
+ * {@link Daemon daemon} as JSON.
+ *
+ * @author Lukas Krejci
+ */
+final class AnalysisJob {
+    private static final Logger LOG = LoggerFactory.getLogger(AnalysisJob.class);
+
+    String[] extensionGAVs;
+    String[] oldArchivePaths;
+    String[] oldGavs;
+    String[] newArchivePaths;
+    String[] newGavs;
+    String[] oldSupplementaryArchivePaths;
+    String[] newSupplementaryArchivePaths;
+    Map<String, String> additionalConfigOptions = new HashMap<>();
+    String[] configFiles;
+    File cacheDir;
+    String[] remoteRepositoryUrls;
+
+    private List<FileArchive> oldArchives;
+    private List<FileArchive> newArchives;
+    private List<FileArchive> oldSupplementaryArchives;
+    private List<FileArchive> newSupplementaryArchives;
+
+    boolean isComplete() {
+        return extensionGAVs != null && (oldArchivePaths != null || oldGavs != null)
+                && (newArchivePaths != null || newGavs != null);
+    }
+
+    List<RemoteRepository> getRemoteRepositories() {
+        return Collections.unmodifiableList(
+                Main.remoteRepositories(remoteRepositoryUrls == null ? new String[0] : remoteRepositoryUrls));
+    }
+
+    /**
+     * @return the key identifying the set of extensions the job needs. The jobs with the same key can be analyzed using
+     *         the same {@link Revapi} instance.
+     */
+    String getExtensionsKey() {
+        String[] gavs = extensionGAVs.clone();
+        Arrays.sort(gavs);
+        String[] repos = remoteRepositoryUrls == null ? new String[0] : remoteRepositoryUrls;
+        return cacheDir.getAbsolutePath() + "|" + String.join(",", gavs) + "|" + String.join(",", repos);
+    }
+
+    /**
+     * Locates the archives to analyze, possibly downloading them.
+     *
+     * @throws IllegalArgumentException
+     *             if some of the archives cannot be found
+     */
+    void resolveArchives() {
+        List<RemoteRepository> remoteRepositories = getRemoteRepositories();
+
+        LOG.info("Downloading checked archives");
+
+        if (oldArchivePaths == null) {
+            Main.ArchivesAndSupplementaryArchives res = Main.convertGavs(oldGavs, "Old API Maven artifact", cacheDir,
+                    remoteRepositories);
+            oldArchives = res.archives;
+            oldSupplementaryArchives = res.supplementaryArchives;
+        } else {
+            oldArchives = Main.convertPaths(oldArchivePaths, "Old API files");
+            oldSupplementaryArchives = oldSupplementaryArchivePaths == null ? emptyList()
+                    : Main.convertPaths(oldSupplementaryArchivePaths, "Old API supplementary files");
+        }
+
+        if (newArchivePaths == null) {
+            Main.ArchivesAndSupplementaryArchives res = Main.convertGavs(newGavs, "New API Maven artifact", cacheDir,
+                    remoteRepositories);
+            newArchives = res.archives;
+            newSupplementaryArchives = res.supplementaryArchives;
+        } else {
+            newArchives = Main.convertPaths(newArchivePaths, "New API files");
+            newSupplementaryArchives = newSupplementaryArchivePaths == null ? emptyList()
+                    : Main.convertPaths(newSupplementaryArchivePaths, "New API supplementary files");
+        }
+    }
+
+    /**
+     * Runs the analysis of the {@link #resolveArchives() resolved archives}.
+     *
+     * @param revapi
+     *            the revapi instance with the extensions loaded
+     * @param contextData
+     *            the additional data to pass to the extensions through the analysis context
+     */
+    void analyze(Revapi revapi, Map<String, Object> contextData) throws Exception {
+        Main.analyze(revapi, oldArchives, oldSupplementaryArchives, newArchives, newSupplementaryArchives, configFiles,
+                additionalConfigOptions, contextData);
+    }
+
+    /**
+     * Serializes the job so that it can be sent to the daemon. The paths are made absolute, because the daemon can run
+     * in a different working directory.
+     */
+    ObjectNode toJSON() {
+        ObjectNode ret = JsonNodeFactory.instance.objectNode();
+        putArray(ret, "extensions", extensionGAVs, false);
+        putArray(ret, "old", oldArchivePaths, true);
+        putArray(ret, "oldGavs", oldGavs, false);
+        putArray(ret, "oldSupplementary", oldSupplementaryArchivePaths, true);
+        putArray(ret, "new", newArchivePaths, true);
+        putArray(ret, "newGavs", newGavs, false);
+        putArray(ret, "newSupplementary", newSupplementaryArchivePaths, true);
+        putArray(ret, "configFiles", configFiles, true);
+        putArray(ret, "remoteRepositories", remoteRepositoryUrls, false);
+        ret.put("cacheDir", cacheDir.getAbsolutePath());
+
+        ObjectNode config = ret.putObject("config");
+        additionalConfigOptions.forEach(config::put);
+
+        return ret;
+    }
+
+    static AnalysisJob fromJSON(JsonNode json) {
+        AnalysisJob ret = new AnalysisJob();
+        ret.extensionGAVs = getArray(json, "extensions");
+        ret.oldArchivePaths = getArray(json, "old");
+        ret.oldGavs = getArray(json, "oldGavs");
+        ret.oldSupplementaryArchivePaths = getArray(json, "oldSupplementary");
+        ret.newArchivePaths = getArray(json, "new");
+        ret.newGavs = getArray(json, "newGavs");
+        ret.newSupplementaryArchivePaths = getArray(json, "newSupplementary");
+        ret.configFiles = getArray(json, "configFiles");
+        ret.remoteRepositoryUrls = getArray(json, "remoteRepositories");
+        ret.cacheDir = new File(json.path("cacheDir").asText());
+
+        Iterator<Map.Entry<String, JsonNode>> it = json.path("config").fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> e = it.next();
+            ret.additionalConfigOptions.put(e.getKey(), e.getValue().isNull() ? null : e.getValue().asText());
+        }
+
+        if (!ret.isComplete()) {
+            throw new IllegalArgumentException("The extensions and the old and new API need to be specified.");
+        }
+
+        return ret;
+    }
+
+    private static void putArray(ObjectNode node, String name, @Nullable String[] values, boolean paths) {
+        if (values == null) {
+            return;
+        }
+
+        ArrayNode array = node.putArray(name);
+        for (String v : values) {
+            array.add(paths ? new File(v).getAbsolutePath() : v);
+        }
+    }
+
+    @Nullable
+    private static String[] getArray(JsonNode node, String name) {
+        JsonNode array = node.get(name);
+        if (array == null || !array.isArray()) {
+            return null;
+        }
+
+        List<String> ret = new ArrayList<>(array.size());
+        array.forEach(n -> ret.add(n.asText()));
+        return ret.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.standalone;
+
+import static java.util.Collections.singletonMap;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.revapi.Revapi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the analyses requested by the {@link AnalysisJob jobs} sent to it over a socket on the loopback interface. The
+ * extensions are loaded only once for each distinct set of extensions, and the analyses share the compilation resources
+ * of the java extension, so the analyses run in the daemon don't pay for the JVM startup and the loading of the
+ * extensions.
+ *
+ * <p>
+ * The protocol is a single line of JSON in each direction. The client sends the {@link AnalysisJob#toJSON() job}
+ * together with the {@code token} and the daemon responds with an object with the {@code success} boolean, the
+ * {@code out} and {@code err} strings with what the analysis wrote to the standard output and error (i.e. the output of
+ * the reporters and the log of the analysis) and, if the analysis failed, the {@code failure} string. A request with
+ * {@code "shutdown": true} stops the daemon.
+ *
+ * <p>
+ * Because the daemon loads the extensions and reads the files the clients ask for, only the clients that can read the
+ * token file the daemon creates in its cache directory are served. The token file is readable only by the owner of the
+ * daemon process (on the file systems supporting the POSIX permissions) and is removed when the daemon is closed.
+ *
+ * <p>
+ * At most the configured number of analyses run concurrently, the rest of the requests wait for their turn. At most
+ * {@value #MAX_LOADED_EXTENSION_SETS} sets of extensions are kept loaded, the least recently used ones are forgotten.
+ *
+ * @author Lukas Krejci
+ */
+final class Daemon implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(Daemon.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final int MAX_LOADED_EXTENSION_SETS = 8;
+
+    /**
+     * Makes the java extension share the compiler and its resources between the analyses. See
+     * {@code org.revapi.java.compilation.CompilationPool}.
+     */
+    private static final Map<String, Object> CONTEXT_DATA = singletonMap("org.revapi.java.compilationPool", true);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final ExtensionsLoader extensionsLoader;
+    private final Path tokenFile;
+    private final byte[] token;
+    private final Map<String, Revapi> revapis = new LinkedHashMap<String, Revapi>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Revapi> eldest) {
+            return size() > MAX_LOADED_EXTENSION_SETS;
+        }
+    };
+
+    Daemon(int port, int threads, File cacheDir) throws IOException {
+        this(port, threads, cacheDir,
+                job -> Main.loadRevapi(job.cacheDir, job.extensionGAVs, job.getRemoteRepositories()));
+    }
+
+    Daemon(int port, int threads, File cacheDir, ExtensionsLoader extensionsLoader) throws IOException {
+        this.extensionsLoader = extensionsLoader;
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        try {
+            byte[] tokenBytes = new byte[32];
+            new SecureRandom().nextBytes(tokenBytes);
+            token = toHex(tokenBytes).getBytes(StandardCharsets.UTF_8);
+            tokenFile = tokenFile(cacheDir, serverSocket.getLocalPort());
+            writeToken(tokenFile, token);
+        } catch (IOException | RuntimeException e) {
+            serverSocket.close();
+            throw e;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "Revapi Daemon Analysis Thread #" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sends the job to the daemon listening on the provided port and waits for the analysis to finish.
+     *
+     * @param port
+     *            the port the daemon listens on
+     * @param cacheDir
+     *            the cache directory of the daemon, containing its token file
+     * @param request
+     *            the request to send
+     *
+     * @return the response of the daemon
+     *
+     * @throws java.net.ConnectException
+     *             if there is no daemon listening on the port or its token cannot be found in the cache directory
+     */
+    static JsonNode submit(int port, File cacheDir, JsonNode request) throws IOException {
+        Path tokenFile = tokenFile(cacheDir, port);
+        String token;
+        try {
+            token = new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            throw new ConnectException("There is no token of a daemon listening on port " + port + " in "
+                    + cacheDir.getAbsolutePath() + ".");
+        }
+
+        ObjectNode authenticated = request.deepCopy();
+        authenticated.put("token", token);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            out.write(MAPPER.writeValueAsString(authenticated));
+            out.write('\n');
+            out.flush();
+
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String response = in.readLine();
+            if (response == null) {
+                throw new IOException("The daemon closed the connection without a response.");
+            }
+
+            return MAPPER.readTree(response);
+        }
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts the requests until the daemon is {@link #close() closed}.
+     */
+    void serve() throws IOException {
+        LOG.info("Revapi daemon listening on " + serverSocket.getLocalSocketAddress());
+
+        PrintStream origOut = System.out;
+        PrintStream origErr = System.err;
+        System.setOut(CapturingOutputStream.capture(origOut, true));
+        System.setErr(CapturingOutputStream.capture(origErr, false));
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException e) {
+                    if (serverSocket.isClosed()) {
+                        break;
+                    }
+                    throw e;
+                }
+
+                executor.execute(() -> handle(socket));
+            }
+        } finally {
+            System.setOut(origOut);
+            System.setErr(origErr);
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            String request = in.readLine();
+            if (request == null) {
+                return;
+            }
+
+            ObjectNode response = process(MAPPER.readTree(request));
+
+            Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8);
+            out.write(MAPPER.writeValueAsString(response));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            LOG.warn("Failed to process a request.", e);
+        }
+    }
+
+    private ObjectNode process(JsonNode request) {
+        ObjectNode response = JsonNodeFactory.instance.objectNode();
+
+        if (!MessageDigest.isEqual(token, request.path("token").asText().getBytes(StandardCharsets.UTF_8))) {
+            LOG.warn("Refusing a request with an invalid token.");
+            response.put("success", false);
+            response.put("failure", "Invalid token.");
+            return response;
+        }
+
+        if (request.path("shutdown").asBoolean()) {
+            LOG.info("Shutting down the Revapi daemon");
+            close();
+            response.put("success", true);
+            return response;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        CapturingOutputStream.start(out, err);
+        try {
+            AnalysisJob job = AnalysisJob.fromJSON(request);
+            job.resolveArchives();
+            job.analyze(getRevapi(job), CONTEXT_DATA);
+            response.put("success", true);
+        } catch (Throwable e) {
+            LOG.warn("Analysis failed.", e);
+            StringWriter failure = new StringWriter();
+            e.printStackTrace(new PrintWriter(failure));
+            response.put("success", false);
+            response.put("failure", failure.toString());
+        } finally {
+            CapturingOutputStream.stop();
+        }
+
+        response.put("out", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        response.put("err", new String(err.toByteArray(), StandardCharsets.UTF_8));
+
+        return response;
+    }
+
+    private synchronized Revapi getRevapi(AnalysisJob job) throws Exception {
+        String key = job.getExtensionsKey();
+        Revapi ret = revapis.get(key);
+        if (ret == null) {
+            ret = extensionsLoader.load(job);
+            revapis.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Stops accepting new requests and lets the running analyses finish.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close the server socket.", e);
+        }
+
+        try {
+            Files.deleteIfExists(tokenFile);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete the token file " + tokenFile + ".", e);
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the running analyses to finish after the daemon has been {@link #close() closed}.
+     */
+    void awaitTermination() throws InterruptedException {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    private static Path tokenFile(File cacheDir, int port) {
+        return cacheDir.toPath().resolve("daemon-" + port + ".token");
+    }
+
+    private static void writeToken(Path tokenFile, byte[] token) throws IOException {
+        Files.createDirectories(tokenFile.getParent());
+
+        // a stale token of a daemon that wasn't closed properly
+        Files.deleteIfExists(tokenFile);
+
+        try {
+            if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.createFile(tokenFile,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createFile(tokenFile);
+                File f = tokenFile.toFile();
+                if (!f.setReadable(false, false) || !f.setReadable(true, true)) {
+                    LOG.warn("Failed to make the token file " + tokenFile + " readable only by its owner.");
+                }
+            }
+        } catch (FileAlreadyExistsException e) {
+            throw new IOException("Another daemon created its token file " + tokenFile + " concurrently.", e);
+        }
+
+        Files.write(tokenFile, token);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Loads the extensions the job needs.
+     */
+    @FunctionalInterface
+    interface ExtensionsLoader {
+        Revapi load(AnalysisJob job) throws Exception;
+    }
+
+    /**
+     * Replaces the standard output or error of the daemon and sends what the analysis threads write to it to the
+     * streams of their analyses. The reporters initialize their output and write the reports in the thread that runs
+     * the analysis, so this captures the reports of each analysis separately. The output of the other threads goes to
+     * the original stream.
+     */
+    private static final class CapturingOutputStream extends OutputStream {
+        private static final ThreadLocal<OutputStream> OUT = new ThreadLocal<>();
+        private static final ThreadLocal<OutputStream> ERR = new ThreadLocal<>();
+
+        private final OutputStream original;
+        private final ThreadLocal<OutputStream> target;
+
+        private CapturingOutputStream(OutputStream original, ThreadLocal<OutputStream> target) {
+            this.original = original;
+            this.target = target;
+        }
+
+        static PrintStream capture(PrintStream original, boolean out) {
+            try {
+                return new PrintStream(new CapturingOutputStream(original, out ? OUT : ERR), true,
+                        StandardCharsets.UTF_8.name());
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException("UTF-8 not supported.", e);
+            }
+        }
+
+        static void start(OutputStream out, OutputStream err) {
+            OUT.set(out);
+            ERR.set(err);
+        }
+
+        static void stop() {
+            OUT.remove();
+            ERR.remove();
+        }
+
+        private OutputStream current() {
+            OutputStream ret = target.get();
+            return ret == null ? original : ret;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            current().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            current().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            current().flush();
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package org.revapi.standalone;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toSet;
 
 import static org.revapi.maven.utils.ArtifactResolver.getRevapiDependencySelector;
@@ -25,9 +24,10 @@ import static org.revapi.maven.utils.ArtifactResolver.getRevapiDependencyTravers
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -76,6 +76,11 @@ public final class Main {
 
     private static final String DEFAULT_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
 
+    // the values of the long-only options
+    private static final int OPT_DAEMON = 1000;
+    private static final int OPT_DAEMON_THREADS = 1001;
+    private static final int OPT_USE_DAEMON = 1002;
+
     private static void usage(@Nullable String progName) {
         if (progName == null) {
             progName = "revapi.(sh|bat)";
@@ -87,7 +92,8 @@ public final class Main {
         }
 
         System.out.println(progName
-                + " [-u|-h] -e <GAV>[,<GAV>]* -o <FILE>[,<FILE>]* -n <FILE>[,<FILE>]* [-s <FILE>[,<FILE>]*] [-t <FILE>[,<FILE>]*] [-D<CONFIG_OPTION>=<VALUE>]* [-c <FILE>[,<FILE>]*] [-r <DIR>]");
+                + " [-u|-h] -e <GAV>[,<GAV>]* -o <FILE>[,<FILE>]* -n <FILE>[,<FILE>]* [-s <FILE>[,<FILE>]*] [-t <FILE>[,<FILE>]*] [-D<CONFIG_OPTION>=<VALUE>]* [-c <FILE>[,<FILE>]*] [-r <DIR>] [--use-daemon=<PORT>]");
+        System.out.println(progName + " --daemon=<PORT> [--daemon-threads=<N>] [-d <DIR>]");
         System.out.println();
         System.out.println(pad + " -u");
         System.out.println(pad + " -h");
@@ -129,6 +135,19 @@ public final class Main {
         System.out.println(pad + " --remote-repositories=<URL>[,<URL>]*");
         System.out.println(pad + "    The url of the remote Maven repository to use for artifact resolution. "
                 + "Defaults to Maven Central (" + DEFAULT_REPOSITORY_URL + ").");
+        System.out.println(pad + " --daemon=<PORT>");
+        System.out.println(pad
+                + "    Starts a daemon listening on the given port of the loopback interface that runs the"
+                + " analyses requested using --use-daemon. The daemon keeps the loaded extensions between the analyses"
+                + " and serves only the clients that can read the token file it creates in the cache directory.");
+        System.out.println(pad + " --daemon-threads=<N>");
+        System.out
+                .println(pad + "    The maximum number of analyses the daemon runs concurrently. Defaults to the number"
+                        + " of processors.");
+        System.out.println(pad + " --use-daemon=<PORT>");
+        System.out.println(pad + "    Runs the analysis in the daemon listening on the given port. If there is no such"
+                + " daemon, the analysis runs in this process. The daemon is looked up using its token file in the"
+                + " cache directory, so the cache directory must be the same as the one of the daemon.");
         System.out.println();
         System.out.println("You can specify the old API either using -o and -s where you specify the filesystem paths"
                 + " to the archives and supplementary archives respectively or you can use -a to specify the GAVs of the"
@@ -152,19 +171,13 @@ public final class Main {
         String[] realArgs = new String[args.length - 2];
         System.arraycopy(args, 2, realArgs, 0, realArgs.length);
 
-        String[] extensionGAVs = null;
-        String[] oldArchivePaths = null;
-        String[] oldGavs = null;
-        String[] newArchivePaths = null;
-        String[] newGavs = null;
-        String[] oldSupplementaryArchivePaths = null;
-        String[] newSupplementaryArchivePaths = null;
-        Map<String, String> additionalConfigOptions = new HashMap<>();
-        String[] configFiles = null;
-        File cacheDir = new File(baseDir, "cache");
-        String[] remoteRepositoryUrls = null;
-
-        LongOpt[] longOpts = new LongOpt[13];
+        AnalysisJob job = new AnalysisJob();
+        job.cacheDir = new File(baseDir, "cache");
+        Integer daemonPort = null;
+        int daemonThreads = Runtime.getRuntime().availableProcessors();
+        Integer useDaemonPort = null;
+
+        LongOpt[] longOpts = new LongOpt[16];
         longOpts[0] = new LongOpt("usage", LongOpt.NO_ARGUMENT, null, 'u');
         longOpts[1] = new LongOpt("help", LongOpt.NO_ARGUMENT, null, 'h');
         longOpts[2] = new LongOpt("extensions", LongOpt.REQUIRED_ARGUMENT, null, 'e');
@@ -178,6 +191,9 @@ public final class Main {
         longOpts[10] = new LongOpt("old-gavs", LongOpt.REQUIRED_ARGUMENT, null, 'a');
         longOpts[11] = new LongOpt("new-gavs", LongOpt.REQUIRED_ARGUMENT, null, 'b');
         longOpts[12] = new LongOpt("remote-repositories", LongOpt.REQUIRED_ARGUMENT, null, 'r');
+        longOpts[13] = new LongOpt("daemon", LongOpt.REQUIRED_ARGUMENT, null, OPT_DAEMON);
+        longOpts[14] = new LongOpt("daemon-threads", LongOpt.REQUIRED_ARGUMENT, null, OPT_DAEMON_THREADS);
+        longOpts[15] = new LongOpt("use-daemon", LongOpt.REQUIRED_ARGUMENT, null, OPT_USE_DAEMON);
 
         Getopt opts = new Getopt(scriptFileName, realArgs, "uhe:o:n:s:t:D:c:d:a:b:r:", longOpts);
         int c;
@@ -188,38 +204,47 @@ public final class Main {
                 usage(scriptFileName);
                 System.exit(0);
             case 'e':
-                extensionGAVs = opts.getOptarg().split(",");
+                job.extensionGAVs = opts.getOptarg().split(",");
                 break;
             case 'o':
-                oldArchivePaths = opts.getOptarg().split(",");
+                job.oldArchivePaths = opts.getOptarg().split(",");
                 break;
             case 'n':
-                newArchivePaths = opts.getOptarg().split(",");
+                job.newArchivePaths = opts.getOptarg().split(",");
                 break;
             case 's':
-                oldSupplementaryArchivePaths = opts.getOptarg().split(",");
+                job.oldSupplementaryArchivePaths = opts.getOptarg().split(",");
                 break;
             case 't':
-                newSupplementaryArchivePaths = opts.getOptarg().split(",");
+                job.newSupplementaryArchivePaths = opts.getOptarg().split(",");
                 break;
             case 'c':
-                configFiles = opts.getOptarg().split(",");
+                job.configFiles = opts.getOptarg().split(",");
                 break;
             case 'D':
                 String[] keyValue = opts.getOptarg().split("=");
-                additionalConfigOptions.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : null);
+                job.additionalConfigOptions.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : null);
                 break;
             case 'd':
-                cacheDir = new File(opts.getOptarg());
+                job.cacheDir = new File(opts.getOptarg());
                 break;
             case 'a':
-                oldGavs = opts.getOptarg().split(",");
+                job.oldGavs = opts.getOptarg().split(",");
                 break;
             case 'b':
-                newGavs = opts.getOptarg().split(",");
+                job.newGavs = opts.getOptarg().split(",");
                 break;
             case 'r':
-                remoteRepositoryUrls = opts.getOptarg().split(",");
+                job.remoteRepositoryUrls = opts.getOptarg().split(",");
+                break;
+            case OPT_DAEMON:
+                daemonPort = Integer.parseInt(opts.getOptarg());
+                break;
+            case OPT_DAEMON_THREADS:
+                daemonThreads = Integer.parseInt(opts.getOptarg());
+                break;
+            case OPT_USE_DAEMON:
+                useDaemonPort = Integer.parseInt(opts.getOptarg());
                 break;
             case ':':
                 System.err.println("Argument required for option " + (char) opts.getOptopt());
@@ -235,48 +260,29 @@ public final class Main {
             }
         }
 
-        if (extensionGAVs == null || oldArchivePaths == null && oldGavs == null
-                || newArchivePaths == null && newGavs == null) {
+        if (daemonPort != null) {
+            try (Daemon daemon = new Daemon(daemonPort, daemonThreads, job.cacheDir)) {
+                daemon.serve();
+                daemon.awaitTermination();
+            }
+
+            System.exit(0);
+        }
 
+        if (!job.isComplete()) {
             usage(scriptFileName);
             System.exit(1);
         }
 
-        final List<RemoteRepository> remoteRepositories = Collections.unmodifiableList(
-                remoteRepositories(remoteRepositoryUrls == null ? new String[0] : remoteRepositoryUrls));
-
-        List<FileArchive> oldArchives = null;
-        List<FileArchive> newArchives = null;
-        List<FileArchive> oldSupplementaryArchives = null;
-        List<FileArchive> newSupplementaryArchives = null;
-
-        LOG.info("Downloading checked archives");
-
-        if (oldArchivePaths == null) {
-            ArchivesAndSupplementaryArchives res = convertGavs(oldGavs, "Old API Maven artifact", cacheDir,
-                    remoteRepositories);
-            oldArchives = res.archives;
-            oldSupplementaryArchives = res.supplementaryArchives;
-        } else {
-            oldArchives = convertPaths(oldArchivePaths, "Old API files");
-            oldSupplementaryArchives = oldSupplementaryArchivePaths == null ? emptyList()
-                    : convertPaths(oldSupplementaryArchivePaths, "Old API supplementary files");
+        if (useDaemonPort != null && analyzeInDaemon(useDaemonPort, job)) {
+            System.exit(0);
         }
 
-        if (newArchivePaths == null) {
-            ArchivesAndSupplementaryArchives res = convertGavs(newGavs, "New API Maven artifact", cacheDir,
-                    remoteRepositories);
-            newArchives = res.archives;
-            newSupplementaryArchives = res.supplementaryArchives;
-        } else {
-            newArchives = convertPaths(newArchivePaths, "New API files");
-            newSupplementaryArchives = newSupplementaryArchivePaths == null ? emptyList()
-                    : convertPaths(newSupplementaryArchivePaths, "New API supplementary files");
-        }
+        job.resolveArchives();
 
         try {
-            run(cacheDir, extensionGAVs, oldArchives, oldSupplementaryArchives, newArchives, newSupplementaryArchives,
-                    configFiles, additionalConfigOptions, remoteRepositories);
+            job.analyze(loadRevapi(job.cacheDir, job.extensionGAVs, job.getRemoteRepositories()),
+                    Collections.emptyMap());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -284,11 +290,38 @@ public final class Main {
         System.exit(0);
     }
 
+    /**
+     * Runs the analysis of the job in the daemon listening on the provided port and prints the output of the analysis
+     * as if it ran in this process.
+     *
+     * @return false if there is no daemon listening on the port, true if the daemon ran the analysis
+     */
+    static boolean analyzeInDaemon(int port, AnalysisJob job) throws IOException {
+        JsonNode response;
+        try {
+            response = Daemon.submit(port, job.cacheDir, job.toJSON());
+        } catch (ConnectException e) {
+            LOG.info("No Revapi daemon is listening on port " + port + ". Running the analysis in this process.");
+            return false;
+        }
+
+        System.out.print(response.path("out").asText());
+        System.out.flush();
+        System.err.print(response.path("err").asText());
+        if (!response.path("success").asBoolean()) {
+            System.err.println(response.path("failure").asText());
+        }
+        System.err.flush();
+
+        return true;
+    }
+
+    /**
+     * Downloads the extensions and creates the Revapi instance with them.
+     */
     @SuppressWarnings("ConstantConditions")
-    private static void run(File cacheDir, String[] extensionGAVs, List<FileArchive> oldArchives,
-            List<FileArchive> oldSupplementaryArchives, List<FileArchive> newArchives,
-            List<FileArchive> newSupplementaryArchives, String[] configFiles, Map<String, String> additionalConfig,
-            List<RemoteRepository> remoteRepositories) throws Exception {
+    static Revapi loadRevapi(File cacheDir, String[] extensionGAVs, List<RemoteRepository> remoteRepositories)
+            throws Exception {
 
         ProjectModule.Builder bld = ProjectModule.build();
         bld.localRepository(cacheDir);
@@ -355,12 +388,16 @@ public final class Main {
 
         Module project = bld.create();
 
-        Revapi revapi = new Revapi(PipelineConfiguration.builder().withAllExtensionsFrom(project.getClassLoader())
+        return new Revapi(PipelineConfiguration.builder().withAllExtensionsFrom(project.getClassLoader())
                 .withAllExtensionsFromThreadContextClassLoader().build());
+    }
 
+    static void analyze(Revapi revapi, List<FileArchive> oldArchives, List<FileArchive> oldSupplementaryArchives,
+            List<FileArchive> newArchives, List<FileArchive> newSupplementaryArchives, String[] configFiles,
+            Map<String, String> additionalConfig, Map<String, Object> contextData) throws Exception {
         AnalysisContext.Builder ctxBld = AnalysisContext.builder(revapi)
                 .withOldAPI(API.of(oldArchives).supportedBy(oldSupplementaryArchives).build())
-                .withNewAPI(API.of(newArchives).supportedBy(newSupplementaryArchives).build());
+                .withNewAPI(API.of(newArchives).supportedBy(newSupplementaryArchives).build()).withData(contextData);
 
         if (configFiles != null) {
             for (String cf : configFiles) {
@@ -415,7 +452,7 @@ public final class Main {
         }
     }
 
-    private static List<FileArchive> convertPaths(String[] paths, String errorMessagePrefix) {
+    static List<FileArchive> convertPaths(String[] paths, String errorMessagePrefix) {
         List<FileArchive> archives = new ArrayList<>(paths.length);
         for (String path : paths) {
             File f = new File(path);
@@ -426,8 +463,8 @@ public final class Main {
         return archives;
     }
 
-    private static ArchivesAndSupplementaryArchives convertGavs(String[] gavs, String errorMessagePrefix,
-            File localRepo, List<RemoteRepository> remoteRepositories) {
+    static ArchivesAndSupplementaryArchives convertGavs(String[] gavs, String errorMessagePrefix, File localRepo,
+            List<RemoteRepository> remoteRepositories) {
         RepositorySystem repositorySystem = MavenBootstrap.newRepositorySystem();
         DefaultRepositorySystemSession session = MavenBootstrap.newRepositorySystemSession(repositorySystem,
                 new LocalRepository(localRepo));
@@ -476,7 +513,7 @@ public final class Main {
         return new ArchivesAndSupplementaryArchives(archives, supplementaryArchives);
     }
 
-    private static List<RemoteRepository> remoteRepositories(String[] customRepositoryUrls) {
+    static List<RemoteRepository> remoteRepositories(String[] customRepositoryUrls) {
         List<RemoteRepository> remoteRepositories = new ArrayList<>();
 
         for (int i = 0; i < customRepositoryUrls.length; i++) {
@@ -514,7 +551,7 @@ public final class Main {
         }
     }
 
-    private static class ArchivesAndSupplementaryArchives {
+    static class ArchivesAndSupplementaryArchives {
         final List<FileArchive> archives;
         final List<FileArchive> supplementaryArchives;
 
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.standalone;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+class AnalysisJobTest {
+
+    @Test
+    void testJSONRoundTrip() {
+        AnalysisJob job = new AnalysisJob();
+        job.extensionGAVs = new String[] { "g:a:1", "g:b:2" };
+        job.oldArchivePaths = new String[] { "old.jar", "/abs/old2.jar" };
+        job.oldSupplementaryArchivePaths = new String[] { "lib/old-dep.jar" };
+        job.newGavs = new String[] { "g:new:2" };
+        job.configFiles = new String[] { "config.json" };
+        job.remoteRepositoryUrls = new String[] { "https://repo.example.org" };
+        job.cacheDir = new File("cache");
+        job.additionalConfigOptions.put("revapi.java.checks.missingClasses.behavior", "report");
+        job.additionalConfigOptions.put("revapi.filter.elements.exclude", "[a, b]");
+        job.additionalConfigOptions.put("flag", null);
+
+        AnalysisJob copy = AnalysisJob.fromJSON(job.toJSON());
+
+        assertArrayEquals(job.extensionGAVs, copy.extensionGAVs);
+        assertArrayEquals(
+                new String[] { new File("old.jar").getAbsolutePath(), new File("/abs/old2.jar").getAbsolutePath() },
+                copy.oldArchivePaths);
+        assertArrayEquals(new String[] { new File("lib/old-dep.jar").getAbsolutePath() },
+                copy.oldSupplementaryArchivePaths);
+        assertNull(copy.oldGavs);
+        assertNull(copy.newArchivePaths);
+        assertNull(copy.newSupplementaryArchivePaths);
+        assertArrayEquals(job.newGavs, copy.newGavs);
+        assertArrayEquals(new String[] { new File("config.json").getAbsolutePath() }, copy.configFiles);
+        assertArrayEquals(job.remoteRepositoryUrls, copy.remoteRepositoryUrls);
+        assertEquals(new File("cache").getAbsoluteFile(), copy.cacheDir);
+        assertEquals(job.additionalConfigOptions, copy.additionalConfigOptions);
+        assertEquals(job.getExtensionsKey(), copy.getExtensionsKey());
+    }
+
+    @Test
+    void testIncompleteJobRejected() {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        json.putArray("extensions").add("g:a:1");
+        json.putArray("old").add("old.jar");
+        json.put("cacheDir", "cache");
+
+        assertThrows(IllegalArgumentException.class, () -> AnalysisJob.fromJSON(json));
+    }
+}
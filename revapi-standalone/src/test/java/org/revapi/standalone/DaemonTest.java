@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.standalone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.DifferenceAnalyzer;
+import org.revapi.PipelineConfiguration;
+import org.revapi.Report;
+import org.revapi.Reporter;
+import org.revapi.Revapi;
+import org.revapi.base.BaseApiAnalyzer;
+import org.revapi.base.BaseArchiveAnalyzer;
+import org.revapi.base.BaseDifferenceAnalyzer;
+import org.revapi.base.BaseElement;
+import org.revapi.base.BaseElementForest;
+
+class DaemonTest {
+
+    @TempDir
+    Path tmp;
+
+    private File cacheDir;
+    private AtomicInteger loads;
+    private Daemon daemon;
+    private Thread serverThread;
+
+    @BeforeEach
+    void startDaemon() throws IOException {
+        cacheDir = tmp.resolve("cache").toFile();
+        loads = new AtomicInteger();
+        daemon = new Daemon(0, 2, cacheDir, job -> {
+            loads.incrementAndGet();
+            return new Revapi(PipelineConfiguration.builder().withAnalyzers(EmptyAnalyzer.class)
+                    .withReporters(PrintingReporter.class).build());
+        });
+
+        serverThread = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        serverThread.start();
+    }
+
+    @AfterEach
+    void stopDaemon() throws InterruptedException {
+        daemon.close();
+        daemon.awaitTermination();
+        serverThread.join();
+    }
+
+    @Test
+    void testAnalysisOutputSentBack() throws Exception {
+        AnalysisJob job = job("g:ext:1");
+
+        JsonNode response = Daemon.submit(daemon.getPort(), cacheDir, job.toJSON());
+
+        assertTrue(response.path("success").asBoolean(), response.path("failure").asText());
+        assertTrue(response.path("out").asText().contains(PrintingReporter.OUTPUT));
+        assertFalse(response.path("err").asText().contains(PrintingReporter.OUTPUT));
+    }
+
+    @Test
+    void testExtensionsReused() throws Exception {
+        Daemon.submit(daemon.getPort(), cacheDir, job("g:ext:1").toJSON());
+        Daemon.submit(daemon.getPort(), cacheDir, job("g:ext:1").toJSON());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testLoadedExtensionsBounded() throws Exception {
+        for (int i = 0; i <= Daemon.MAX_LOADED_EXTENSION_SETS; ++i) {
+            Daemon.submit(daemon.getPort(), cacheDir, job("g:ext:" + i).toJSON());
+        }
+
+        // the first set of extensions has been forgotten
+        Daemon.submit(daemon.getPort(), cacheDir, job("g:ext:0").toJSON());
+
+        assertEquals(Daemon.MAX_LOADED_EXTENSION_SETS + 2, loads.get());
+    }
+
+    @Test
+    void testTokenReadableOnlyByOwner() throws Exception {
+        Path tokenFile = cacheDir.toPath().resolve("daemon-" + daemon.getPort() + ".token");
+        if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)));
+        }
+    }
+
+    @Test
+    void testRequestWithoutTokenRefused() throws Exception {
+        JsonNode response = sendRaw(JsonNodeFactory.instance.objectNode().put("shutdown", true));
+
+        assertFalse(response.path("success").asBoolean());
+
+        // the daemon is still running
+        JsonNode analysis = Daemon.submit(daemon.getPort(), cacheDir, job("g:ext:1").toJSON());
+        assertTrue(analysis.path("success").asBoolean());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testShutdown() throws Exception {
+        JsonNode response = Daemon.submit(daemon.getPort(), cacheDir,
+                JsonNodeFactory.instance.objectNode().put("shutdown", true));
+
+        assertTrue(response.path("success").asBoolean());
+
+        serverThread.join();
+        assertFalse(Files.exists(cacheDir.toPath().resolve("daemon-" + daemon.getPort() + ".token")));
+    }
+
+    @Test
+    void testAnalyzesLocallyWithoutDaemon() throws Exception {
+        int port;
+        try (ServerSocket s = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = s.getLocalPort();
+        }
+
+        AnalysisJob job = job("g:ext:1");
+        assertThrows(ConnectException.class, () -> Daemon.submit(port, cacheDir, job.toJSON()));
+        assertFalse(Main.analyzeInDaemon(port, job));
+    }
+
+    @Test
+    void testAnalyzesLocallyWithoutToken() throws Exception {
+        // the daemon is running, but not with the cache directory of the client
+        AnalysisJob job = job("g:ext:1");
+        job.cacheDir = tmp.resolve("other-cache").toFile();
+
+        assertFalse(Main.analyzeInDaemon(daemon.getPort(), job));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testAnalyzesInDaemon() throws Exception {
+        assertTrue(Main.analyzeInDaemon(daemon.getPort(), job("g:ext:1")));
+        assertEquals(1, loads.get());
+    }
+
+    private AnalysisJob job(String extension) throws IOException {
+        File oldArchive = tmp.resolve("old.jar").toFile();
+        File newArchive = tmp.resolve("new.jar").toFile();
+        if (!oldArchive.exists()) {
+            Files.createFile(oldArchive.toPath());
+            Files.createFile(newArchive.toPath());
+        }
+
+        AnalysisJob job = new AnalysisJob();
+        job.extensionGAVs = new String[] { extension };
+        job.oldArchivePaths = new String[] { oldArchive.getAbsolutePath() };
+        job.newArchivePaths = new String[] { newArchive.getAbsolutePath() };
+        job.cacheDir = cacheDir;
+        return job;
+    }
+
+    private JsonNode sendRaw(JsonNode request) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            out.write(mapper.writeValueAsString(request));
+            out.write('\n');
+            out.flush();
+
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            return mapper.readTree(in.readLine());
+        }
+    }
+
+    public static final class PrintingReporter implements Reporter {
+        static final String OUTPUT = "analysis reported";
+
+        @Override
+        public void report(@Nonnull Report report) {
+        }
+
+        @Override
+        public void close() {
+            System.out.print(OUTPUT);
+            System.out.flush();
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "printing";
+        }
+
+        @Nullable
+        @Override
+        public Reader getJSONSchema() {
+            return null;
+        }
+
+        @Override
+        public void initialize(@Nonnull AnalysisContext analysisContext) {
+        }
+    }
+
+    public static final class EmptyAnalyzer extends BaseApiAnalyzer<EmptyElement> {
+        @Override
+        public ArchiveAnalyzer<EmptyElement> getArchiveAnalyzer(API api) {
+            return new BaseArchiveAnalyzer<BaseElementForest<EmptyElement>, EmptyElement>(this, api) {
+                @Override
+                protected BaseElementForest<EmptyElement> newElementForest() {
+                    return new BaseElementForest<>(getApi());
+                }
+
+                @Override
+                protected Stream<EmptyElement> discoverRoots(@Nullable Object context) {
+                    return Stream.empty();
+                }
+
+                @Override
+                protected Stream<EmptyElement> discoverElements(@Nullable Object context, EmptyElement parent) {
+                    return Stream.empty();
+                }
+            };
+        }
+
+        @Override
+        public DifferenceAnalyzer<EmptyElement> getDifferenceAnalyzer(ArchiveAnalyzer<EmptyElement> oldArchive,
+                ArchiveAnalyzer<EmptyElement> newArchive) {
+            return new BaseDifferenceAnalyzer<EmptyElement>() {
+                @Override
+                public void beginAnalysis(@Nullable EmptyElement oldElement, @Nullable EmptyElement newElement) {
+                }
+
+                @Override
+                public Report endAnalysis(@Nullable EmptyElement oldElement, @Nullable EmptyElement newElement) {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "empty";
+        }
+    }
+
+    public static final class EmptyElement extends BaseElement<EmptyElement> {
+        EmptyElement(API api) {
+            super(api, null);
+        }
+
+        @Override
+        public int compareTo(EmptyElement o) {
+            return 0;
+        }
+    }
+}
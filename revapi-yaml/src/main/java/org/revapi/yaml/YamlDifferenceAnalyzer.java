@@ -20,6 +20,7 @@ import java.net.URI;
 
 import javax.annotation.Nullable;
 
+import org.revapi.DifferenceAnalyzer;
 import org.revapi.jackson.JacksonDifferenceAnalyzer;
 
 public class YamlDifferenceAnalyzer extends JacksonDifferenceAnalyzer<YamlElement> {
@@ -38,6 +39,17 @@ public class YamlDifferenceAnalyzer extends JacksonDifferenceAnalyzer<YamlElemen
         return "yaml.valueChanged";
     }
 
+    /**
+     * The analyzer doesn't hold any state and can therefore be used by several threads at once. The subclasses that
+     * introduce some state need to override this method.
+     *
+     * @return this instance
+     */
+    @Override
+    public DifferenceAnalyzer<YamlElement> fork() {
+        return this;
+    }
+
     @Nullable
     @Override
     protected URI documentationLinkForCode(String code) {
@@ -153,6 +153,7 @@ public final class AnalysisContext {
     private final Map<String, Object> data;
     private final Map<DifferenceSeverity, Criticality> defaultSeverityMapping;
     private final Map<String, Criticality> criticalityByName;
+    private final Metrics metrics;
 
     /**
      * Constructor
@@ -173,14 +174,16 @@ public final class AnalysisContext {
     @Deprecated
     private AnalysisContext(Locale locale, @Nullable ModelNode configuration, API oldApi, API newApi,
             Collection<ElementMatcher> elementMatchers, Map<String, Object> data,
-            Collection<Criticality> knownCriticalities, Map<DifferenceSeverity, Criticality> defaultSeverityMapping) {
+            Collection<Criticality> knownCriticalities, Map<DifferenceSeverity, Criticality> defaultSeverityMapping,
+            Metrics metrics) {
         this(locale, configuration == null ? null : JSONUtil.convert(configuration), oldApi, newApi, elementMatchers,
-                data, knownCriticalities, defaultSeverityMapping);
+                data, knownCriticalities, defaultSeverityMapping, metrics);
     }
 
     private AnalysisContext(Locale locale, @Nullable JsonNode configuration, API oldApi, API newApi,
             Collection<ElementMatcher> elementMatchers, Map<String, Object> data,
-            Collection<Criticality> knownCriticalities, Map<DifferenceSeverity, Criticality> defaultSeverityMapping) {
+            Collection<Criticality> knownCriticalities, Map<DifferenceSeverity, Criticality> defaultSeverityMapping,
+            Metrics metrics) {
         this.locale = locale;
         if (configuration == null) {
             this.configuration = JsonNodeFactory.instance.arrayNode();
@@ -194,6 +197,7 @@ public final class AnalysisContext {
         this.data = data;
         this.criticalityByName = knownCriticalities.stream().collect(toMap(Criticality::getName, identity()));
         this.defaultSeverityMapping = defaultSeverityMapping;
+        this.metrics = metrics;
     }
 
     /**
@@ -265,7 +269,7 @@ public final class AnalysisContext {
     @Deprecated
     public AnalysisContext copyWithConfiguration(ModelNode configuration) {
         return new AnalysisContext(this.locale, configuration, this.oldApi, this.newApi, this.matchers.values(),
-                this.data, this.criticalityByName.values(), this.defaultSeverityMapping);
+                this.data, this.criticalityByName.values(), this.defaultSeverityMapping, this.metrics);
     }
 
     /**
@@ -280,7 +284,7 @@ public final class AnalysisContext {
      */
     public AnalysisContext copyWithConfiguration(JsonNode configuration) {
         return new AnalysisContext(this.locale, configuration, this.oldApi, this.newApi, this.matchers.values(),
-                this.data, this.criticalityByName.values(), this.defaultSeverityMapping);
+                this.data, this.criticalityByName.values(), this.defaultSeverityMapping, this.metrics);
     }
 
     /**
@@ -294,7 +298,15 @@ public final class AnalysisContext {
      */
     public AnalysisContext copyWithMatchers(Set<ElementMatcher> matchers) {
         return new AnalysisContext(this.locale, this.configuration, this.oldApi, this.newApi, matchers, this.data,
-                this.criticalityByName.values(), this.defaultSeverityMapping);
+                this.criticalityByName.values(), this.defaultSeverityMapping, this.metrics);
+    }
+
+    /**
+     * Each analysis collects its own metrics, so this is used to give the analysis the fresh metrics to collect.
+     */
+    AnalysisContext copyWithMetrics(Metrics metrics) {
+        return new AnalysisContext(this.locale, this.configuration, this.oldApi, this.newApi, this.matchers.values(),
+                this.data, this.criticalityByName.values(), this.defaultSeverityMapping, metrics);
     }
 
     public Locale getLocale() {
@@ -338,6 +350,16 @@ public final class AnalysisContext {
         return data.get(key);
     }
 
+    /**
+     * The metrics of the analysis this context is used in. The extensions can use these to register their own meters.
+     * The metrics are made available to the users through {@link AnalysisResult#getMetrics()}.
+     *
+     * @since 0.16.0
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     @Nullable
     public Criticality getCriticalityByName(String name) {
         return criticalityByName.get(name);
@@ -489,7 +511,7 @@ public final class AnalysisContext {
 
         public AnalysisContext build() {
             return new AnalysisContext(locale, configuration, oldApi, newApi, Collections.emptySet(), data,
-                    knownCriticalities, defaultSeverityMapping);
+                    knownCriticalities, defaultSeverityMapping, new Metrics());
         }
 
         private ArrayNode convertToNewStyle(JsonNode configuration) {
@@ -50,6 +50,7 @@ public final class AnalysisResult implements AutoCloseable {
 
     private final Exception failure;
     private final Extensions extensions;
+    private final Metrics metrics;
 
     /**
      * A factory method for users that need to report success without actually running any analysis. The returned result
@@ -59,7 +60,7 @@ public final class AnalysisResult implements AutoCloseable {
      */
     public static AnalysisResult fakeSuccess() {
         return new AnalysisResult(null, new Extensions(Collections.emptyMap(), Collections.emptyMap(),
-                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()));
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()), new Metrics());
     }
 
     /**
@@ -72,12 +73,13 @@ public final class AnalysisResult implements AutoCloseable {
      */
     public static AnalysisResult fakeFailure(Exception failure) {
         return new AnalysisResult(failure, new Extensions(Collections.emptyMap(), Collections.emptyMap(),
-                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()));
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()), new Metrics());
     }
 
-    AnalysisResult(@Nullable Exception failure, Extensions extensions) {
+    AnalysisResult(@Nullable Exception failure, Extensions extensions, Metrics metrics) {
         this.failure = failure;
         this.extensions = extensions;
+        this.metrics = metrics;
     }
 
     public boolean isSuccess() {
@@ -105,9 +107,21 @@ public final class AnalysisResult implements AutoCloseable {
         return extensions;
     }
 
+    /**
+     * The metrics collected during the analysis. Use {@link Metrics#toJSON()} to export them.
+     *
+     * @since 0.16.0
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void close() throws Exception {
         TIMING_LOG.debug(Stats.asString());
+        if (TIMING_LOG.isDebugEnabled()) {
+            TIMING_LOG.debug(metrics.toString());
+        }
         TIMING_LOG.debug("Closing all extensions");
 
         Consumer<ExtensionInstance> close = inst -> {
@@ -16,6 +16,7 @@
  */
 package org.revapi;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -48,6 +49,17 @@ public interface Archive {
         String getBaseName();
     }
 
+    /**
+     * Extension of the archive interface for archives whose data is stored in a file. The file must contain exactly the
+     * same data as returned by {@link #openStream()}. This enables the extensions to access the file directly instead
+     * of having to copy the data of the archive somewhere else first.
+     *
+     * @since 0.16.0
+     */
+    interface FileBacked extends Archive {
+        File getFile();
+    }
+
     /**
      * The role of the archive in the API. See {@link API#getArchiveRole(Archive)}
      */
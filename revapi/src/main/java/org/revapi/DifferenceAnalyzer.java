@@ -74,4 +74,28 @@ public interface DifferenceAnalyzer<E extends Element<E>> extends AutoCloseable
      * @return a report detailing the difference found between these two elements
      */
     Report endAnalysis(@Nullable E oldElement, @Nullable E newElement);
+
+    /**
+     * Creates an analyzer that can analyze an independent subtree of the elements concurrently with this analyzer. The
+     * analysis can use the forked analyzers to analyze the pairs of the top-level elements of the APIs in parallel (see
+     * {@link PipelineConfiguration#getDifferenceAnalysisThreads()}).
+     *
+     * <p>
+     * The forked analyzer must not share any mutable state with this analyzer. The analysis {@link #open() opens} the
+     * fork before it analyzes the first pair of elements with it and {@link #close() closes} it once all the pairs of
+     * the elements have been analyzed. A stateless analyzer can just return itself, in which case it is not opened or
+     * closed again.
+     *
+     * <p>
+     * The default implementation returns null, meaning that the analyzer cannot be forked and the analysis is performed
+     * on a single thread.
+     *
+     * @return a new analyzer for the concurrent analysis or null if this analyzer cannot be forked
+     *
+     * @since 0.16.0
+     */
+    @Nullable
+    default DifferenceAnalyzer<E> fork() {
+        return null;
+    }
 }
@@ -40,7 +40,8 @@ import org.revapi.configuration.Configurable;
  * <p>
  * <b>NOTE</b>: for more complex transformations that require contextual knowledge about the traversal (like when you
  * need to employ an element matcher during the transformation), you may want to re-implement the default methods for
- * the element-pair tree traversal of the elements. The traversal happens prior to any transformations.
+ * the element-pair tree traversal of the elements. If any transform tracks the traversal, the whole traversal happens
+ * prior to any transformations. Otherwise the differences are transformed and reported as soon as they are found.
  *
  * @param <E>
  *            the type of the element expected in the {@code transform} method. Note that you need to be careful about
@@ -133,9 +134,13 @@ public interface DifferenceTransform<E extends Element<?>> extends AutoCloseable
      * <p>
      * Note that this method can be called repeatedly for the same element pair if there are multiple transformations
      * operating on the two elements. Also note that this method is called only after the traversal tracker has visited
-     * all elements and its {@link TraversalTracker#endTraversal()} has been called. Only after this method has been
-     * called on all element pairs from the traversal, the {@link #endTraversal(TraversalTracker)} is called to
-     * potentially clean up the resources before the traversal with the next api analyzer starts.
+     * all elements and its {@link TraversalTracker#endTraversal()} has been called. The only exception is when none of
+     * the transforms tracks the traversal (i.e. they all return either an empty optional or the
+     * {@link TraversalTracker#noop() no-op tracker} from
+     * {@link #startTraversal(ApiAnalyzer, ArchiveAnalyzer, ArchiveAnalyzer)}). In that case this method is called as
+     * soon as the differences on the element pair are found. Only after this method has been called on all element
+     * pairs from the traversal, the {@link #endTraversal(TraversalTracker)} is called to potentially clean up the
+     * resources before the traversal with the next api analyzer starts.
      *
      * @param oldElement
      *            the old element, if any, being compared to the new element
@@ -179,8 +184,7 @@ public interface DifferenceTransform<E extends Element<?>> extends AutoCloseable
      */
     default <X extends Element<X>> Optional<TraversalTracker<X>> startTraversal(ApiAnalyzer<X> apiAnalyzer,
             ArchiveAnalyzer<X> oldArchiveAnalyzer, ArchiveAnalyzer<X> newArchiveAnalyzer) {
-        return Optional.of(new TraversalTracker<X>() {
-        });
+        return Optional.of(TraversalTracker.noop());
     }
 
     /**
@@ -239,5 +243,23 @@ public interface DifferenceTransform<E extends Element<?>> extends AutoCloseable
          */
         default void endTraversal() {
         }
+
+        /**
+         * Returns a tracker that doesn't track anything. Transforms that need to take part in the traversal but don't
+         * need to know about the traversed elements should return this tracker, because it enables the analysis to
+         * transform and report the differences as soon as they are found instead of keeping them all until the end of
+         * the traversal.
+         *
+         * @param <E>
+         *            the type of the traversed elements
+         *
+         * @return the no-op tracker
+         *
+         * @since 0.16.0
+         */
+        @SuppressWarnings("unchecked")
+        static <E extends Element<E>> TraversalTracker<E> noop() {
+            return (TraversalTracker<E>) NoopTraversalTracker.INSTANCE;
+        }
     }
 }
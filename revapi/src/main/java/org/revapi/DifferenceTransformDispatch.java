@@ -0,0 +1,189 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A dispatch table from the difference codes to the blocks of {@link DifferenceTransform difference transforms} that
+ * should process the differences with those codes.
+ *
+ * <p>
+ * The table is built once per analysis from all the transform blocks. Each transform is assigned an index so that the
+ * transforms matching a difference code can be stored as a bitset. The table is then {@link #restrictTo(Collection)
+ * restricted} to the transforms active with the current API analyzer which intersects the bitsets with the active
+ * transforms. Both the matching of the codes and the intersection are done only once per difference code. The lookups
+ * of the blocks for an already seen code don't allocate anything.
+ *
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.16.0
+ */
+public final class DifferenceTransformDispatch {
+    private final List<List<DifferenceTransform<?>>> blocks;
+    private final DifferenceTransform<?>[] transforms;
+    private final Map<DifferenceTransform<?>, Integer> indices = new IdentityHashMap<>();
+    private final int[][] blockIndices;
+    private final Map<String, BitSet> matchingTransforms = new ConcurrentHashMap<>();
+
+    /**
+     * @param blocks
+     *            the transform blocks. The order of the blocks is preserved in the results of the lookups.
+     */
+    public DifferenceTransformDispatch(Collection<? extends List<DifferenceTransform<?>>> blocks) {
+        this.blocks = new ArrayList<>(blocks);
+
+        List<DifferenceTransform<?>> ts = new ArrayList<>();
+        this.blockIndices = new int[this.blocks.size()][];
+        for (int b = 0; b < this.blocks.size(); ++b) {
+            List<DifferenceTransform<?>> block = this.blocks.get(b);
+            int[] idxs = new int[block.size()];
+            for (int i = 0; i < idxs.length; ++i) {
+                DifferenceTransform<?> t = block.get(i);
+                Integer idx = indices.get(t);
+                if (idx == null) {
+                    idx = ts.size();
+                    indices.put(t, idx);
+                    ts.add(t);
+                }
+                idxs[i] = idx;
+            }
+            blockIndices[b] = idxs;
+        }
+
+        this.transforms = ts.toArray(new DifferenceTransform<?>[0]);
+    }
+
+    /**
+     * @return the blocks this table dispatches to
+     */
+    public List<List<DifferenceTransform<?>>> getBlocks() {
+        return unmodifiableList(blocks);
+    }
+
+    /**
+     * Restricts the dispatch table only to the provided transforms.
+     *
+     * @param activeTransforms
+     *            the transforms that can process the differences. The transforms not present in this table are ignored.
+     *
+     * @return the restricted dispatch table
+     */
+    public Restricted restrictTo(Collection<? extends DifferenceTransform<?>> activeTransforms) {
+        BitSet active = new BitSet(transforms.length);
+        for (DifferenceTransform<?> t : activeTransforms) {
+            Integer idx = indices.get(t);
+            if (idx != null) {
+                active.set(idx);
+            }
+        }
+
+        return new Restricted(active);
+    }
+
+    private BitSet getMatchingTransforms(String code) {
+        return matchingTransforms.computeIfAbsent(code, c -> {
+            BitSet ret = new BitSet(transforms.length);
+            for (int i = 0; i < transforms.length; ++i) {
+                for (Predicate<String> predicate : transforms[i].getDifferenceCodePredicates()) {
+                    if (predicate.test(c)) {
+                        ret.set(i);
+                        break;
+                    }
+                }
+            }
+            return ret;
+        });
+    }
+
+    /**
+     * The dispatch table restricted to some transforms.
+     */
+    public final class Restricted {
+        private final BitSet active;
+        private final Map<String, List<DifferenceTransform<?>>[]> blocksByCode = new ConcurrentHashMap<>();
+
+        private Restricted(BitSet active) {
+            this.active = active;
+        }
+
+        /**
+         * Returns the blocks of transforms that should process the differences with the provided code. Each of the
+         * returned blocks only contains the transforms that are active and handle the difference code, in the order
+         * they have in the original block. The blocks which would end up empty are not returned and the blocks which
+         * would end up identical are returned only once, at the position of the first of them.
+         *
+         * <p>
+         * The returned array is shared and must not be modified.
+         *
+         * @param code
+         *            the difference code
+         *
+         * @return the blocks of the transforms to process the differences with the code
+         */
+        @Nonnull
+        public List<DifferenceTransform<?>>[] getBlocks(String code) {
+            List<DifferenceTransform<?>>[] ret = blocksByCode.get(code);
+            if (ret == null) {
+                ret = blocksByCode.computeIfAbsent(code, this::computeBlocks);
+            }
+            return ret;
+        }
+
+        private List<DifferenceTransform<?>>[] computeBlocks(String code) {
+            BitSet matching = (BitSet) getMatchingTransforms(code).clone();
+            matching.and(active);
+
+            // the same transforms would process the difference several times if the restricted blocks were identical
+            Set<List<DifferenceTransform<?>>> ret = new LinkedHashSet<>();
+            if (!matching.isEmpty()) {
+                for (int[] idxs : blockIndices) {
+                    List<DifferenceTransform<?>> block = new ArrayList<>(idxs.length);
+                    for (int idx : idxs) {
+                        if (matching.get(idx)) {
+                            block.add(transforms[idx]);
+                        }
+                    }
+
+                    if (!block.isEmpty()) {
+                        ret.add(unmodifiableList(block));
+                    }
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            List<DifferenceTransform<?>>[] arr = ret.toArray(new List[0]);
+            return arr;
+        }
+    }
+}
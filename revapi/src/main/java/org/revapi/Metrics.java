@@ -0,0 +1,326 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The metrics collected during a single analysis. Each analysis collects its own metrics which are available from the
+ * {@link AnalysisContext#getMetrics() analysis context} during the analysis and from the
+ * {@link AnalysisResult#getMetrics() analysis result} after it.
+ *
+ * <p>
+ * The metrics are always collected and are cheap enough to be left on in production. To keep them cheap, the meters
+ * should be obtained once (e.g. during the initialization of an extension) and then reused, instead of being looked up
+ * by name on every measurement. All the meters are thread-safe.
+ *
+ * <p>
+ * The analysis itself collects the timings of the tree construction, the difference analysis, each transform block and
+ * each reporter. The extensions are free to register their own meters.
+ *
+ * @author Lukas Krejci
+ *
+ * @since 0.16.0
+ */
+public final class Metrics {
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the timer with given name, creating it if it doesn't exist yet.
+     *
+     * @param name
+     *            the name of the timer
+     *
+     * @return the timer with the given name
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Returns the counter with given name, creating it if it doesn't exist yet.
+     *
+     * @param name
+     *            the name of the counter
+     *
+     * @return the counter with the given name
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * @return the registered timers sorted by name
+     */
+    public Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * @return the registered counters sorted by name
+     */
+    public Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Exports the current values of all meters as JSON. The timers are exported under the {@code timers} key as objects
+     * containing the {@code count}, {@code totalNanos}, {@code meanNanos}, {@code maxNanos} and {@code percentiles}
+     * (with the 50th, 90th, 99th and 99.9th percentiles in nanoseconds). The counters are exported as simple numbers
+     * under the {@code counters} key.
+     *
+     * @return the JSON representation of the metrics
+     */
+    public ObjectNode toJSON() {
+        ObjectNode ret = JsonNodeFactory.instance.objectNode();
+
+        ObjectNode timersNode = ret.putObject("timers");
+        timers.forEach((name, timer) -> {
+            ObjectNode t = timersNode.putObject(name);
+            t.put("count", timer.getCount());
+            t.put("totalNanos", timer.getTotalNanos());
+            t.put("meanNanos", timer.getMeanNanos());
+            t.put("maxNanos", timer.getMaxNanos());
+            ObjectNode percentiles = t.putObject("percentiles");
+            percentiles.put("50", timer.getValueAtPercentile(50));
+            percentiles.put("90", timer.getValueAtPercentile(90));
+            percentiles.put("99", timer.getValueAtPercentile(99));
+            percentiles.put("99.9", timer.getValueAtPercentile(99.9));
+        });
+
+        ObjectNode countersNode = ret.putObject("counters");
+        counters.forEach((name, counter) -> countersNode.put(name, counter.get()));
+
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return "Metrics" + toJSON();
+    }
+
+    /**
+     * A simple counter.
+     */
+    public static final class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Counter[" + name + " = " + get() + "]";
+        }
+    }
+
+    /**
+     * Measures the durations of some action. Apart from the total and maximum durations, the timer also keeps a
+     * histogram of the durations so that the percentiles can be estimated with the precision of about 12.5%.
+     *
+     * <p>
+     * The typical usage is:
+     *
+     * <pre>
+     * <code>
+     * long start = timer.start();
+     * ... the measured action ...
+     * timer.stop(start);
+     * </code>
+     * </pre>
+     */
+    public static final class Timer {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final Histogram histogram = new Histogram();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the timestamp to pass to {@link #stop(long)} once the measured action finishes
+         */
+        public long start() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Records the duration since the provided start timestamp.
+         *
+         * @param startNanos
+         *            the timestamp obtained from {@link #start()}
+         *
+         * @return the recorded duration in nanoseconds
+         */
+        public long stop(long startNanos) {
+            long duration = System.nanoTime() - startNanos;
+            record(duration);
+            return duration;
+        }
+
+        /**
+         * Records a duration measured elsewhere.
+         *
+         * @param durationNanos
+         *            the duration in nanoseconds
+         */
+        public void record(long durationNanos) {
+            if (durationNanos < 0) {
+                durationNanos = 0;
+            }
+
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            histogram.record(durationNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getMeanNanos() {
+            long cnt = getCount();
+            return cnt == 0 ? 0 : getTotalNanos() / cnt;
+        }
+
+        /**
+         * Estimates the duration under which the provided percentage of the recorded durations fall.
+         *
+         * @param percentile
+         *            the percentile between 0 and 100
+         *
+         * @return the estimated duration in nanoseconds
+         */
+        public long getValueAtPercentile(double percentile) {
+            return Math.min(histogram.getValueAtPercentile(percentile), getMaxNanos());
+        }
+
+        @Override
+        public String toString() {
+            return "Timer[" + name + ": count = " + getCount() + ", total = " + getTotalNanos() + "ns, mean = "
+                    + getMeanNanos() + "ns, max = " + getMaxNanos() + "ns]";
+        }
+    }
+
+    /**
+     * A log-linear histogram. The values are divided into buckets by powers of 2 which are further linearly divided
+     * into 8 sub-buckets. This is the same scheme as used by the HDR histogram with 1 significant decimal digit.
+     */
+    private static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long value) {
+            counts.incrementAndGet(indexOf(value));
+        }
+
+        long getValueAtPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                total += counts.get(i);
+            }
+
+            if (total == 0) {
+                return 0;
+            }
+
+            long target = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return highestValueIn(i);
+                }
+            }
+
+            return highestValueIn(BUCKETS - 1);
+        }
+
+        static int indexOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+            return (shift + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long highestValueIn(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+
+            int shift = index / SUB_BUCKETS - 1;
+            if (shift + SUB_BUCKET_BITS + 1 >= Long.SIZE - 1) {
+                // the upper buckets would overflow
+                return Long.MAX_VALUE;
+            }
+
+            long lowest = ((long) (SUB_BUCKETS + index % SUB_BUCKETS)) << shift;
+            return lowest + (1L << shift) - 1;
+        }
+    }
+}
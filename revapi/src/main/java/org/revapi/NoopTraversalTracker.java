@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi;
+
+/**
+ * The implementation of {@link DifferenceTransform.TraversalTracker#noop()}.
+ *
+ * @author Lukas Krejci
+ */
+@SuppressWarnings("rawtypes")
+final class NoopTraversalTracker implements DifferenceTransform.TraversalTracker {
+    static final NoopTraversalTracker INSTANCE = new NoopTraversalTracker();
+
+    private NoopTraversalTracker() {
+    }
+}
@@ -108,6 +108,8 @@ public final class PipelineConfiguration {
     private final List<String> excludedMatcherExtensionIds;
     private final Set<Criticality> criticalities;
     private final Map<DifferenceSeverity, Criticality> severityMapping;
+    private final boolean parallelTreeConstruction;
+    private final int differenceAnalysisThreads;
 
     /**
      * @return a pipeline configuration builder instance
@@ -174,6 +176,8 @@ public final class PipelineConfiguration {
         JsonNode matcherExcludeNode = json.path("matchers").path("exclude");
         JsonNode criticalities = json.path("criticalities");
         JsonNode severityMapping = json.path("severityMapping");
+        JsonNode parallelTreeConstruction = json.path("parallelTreeConstruction");
+        JsonNode differenceAnalysisThreads = json.path("differenceAnalysisThreads");
 
         return builder().withTransformationBlocks(json.path("transformBlocks"))
                 .withAnalyzerExtensionIdsInclude(asStringList(analyzerIncludeNode))
@@ -188,7 +192,9 @@ public final class PipelineConfiguration {
                 .withMatcherExtensionIdsExclude(asStringList(matcherExcludeNode))
                 .withReporterExtensionIdsExclude(asStringList(reporterExcludeNode))
                 .withCriticalities(asCriticalitySet(criticalities))
-                .withUntypedSeverityMapping(asSeverityMapping(severityMapping));
+                .withUntypedSeverityMapping(asSeverityMapping(severityMapping))
+                .withParallelTreeConstruction(parallelTreeConstruction.asBoolean(false))
+                .withDifferenceAnalysisThreads(differenceAnalysisThreads.asInt(1));
     }
 
     /**
@@ -283,6 +289,11 @@ public final class PipelineConfiguration {
                         n -> n.path("criticality").asText()));
     }
 
+    /**
+     * @deprecated use the constructor that also accepts the settings of the parallel tree construction and difference
+     *             analysis
+     */
+    @Deprecated
     public PipelineConfiguration(Set<Class<? extends ApiAnalyzer<?>>> apiAnalyzerTypes,
             Set<Class<? extends Reporter>> reporterTypes, Set<Class<? extends DifferenceTransform<?>>> transformTypes,
             Set<Class<? extends TreeFilterProvider>> treeFilterTypes, Set<Class<? extends ElementMatcher>> matcherTypes,
@@ -293,6 +304,24 @@ public final class PipelineConfiguration {
             List<String> excludedFilterExtensionIds, List<String> includedMatcherExtensionIds,
             List<String> excludedMatcherExtensionIds, Set<Criticality> criticalities,
             Map<DifferenceSeverity, Criticality> severityMapping) {
+        this(apiAnalyzerTypes, reporterTypes, transformTypes, treeFilterTypes, matcherTypes, transformationBlocks,
+                includedAnalyzerExtensionIds, excludedAnalyzerExtensionIds, includedReporterExtensionIds,
+                excludedReporterExtensionIds, includedTransformExtensionIds, excludedTransformExtensionIds,
+                includedFilterExtensionIds, excludedFilterExtensionIds, includedMatcherExtensionIds,
+                excludedMatcherExtensionIds, criticalities, severityMapping, false, 1);
+    }
+
+    public PipelineConfiguration(Set<Class<? extends ApiAnalyzer<?>>> apiAnalyzerTypes,
+            Set<Class<? extends Reporter>> reporterTypes, Set<Class<? extends DifferenceTransform<?>>> transformTypes,
+            Set<Class<? extends TreeFilterProvider>> treeFilterTypes, Set<Class<? extends ElementMatcher>> matcherTypes,
+            Set<List<String>> transformationBlocks, List<String> includedAnalyzerExtensionIds,
+            List<String> excludedAnalyzerExtensionIds, List<String> includedReporterExtensionIds,
+            List<String> excludedReporterExtensionIds, List<String> includedTransformExtensionIds,
+            List<String> excludedTransformExtensionIds, List<String> includedFilterExtensionIds,
+            List<String> excludedFilterExtensionIds, List<String> includedMatcherExtensionIds,
+            List<String> excludedMatcherExtensionIds, Set<Criticality> criticalities,
+            Map<DifferenceSeverity, Criticality> severityMapping, boolean parallelTreeConstruction,
+            int differenceAnalysisThreads) {
         this.apiAnalyzerTypes = apiAnalyzerTypes;
         this.reporterTypes = reporterTypes;
         this.transformTypes = transformTypes;
@@ -311,6 +340,8 @@ public final class PipelineConfiguration {
         this.excludedMatcherExtensionIds = excludedMatcherExtensionIds;
         this.criticalities = criticalities;
         this.severityMapping = severityMapping;
+        this.parallelTreeConstruction = parallelTreeConstruction;
+        this.differenceAnalysisThreads = differenceAnalysisThreads;
     }
 
     public Set<Class<? extends ApiAnalyzer<?>>> getApiAnalyzerTypes() {
@@ -385,6 +416,20 @@ public final class PipelineConfiguration {
         return severityMapping;
     }
 
+    /**
+     * @return true if the element forests of the old and new API should be constructed and pruned concurrently
+     */
+    public boolean isParallelTreeConstruction() {
+        return parallelTreeConstruction;
+    }
+
+    /**
+     * @return the number of threads to analyze the independent top-level elements of the APIs with
+     */
+    public int getDifferenceAnalysisThreads() {
+        return differenceAnalysisThreads;
+    }
+
     public static final class Builder {
         private Set<Class<? extends ApiAnalyzer>> analyzers = null;
         private Set<Class<? extends Reporter>> reporters = null;
@@ -404,6 +449,8 @@ public final class PipelineConfiguration {
         private List<String> excludedMatcherExtensionIds = null;
         private Set<Criticality> criticalities = null;
         private Map<DifferenceSeverity, String> severityMapping;
+        private boolean parallelTreeConstruction;
+        private int differenceAnalysisThreads = 1;
 
         public Builder withAnalyzersFromThreadContextClassLoader() {
             return withAnalyzers(ServiceTypeLoader.load(ApiAnalyzer.class));
@@ -787,6 +834,45 @@ public final class PipelineConfiguration {
             return this;
         }
 
+        /**
+         * Switches on or off the concurrent construction of the old and new API element forests. When switched on, the
+         * element forests of the old and new API are analyzed and pruned at the same time and the analysis joins them
+         * before the differences between them are searched for. This requires the archive analyzers and the tree
+         * filters of the API analyzer to be able to work on the two APIs concurrently.
+         *
+         * @param parallelTreeConstruction
+         *            whether to construct the element forests concurrently
+         *
+         * @return this builder
+         */
+        public Builder withParallelTreeConstruction(boolean parallelTreeConstruction) {
+            this.parallelTreeConstruction = parallelTreeConstruction;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads used to search for the differences between the old and new API. If more than 1
+         * thread is used, the pairs of the top-level elements of the APIs are analyzed concurrently. This only happens
+         * if the difference analyzer of the API analyzer can be {@link DifferenceAnalyzer#fork() forked} and there are
+         * no difference transforms tracking the traversal of the element forests. Otherwise, the differences are
+         * searched for on the thread running the analysis.
+         *
+         * <p>
+         * The reports are always delivered in the same order, regardless of the number of threads used.
+         *
+         * @param differenceAnalysisThreads
+         *            the number of threads to use, 1 by default
+         *
+         * @return this builder
+         */
+        public Builder withDifferenceAnalysisThreads(int differenceAnalysisThreads) {
+            if (differenceAnalysisThreads < 1) {
+                throw new IllegalArgumentException("The number of difference analysis threads must be positive.");
+            }
+            this.differenceAnalysisThreads = differenceAnalysisThreads;
+            return this;
+        }
+
         /**
          * Returns a new {@link PipelineConfiguration} instance. The builder is reusable after this call and the
          * returned instance is independent of it.
@@ -877,7 +963,8 @@ public final class PipelineConfiguration {
                     (Set) matchers, transformationBlocks, includedAnalyzerExtensionIds, excludedAnalyzerExtensionIds,
                     includedReporterExtensionIds, excludedReporterExtensionIds, includedTransformExtensionIds,
                     excludedTransformExtensionIds, includedFilterExtensionIds, excludedFilterExtensionIds,
-                    includedMatcherExtensionIds, excludedMatcherExtensionIds, criticalities, sm);
+                    includedMatcherExtensionIds, excludedMatcherExtensionIds, criticalities, sm,
+                    parallelTreeConstruction, differenceAnalysisThreads);
         }
     }
 }
@@ -16,6 +16,7 @@
  */
 package org.revapi;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySortedSet;
 import static java.util.Collections.newSetFromMap;
 import static java.util.Collections.singletonList;
@@ -26,7 +27,6 @@ import static java.util.stream.Collectors.toSet;
 
 import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -39,10 +39,18 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
-import java.util.function.Predicate;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -70,6 +78,9 @@ public final class Revapi {
     static final Logger TIMING_LOG = LoggerFactory.getLogger("revapi.analysis.timing");
     private static final long MAX_TRANSFORMATION_ITERATIONS = 1_000_000;
 
+    // how long to wait for the difference analysis threads to react to the cancellation after a failed analysis
+    private static final long CANCELLED_ANALYSIS_TIMEOUT_SECONDS = 30;
+
     private final PipelineConfiguration pipelineConfiguration;
     private final ConfigurationValidator configurationValidator;
 
@@ -177,6 +188,8 @@ public final class Revapi {
     public AnalysisResult analyze(@Nonnull AnalysisContext analysisContext) {
         TIMING_LOG.debug("Analysis starts");
 
+        analysisContext = analysisContext.copyWithMetrics(new Metrics());
+
         AnalysisResult.Extensions extensions = prepareAnalysis(analysisContext);
 
         if (extensions.getAnalyzers().isEmpty()) {
@@ -198,7 +211,7 @@ public final class Revapi {
                 });
 
         AnalysisProgress progress = new AnalysisProgress(extensions, pipelineConfiguration, analysisContext.getOldApi(),
-                analysisContext.getNewApi());
+                analysisContext.getNewApi(), analysisContext.getMetrics());
 
         TIMING_LOG.debug("Initialization complete.");
 
@@ -215,7 +228,7 @@ public final class Revapi {
             error = t;
         }
 
-        return new AnalysisResult(error, extensions);
+        return new AnalysisResult(error, extensions, analysisContext.getMetrics());
     }
 
     private <T extends Configurable> Map<ExtensionInstance<T>, AnalysisContext> splitByConfiguration(
@@ -309,8 +322,30 @@ public final class Revapi {
 
         TIMING_LOG.debug("Obtaining API trees.");
 
-        ElementForest<E> oldTree = analyzeAndPrune(oldAnalyzer, filter);
-        ElementForest<E> newTree = analyzeAndPrune(newAnalyzer, filter);
+        ElementForest<E> oldTree;
+        ElementForest<E> newTree;
+
+        long treeConstructionStart = config.treeConstruction.start();
+        if (pipelineConfiguration.isParallelTreeConstruction()) {
+            // the filters are obtained here on the calling thread so that the filter providers are not accessed
+            // concurrently. Only the analysis and pruning of the trees runs in parallel.
+            TreeFilter<E> oldFilter = filterFor(oldAnalyzer, filter);
+            TreeFilter<E> newFilter = filterFor(newAnalyzer, filter);
+
+            ExecutorService executor = newTreeConstructionExecutor();
+            try {
+                Future<ElementForest<E>> oldTreeFuture = executor
+                        .submit(() -> analyzeAndPrune(oldAnalyzer, oldFilter, config.oldTreeConstruction));
+                newTree = analyzeAndPrune(newAnalyzer, newFilter, config.newTreeConstruction);
+                oldTree = join(oldTreeFuture);
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            oldTree = analyzeAndPrune(oldAnalyzer, filterFor(oldAnalyzer, filter), config.oldTreeConstruction);
+            newTree = analyzeAndPrune(newAnalyzer, filterFor(newAnalyzer, filter), config.newTreeConstruction);
+        }
+        config.treeConstruction.stop(treeConstructionStart);
 
         TIMING_LOG.debug("API trees obtained");
 
@@ -338,49 +373,38 @@ public final class Revapi {
                     .entrySet().stream().filter(e -> e.getValue().isPresent())
                     .collect(toMap(Map.Entry::getKey, e -> e.getValue().get()));
 
-            analyze(apiAnalyzer.getCorrespondenceDeducer(), elementDifferenceAnalyzer, as, bs,
-                    activeTransforms.values(), config);
+            // the no-op trackers don't need to see the traversal, so if there are only those, the transforms can
+            // process the reports as soon as they're found
+            List<DifferenceTransform.TraversalTracker<E>> trackers = activeTransforms.values().stream()
+                    .filter(t -> t != DifferenceTransform.TraversalTracker.<E> noop()).collect(toList());
 
-            allTransforms.values().forEach(tr -> tr.ifPresent(DifferenceTransform.TraversalTracker::endTraversal));
+            Map<Reporter, Metrics.Timer> reporters = new IdentityHashMap<>();
+            config.extensions.getReporters().keySet().forEach(i -> reporters.put(i.getInstance(),
+                    config.metrics.timer("reporter " + i.getInstance().getClass().getName())));
 
-            Set<Reporter> reporters = config.extensions.getReporters().keySet().stream()
-                    .map(ExtensionInstance::getInstance).collect(toSet());
-
-            config.reports.forEach(r -> {
-                transform(r, activeTransforms.keySet(), config);
-
-                if (!r.getDifferences().isEmpty()) {
-                    Stats.of("reports").start();
-
-                    // make sure all the differences have a non-null criticality before being sent to the reporters
-                    ListIterator<Difference> it = r.getDifferences().listIterator();
-                    while (it.hasNext()) {
-                        Difference orig = it.next();
-                        if (orig.criticality == null) {
-                            DifferenceSeverity maxSeverity = orig.classification.values().stream()
-                                    .max(comparingInt(Enum::ordinal)).orElse(DifferenceSeverity.EQUIVALENT);
-
-                            // all extensions share the criticality mapping and we're guaranteed to have at least 1 api
-                            // analyzer
-                            AnalysisContext ctx = config.extensions.getFirstConfigurationOrNull(ApiAnalyzer.class);
-                            if (ctx == null) {
-                                throw new IllegalStateException(
-                                        "There should be at least 1 API analyzer during the analysis" + "progress.");
-                            }
+            DifferenceTransformDispatch.Restricted dispatch = config.transformDispatch
+                    .restrictTo(activeTransforms.keySet());
+
+            Consumer<Report> sink;
+            if (trackers.isEmpty()) {
+                LOG.debug("No transform tracks the traversal. The reports are processed as soon as they are found.");
+                sink = r -> processReport(r, dispatch, reporters, config);
+            } else {
+                sink = config.reports::add;
+            }
 
-                            Difference.Builder d = Difference.copy(orig)
-                                    .withCriticality(ctx.getDefaultCriticality(maxSeverity));
+            CorrespondenceComparatorDeducer<E> deducer = apiAnalyzer.getCorrespondenceDeducer();
+            int threads = pipelineConfiguration.getDifferenceAnalysisThreads();
+            // the traversal trackers need to see the elements in the strict depth-first order, so we can only go
+            // parallel if there are none
+            if (threads < 2 || !trackers.isEmpty()
+                    || !analyzeConcurrently(deducer, elementDifferenceAnalyzer, as, bs, threads, config, sink)) {
+                analyze(deducer, elementDifferenceAnalyzer, as, bs, trackers, config, sink);
+            }
 
-                            it.set(d.build());
-                        }
-                    }
+            allTransforms.values().forEach(tr -> tr.ifPresent(DifferenceTransform.TraversalTracker::endTraversal));
 
-                    for (Reporter reporter : reporters) {
-                        reporter.report(r);
-                    }
-                    Stats.of("reports").end(r);
-                }
-            });
+            config.reports.forEach(r -> processReport(r, dispatch, reporters, config));
 
             allTransforms.forEach((trans, track) -> {
                 trans.endTraversal(track.orElse(null));
@@ -392,77 +416,280 @@ public final class Revapi {
         TIMING_LOG.debug("Difference analyzer closed");
     }
 
-    private <E extends Element<E>> ElementForest<E> analyzeAndPrune(ArchiveAnalyzer<E> analyzer,
+    private void processReport(Report r, DifferenceTransformDispatch.Restricted dispatch,
+            Map<Reporter, Metrics.Timer> reporters, AnalysisProgress config) {
+        transform(r, dispatch, config);
+
+        if (!r.getDifferences().isEmpty()) {
+            long reportStart = config.reportsTimer.start();
+            config.differences.add(r.getDifferences().size());
+
+            // make sure all the differences have a non-null criticality before being sent to the reporters
+            ListIterator<Difference> it = r.getDifferences().listIterator();
+            while (it.hasNext()) {
+                Difference orig = it.next();
+                if (orig.criticality == null) {
+                    DifferenceSeverity maxSeverity = orig.classification.values().stream()
+                            .max(comparingInt(Enum::ordinal)).orElse(DifferenceSeverity.EQUIVALENT);
+
+                    // all extensions share the criticality mapping and we're guaranteed to have at least 1 api
+                    // analyzer
+                    AnalysisContext ctx = config.extensions.getFirstConfigurationOrNull(ApiAnalyzer.class);
+                    if (ctx == null) {
+                        throw new IllegalStateException(
+                                "There should be at least 1 API analyzer during the analysis" + "progress.");
+                    }
+
+                    Difference.Builder d = Difference.copy(orig)
+                            .withCriticality(ctx.getDefaultCriticality(maxSeverity));
+
+                    it.set(d.build());
+                }
+            }
+
+            reporters.forEach((reporter, timer) -> {
+                long start = timer.start();
+                reporter.report(r);
+                timer.stop(start);
+            });
+            config.reportsTimer.stop(reportStart);
+        }
+    }
+
+    private static <E extends Element<E>> TreeFilter<E> filterFor(ArchiveAnalyzer<E> analyzer,
             TreeFilterProvider filter) {
-        TreeFilter<E> tf = filter.filterFor(analyzer).orElseGet(TreeFilter::matchAndDescend);
-        ElementForest<E> forest = analyzer.analyze(tf);
+        return filter.filterFor(analyzer).orElseGet(TreeFilter::matchAndDescend);
+    }
+
+    private static <E extends Element<E>> ElementForest<E> analyzeAndPrune(ArchiveAnalyzer<E> analyzer,
+            TreeFilter<E> filter, Metrics.Timer timer) {
+        long start = timer.start();
+
+        ElementForest<E> forest = analyzer.analyze(filter);
         analyzer.prune(forest);
 
+        timer.stop(start);
+
         return forest;
     }
 
+    private static ExecutorService newTreeConstructionExecutor() {
+        return newExecutor("Revapi Tree Construction Thread", 1);
+    }
+
+    private static ExecutorService newExecutor(String threadName, int threads) {
+        // the extensions might be loaded using the context class loader of the calling thread, so let's make sure
+        // the threads see the same one.
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, threads == 1 ? threadName : threadName + " #" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            t.setContextClassLoader(cl);
+            return t;
+        });
+    }
+
+    private static <T> T join(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Analyzes the pairs of the top-level elements concurrently, each using a fork of the difference analyzer. The
+     * reports of each pair are collected separately and passed to the sink in the order of the pairs, so that the sink
+     * receives the reports in the same order as if the analysis was done on a single thread.
+     * <p>
+     * The forks other than the difference analyzer itself are opened before they analyze their first pair and closed
+     * once all the pairs have been analyzed. If the analysis of some pair fails, the analysis of the remaining pairs is
+     * cancelled.
+     *
+     * @return false if the difference analyzer cannot be forked and therefore nothing was analyzed
+     */
+    private <E extends Element<E>> boolean analyzeConcurrently(CorrespondenceComparatorDeducer<E> deducer,
+            DifferenceAnalyzer<E> elementDifferenceAnalyzer, SortedSet<E> as, SortedSet<E> bs, int threads,
+            AnalysisProgress progress, Consumer<Report> sink) throws Exception {
+
+        // the forks that need to be closed once the analysis is done
+        Queue<DifferenceAnalyzer<E>> openForks = new ConcurrentLinkedQueue<>();
+
+        DifferenceAnalyzer<E> firstFork = openFork(elementDifferenceAnalyzer, openForks);
+        if (firstFork == null) {
+            LOG.debug("Difference analyzer {} cannot be forked. Falling back to the single-threaded analysis.",
+                    elementDifferenceAnalyzer);
+            return false;
+        }
+
+        // the forks are reused by the subsequent pairs, so that we only ever create as many as there are threads
+        Queue<DifferenceAnalyzer<E>> idleForks = new ConcurrentLinkedQueue<>();
+        idleForks.add(firstFork);
+
+        List<Future<List<Report>>> results = new ArrayList<>();
+
+        ExecutorService executor = newExecutor("Revapi Difference Analysis Thread", threads);
+        try {
+            CoIterator<E> it = pairUp(deducer, as, bs, progress);
+            while (it.hasNext()) {
+                it.next();
+
+                E a = it.getLeft();
+                E b = it.getRight();
+
+                results.add(executor.submit(() -> {
+                    DifferenceAnalyzer<E> fork = idleForks.poll();
+                    if (fork == null) {
+                        fork = openFork(elementDifferenceAnalyzer, openForks);
+                        if (fork == null) {
+                            throw new IllegalStateException(
+                                    "Difference analyzer " + elementDifferenceAnalyzer + " could be forked only once.");
+                        }
+                    }
+
+                    try {
+                        List<Report> reports = new ArrayList<>();
+                        analyzePair(deducer, fork, a, b, emptyList(), progress, reports::add);
+                        return reports;
+                    } finally {
+                        idleForks.add(fork);
+                    }
+                }));
+            }
+
+            for (Future<List<Report>> r : results) {
+                join(r).forEach(sink);
+            }
+        } finally {
+            // if some pair failed, there's no point in analyzing the rest. If all succeeded, this is a no-op.
+            results.forEach(f -> f.cancel(true));
+            executor.shutdownNow();
+
+            // don't close the forks while some of them might still be analyzing
+            if (executor.awaitTermination(CANCELLED_ANALYSIS_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                closeForks(openForks);
+            } else {
+                LOG.warn(
+                        "Some of the forks of the difference analyzer {} did not stop analyzing within {} seconds"
+                                + " after the analysis failed. The forks are left unclosed.",
+                        elementDifferenceAnalyzer, CANCELLED_ANALYSIS_TIMEOUT_SECONDS);
+            }
+        }
+
+        return true;
+    }
+
+    @Nullable
+    private static <E extends Element<E>> DifferenceAnalyzer<E> openFork(DifferenceAnalyzer<E> analyzer,
+            Queue<DifferenceAnalyzer<E>> openForks) {
+        DifferenceAnalyzer<E> fork = analyzer.fork();
+
+        // the analyzer itself is already open and is closed by the caller
+        if (fork != null && fork != analyzer) {
+            fork.open();
+            openForks.add(fork);
+        }
+
+        return fork;
+    }
+
+    private static <E extends Element<E>> void closeForks(Queue<DifferenceAnalyzer<E>> openForks) throws Exception {
+        Exception failure = null;
+        for (DifferenceAnalyzer<E> fork : openForks) {
+            try {
+                fork.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     private <E extends Element<E>> void analyze(CorrespondenceComparatorDeducer<E> deducer,
             DifferenceAnalyzer<E> elementDifferenceAnalyzer, SortedSet<E> as, SortedSet<E> bs,
-            Collection<DifferenceTransform.TraversalTracker<E>> activeTransforms, AnalysisProgress progress) {
+            Collection<DifferenceTransform.TraversalTracker<E>> activeTransforms, AnalysisProgress progress,
+            Consumer<Report> reports) {
+
+        CoIterator<E> it = pairUp(deducer, as, bs, progress);
 
+        while (it.hasNext()) {
+            it.next();
+
+            analyzePair(deducer, elementDifferenceAnalyzer, it.getLeft(), it.getRight(), activeTransforms, progress,
+                    reports);
+        }
+    }
+
+    private static <E extends Element<E>> CoIterator<E> pairUp(CorrespondenceComparatorDeducer<E> deducer,
+            SortedSet<E> as, SortedSet<E> bs, AnalysisProgress progress) {
         List<E> sortedAs = new ArrayList<>(as);
         List<E> sortedBs = new ArrayList<>(bs);
 
-        Stats.of("sorts").start();
+        long sortStart = progress.sorts.start();
         Comparator<? super E> comp = deducer.sortAndGetCorrespondenceComparator(sortedAs, sortedBs);
-        Stats.of("sorts").end(sortedAs, sortedBs);
+        progress.sorts.stop(sortStart);
 
-        CoIterator<E> it = new CoIterator<>(sortedAs.iterator(), sortedBs.iterator(), comp);
-
-        while (it.hasNext()) {
-            it.next();
-
-            E a = it.getLeft();
-            E b = it.getRight();
+        return new CoIterator<>(sortedAs.iterator(), sortedBs.iterator(), comp);
+    }
 
-            LOG.trace("Inspecting {} and {}", a, b);
+    private <E extends Element<E>> void analyzePair(CorrespondenceComparatorDeducer<E> deducer,
+            DifferenceAnalyzer<E> elementDifferenceAnalyzer, @Nullable E a, @Nullable E b,
+            Collection<DifferenceTransform.TraversalTracker<E>> activeTransforms, AnalysisProgress progress,
+            Consumer<Report> reports) {
+        LOG.trace("Inspecting {} and {}", a, b);
 
-            long beginDuration;
-            Stats.of("analyses").start();
-            Stats.of("analysisBegins").start();
+        progress.elementPairs.increment();
+        long beginStart = progress.analysisBegins.start();
 
-            List<DifferenceTransform.TraversalTracker<E>> childTransforms = activeTransforms.stream()
-                    .filter(t -> (a != null && b != null) | t.startElements(a, b)) // intentional non-short-circuit "or"
-                    .collect(toList());
+        List<DifferenceTransform.TraversalTracker<E>> childTransforms = activeTransforms.stream()
+                .filter(t -> (a != null && b != null) | t.startElements(a, b)) // intentional non-short-circuit "or"
+                .collect(toList());
 
-            elementDifferenceAnalyzer.beginAnalysis(a, b);
+        elementDifferenceAnalyzer.beginAnalysis(a, b);
 
-            Stats.of("analysisBegins").end(a, b);
-            beginDuration = Stats.of("analyses").reset();
+        long beginDuration = progress.analysisBegins.stop(beginStart);
 
-            boolean shouldDescend = a != null && b != null;
-            if (!shouldDescend) {
-                shouldDescend = !childTransforms.isEmpty() || elementDifferenceAnalyzer.isDescendRequired(a, b);
-            }
+        boolean shouldDescend = a != null && b != null;
+        if (!shouldDescend) {
+            shouldDescend = !childTransforms.isEmpty() || elementDifferenceAnalyzer.isDescendRequired(a, b);
+        }
 
-            if (shouldDescend) {
-                LOG.trace("Descending into {}, {} pair.", a, b);
-                analyze(deducer, elementDifferenceAnalyzer, a == null ? emptySortedSet() : a.getChildren(),
-                        b == null ? emptySortedSet() : b.getChildren(), childTransforms, progress);
-            } else {
-                LOG.trace("Filters disallowed descending into {} and {}.", a, b);
-            }
+        if (shouldDescend) {
+            LOG.trace("Descending into {}, {} pair.", a, b);
+            analyze(deducer, elementDifferenceAnalyzer, a == null ? emptySortedSet() : a.getChildren(),
+                    b == null ? emptySortedSet() : b.getChildren(), childTransforms, progress, reports);
+        } else {
+            LOG.trace("Filters disallowed descending into {} and {}.", a, b);
+        }
 
-            Stats.of("analyses").start();
-            Stats.of("analysisEnds").start();
+        long endStart = progress.analysisEnds.start();
 
-            Report r = elementDifferenceAnalyzer.endAnalysis(a, b);
-            if (r != null && !r.getDifferences().isEmpty()) {
-                addDefaultAttachments(r, progress);
-                progress.reports.add(r);
-            }
+        Report r = elementDifferenceAnalyzer.endAnalysis(a, b);
+        if (r != null && !r.getDifferences().isEmpty()) {
+            addDefaultAttachments(r, progress);
+            reports.accept(r);
+        }
 
-            Stats.of("analysisEnds").end(a, b);
-            Stats.of("analyses").end(beginDuration, new AbstractMap.SimpleEntry<>(a, b));
+        long endDuration = progress.analysisEnds.stop(endStart);
+        progress.analyses.record(beginDuration + endDuration);
 
-            for (DifferenceTransform.TraversalTracker<E> t : activeTransforms) {
-                t.endElements(a, b);
-            }
+        for (DifferenceTransform.TraversalTracker<E> t : activeTransforms) {
+            t.endElements(a, b);
         }
     }
 
@@ -548,14 +775,13 @@ public final class Revapi {
         };
     }
 
-    private void transform(Report report, Collection<DifferenceTransform<?>> eligibleTransforms,
-            AnalysisProgress progress) {
+    private void transform(Report report, DifferenceTransformDispatch.Restricted dispatch, AnalysisProgress progress) {
 
         if (report == null) {
             return;
         }
 
-        Stats.of("report-transforms").start();
+        long reportTransformsStart = progress.reportTransforms.start();
 
         Element<?> oldElement = report.getOldElement();
         Element<?> newElement = report.getNewElement();
@@ -565,42 +791,59 @@ public final class Revapi {
         do {
             listChanged = false;
 
-            // this is the transformations done on the differences so far.
-            List<List<Difference>> transformChain = new ArrayList<>(2);
+            // this is the transformations done on the differences so far. Only allocated when diagnosing.
+            List<List<Difference>> transformChain = null;
             boolean doDiagnostics = false;
             int diagnosedChainLength = 0;
 
+            // the results of the blocks are collected in the same list for all the differences. The list only gets
+            // copied if a block changes the difference.
+            List<Difference> blockResults = progress.blockResults;
+
             ListIterator<Difference> it = report.getDifferences().listIterator();
-            Set<Difference> transformed = new HashSet<>(1); // this will hopefully be the max of transforms
+            Set<Difference> transformed = null; // only allocated once some difference is transformed
             while (it.hasNext()) {
                 Difference d = it.next();
-                transformed.clear();
+                if (transformed != null) {
+                    transformed.clear();
+                }
                 boolean differenceChanged = false;
 
-                Stats.of("transform").start();
+                long transformStart = progress.transforms.start();
+
+                if (doDiagnostics) {
+                    if (transformChain == null) {
+                        transformChain = new ArrayList<>(diagnosedChainLength);
+                    }
 
-                if (doDiagnostics && transformChain.size() < diagnosedChainLength) {
-                    transformChain.add(new ArrayList<>(report.getDifferences()));
+                    if (transformChain.size() < diagnosedChainLength) {
+                        transformChain.add(new ArrayList<>(report.getDifferences()));
+                    }
                 }
 
-                LOG.debug("Transformation iteration {}", iteration);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Transformation iteration {}", iteration);
+                }
 
-                for (List<DifferenceTransform<?>> tb : getTransformsForDifference(d, eligibleTransforms, progress)) {
-                    List<Difference> blockResults = new ArrayList<>(singletonList(d));
+                for (List<DifferenceTransform<?>> tb : dispatch.getBlocks(d.code)) {
+                    blockResults.clear();
+                    blockResults.add(d);
 
-                    Stats.of("transform-block " + tb).start();
+                    Metrics.Timer blockTimer = progress.transformBlockTimer(tb);
+                    long blockStart = blockTimer.start();
 
                     for (DifferenceTransform<?> t : tb) {
-                        ListIterator<Difference> blockResultsIt = blockResults.listIterator();
-
                         // it is the responsibility of the transform to declare the proper type.
                         // it will get a ClassCastException if it fails to declare a type that is common to all
                         // differences it can handle
                         @SuppressWarnings("rawtypes")
                         DifferenceTransform transform = t;
 
-                        while (blockResultsIt.hasNext()) {
-                            Difference currentDiff = blockResultsIt.next();
+                        // indexed iteration, because this is the hot path and we don't want to allocate an iterator
+                        // for each transform
+                        int i = 0;
+                        while (i < blockResults.size()) {
+                            Difference currentDiff = blockResults.get(i);
                             TransformationResult res;
                             try {
                                 // noinspection unchecked
@@ -615,19 +858,22 @@ public final class Revapi {
                             switch (res.getResolution()) {
                             case KEEP:
                                 // good, let's continue with the next transform in the block
+                                i++;
                                 break;
                             case REPLACE:
-                                blockResultsIt.remove();
+                                blockResults.remove(i);
                                 if (res.getDifferences() != null) {
                                     if (LOG.isDebugEnabled() && tb.size() > 1) {
                                         LOG.debug("Difference transform {} from block {} transformed {} to {}", t, tb,
                                                 currentDiff, res.getDifferences());
                                     }
-                                    res.getDifferences().forEach(blockResultsIt::add);
+                                    // the replacements are not processed by the same transform again
+                                    blockResults.addAll(i, res.getDifferences());
+                                    i += res.getDifferences().size();
                                 }
                                 break;
                             case DISCARD:
-                                blockResultsIt.remove();
+                                blockResults.remove(i);
                                 if (LOG.isDebugEnabled() && tb.size() > 1) {
                                     LOG.debug("Difference transform {} from block {} removed the difference {}.", t, tb,
                                             currentDiff);
@@ -635,6 +881,7 @@ public final class Revapi {
                                 break;
                             case UNDECIDED:
                                 // this is the same as KEEP
+                                i++;
                                 break;
                             }
                         }
@@ -647,11 +894,14 @@ public final class Revapi {
                             LOG.debug("Difference transform block {} transformed {} to {}", tb, d, blockResults);
                         }
 
+                        if (transformed == null) {
+                            transformed = new HashSet<>(2);
+                        }
                         transformed.addAll(blockResults);
                         differenceChanged = true;
                     }
 
-                    Stats.of("transform-block " + tb).end(d);
+                    blockTimer.stop(blockStart);
                 }
 
                 if (differenceChanged) {
@@ -670,7 +920,7 @@ public final class Revapi {
                     }
                 }
 
-                Stats.of("transform").end(d);
+                progress.transforms.stop(transformStart);
 
                 iteration++;
 
@@ -688,7 +938,7 @@ public final class Revapi {
                     }
                 }
 
-                if (doDiagnostics && transformChain.size() == diagnosedChainLength) {
+                if (doDiagnostics && transformChain != null && transformChain.size() == diagnosedChainLength) {
                     LOG.warn("The last " + diagnosedChainLength + " transformations are: " + transformChain);
                     doDiagnostics = false;
                     transformChain.clear();
@@ -703,35 +953,7 @@ public final class Revapi {
             }
         } while (listChanged);
 
-        Stats.of("report-transforms").end(report);
-    }
-
-    private Set<List<DifferenceTransform<?>>> getTransformsForDifference(Difference diff,
-            Collection<DifferenceTransform<?>> eligibleTransforms, AnalysisProgress progress) {
-        Set<List<DifferenceTransform<?>>> ret = progress.matchingTransformsCache.get(diff.code);
-        if (ret == null) {
-            ret = new HashSet<>();
-            for (List<DifferenceTransform<?>> ts : progress.transformBlocks) {
-                List<DifferenceTransform<?>> actualTs = new ArrayList<>(ts.size());
-                for (DifferenceTransform<?> t : ts) {
-                    for (Predicate<String> predicate : t.getDifferenceCodePredicates()) {
-                        if (predicate.test(diff.code)) {
-                            actualTs.add(t);
-                            break;
-                        }
-                    }
-                }
-                if (!actualTs.isEmpty()) {
-                    ret.add(actualTs);
-                }
-            }
-            progress.matchingTransformsCache.put(diff.code, ret);
-        }
-
-        ret = new HashSet<>(ret);
-        ret.forEach(l -> l.retainAll(eligibleTransforms));
-
-        return ret;
+        progress.reportTransforms.stop(reportTransformsStart);
     }
 
     /**
@@ -977,15 +1199,56 @@ public final class Revapi {
         final API oldApi;
         final API newApi;
         final List<Report> reports;
-        final Map<String, Set<List<DifferenceTransform<?>>>> matchingTransformsCache = new HashMap<>();
+        final DifferenceTransformDispatch transformDispatch;
+        final List<Difference> blockResults = new ArrayList<>(2);
+        final Metrics metrics;
+        final Metrics.Timer treeConstruction;
+        final Metrics.Timer oldTreeConstruction;
+        final Metrics.Timer newTreeConstruction;
+        final Metrics.Timer sorts;
+        final Metrics.Timer analyses;
+        final Metrics.Timer analysisBegins;
+        final Metrics.Timer analysisEnds;
+        final Metrics.Timer reportTransforms;
+        final Metrics.Timer transforms;
+        final Metrics.Timer reportsTimer;
+        final Metrics.Counter elementPairs;
+        final Metrics.Counter differences;
+        private final Map<List<DifferenceTransform<?>>, Metrics.Timer> transformBlockTimers = new IdentityHashMap<>();
 
         AnalysisProgress(AnalysisResult.Extensions extensions, PipelineConfiguration configuration, API oldApi,
-                API newApi) {
+                API newApi, Metrics metrics) {
             this.extensions = extensions;
             this.oldApi = oldApi;
             this.newApi = newApi;
             this.transformBlocks = groupTransformsToBlocks(extensions, configuration);
+            this.transformDispatch = new DifferenceTransformDispatch(transformBlocks);
             this.reports = new ArrayList<>();
+            this.metrics = metrics;
+            this.treeConstruction = metrics.timer("treeConstruction");
+            this.oldTreeConstruction = metrics.timer("oldTreeConstruction");
+            this.newTreeConstruction = metrics.timer("newTreeConstruction");
+            this.sorts = metrics.timer("sorts");
+            this.analyses = metrics.timer("analyses");
+            this.analysisBegins = metrics.timer("analysisBegins");
+            this.analysisEnds = metrics.timer("analysisEnds");
+            this.reportTransforms = metrics.timer("reportTransforms");
+            this.transforms = metrics.timer("transforms");
+            this.reportsTimer = metrics.timer("reports");
+            this.elementPairs = metrics.counter("elementPairs");
+            this.differences = metrics.counter("differences");
+        }
+
+        Metrics.Timer transformBlockTimer(List<DifferenceTransform<?>> block) {
+            // the blocks are cached and therefore we can look them up by identity and avoid constructing the name each
+            // time. Not using computeIfAbsent so that we don't allocate the capturing lambda on each call.
+            Metrics.Timer ret = transformBlockTimers.get(block);
+            if (ret == null) {
+                ret = metrics.timer(
+                        "transformBlock " + block.stream().map(DifferenceTransform::getExtensionId).collect(toList()));
+                transformBlockTimers.put(block, ret);
+            }
+            return ret;
         }
     }
 }
@@ -18,7 +18,7 @@ package org.revapi;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 
 /**
@@ -28,9 +28,14 @@ import java.util.stream.Collectors;
  * @author Lukas Krejci
  *
  * @since 0.4.1
+ *
+ * @deprecated use the {@link Metrics} available from {@link AnalysisContext#getMetrics()} instead. The stats are only
+ *             collected if the {@code revapi.analysis.timing} logger is on the DEBUG level, are shared by all the
+ *             analyses in the JVM and the analysis itself no longer reports any stats here.
  */
+@Deprecated
 public final class Stats {
-    private static final Map<String, Collector> COLLECTORS = new TreeMap<>();
+    private static final Map<String, Collector> COLLECTORS = new ConcurrentSkipListMap<>();
 
     private Stats() {
 
@@ -41,13 +46,7 @@ public final class Stats {
             return DummyCollector.INSTANCE;
         }
 
-        Collector ret = COLLECTORS.get(stat);
-        if (ret == null) {
-            ret = new Collector();
-            COLLECTORS.put(stat, ret);
-        }
-
-        return ret;
+        return COLLECTORS.computeIfAbsent(stat, __ -> new Collector());
     }
 
     public static String asString() {
@@ -16,18 +16,15 @@
  */
 package org.revapi.base;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.revapi.API;
 import org.revapi.Element;
 import org.revapi.ElementForest;
-import org.revapi.FilterFinishResult;
-import org.revapi.FilterStartResult;
 import org.revapi.TreeFilter;
 
 /**
@@ -58,55 +55,26 @@ public class BaseElementForest<E extends Element<E>> implements ElementForest<E>
         return roots;
     }
 
+    /**
+     * The returned stream is lazy - the forest is walked and the filter is applied to the elements only as the stream
+     * is consumed. If there is no filter, the stream can be made parallel, in which case the subtrees of the searched
+     * elements are walked in parallel.
+     * <p>
+     * Because of that, the filter is only {@link TreeFilter#finish(Element) finished} on the elements the walk has left
+     * and the {@link TreeFilter#finish() final} {@code finish()} is only called once the whole forest has been walked.
+     * If the stream is not consumed fully (e.g. using {@link Stream#findFirst()}, {@link Stream#anyMatch} or
+     * {@link Stream#limit(long)}), the filter is left with elements it started but never finished. The callers using
+     * stateful filters that need to see the whole walk have to consume the whole stream.
+     */
     public <T extends Element<E>> Stream<T> stream(Class<T> resultType, boolean recurse, TreeFilter<E> filter,
             Element<E> root) {
-        List<T> results = new ArrayList<>();
-        search(results, resultType, root == null ? getRoots() : root.getChildren(), recurse, filter);
-        return results.stream();
+        SortedSet<E> siblings = root == null ? getRoots() : root.getChildren();
+        return StreamSupport.stream(new ForestSpliterator<>(resultType, recurse, filter, siblings.iterator()), false);
     }
 
     protected <T extends Element<E>> void search(List<T> results, Class<T> resultType, SortedSet<E> siblings,
             boolean recurse, TreeFilter<E> filter) {
-        search(results, resultType, siblings, recurse, filter, true);
-    }
-
-    @SuppressWarnings({ "SuspiciousMethodCalls" })
-    private <T extends Element<E>> void search(List<T> results, Class<T> resultType, SortedSet<E> siblings,
-            boolean recurse, TreeFilter<E> filter, boolean topLevel) {
-        for (E e : siblings) {
-            FilterStartResult res;
-            if (filter == null) {
-                res = FilterStartResult.matchAndDescend();
-            } else {
-                res = filter.start(e);
-            }
-
-            boolean added = res.getMatch().toBoolean(true);
-
-            if (added && resultType.isAssignableFrom(e.getClass())) {
-                results.add(resultType.cast(e));
-            }
-
-            if (recurse && res.getDescend().toBoolean(true)) {
-                search(results, resultType, e.getChildren(), true, filter, false);
-            }
-
-            if (filter != null) {
-                FilterFinishResult finalMatch = filter.finish(e);
-                if (!added && finalMatch.getMatch().toBoolean(true) && resultType.isAssignableFrom(e.getClass())) {
-                    results.add(resultType.cast(e));
-                }
-            }
-        }
-
-        if (topLevel && filter != null) {
-            Map<E, FilterFinishResult> matches = filter.finish();
-            for (Map.Entry<E, FilterFinishResult> e : matches.entrySet()) {
-                if (e.getValue().getMatch().toBoolean(true) && !results.contains(e.getKey())) {
-                    results.add(resultType.cast(e.getKey()));
-                }
-            }
-        }
+        new ForestSpliterator<>(resultType, recurse, filter, siblings.iterator()).forEachRemaining(results::add);
     }
 
     @Override
@@ -32,7 +32,7 @@ import org.revapi.Archive;
  *
  * @since 0.4.1
  */
-public class FileArchive implements Archive {
+public class FileArchive implements Archive.FileBacked {
     private final File file;
 
     public FileArchive(File file) {
@@ -49,6 +49,7 @@ public class FileArchive implements Archive {
         return new FileInputStream(file);
     }
 
+    @Override
     public File getFile() {
         return file;
     }
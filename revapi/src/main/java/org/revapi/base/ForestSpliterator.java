@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.base;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.revapi.Element;
+import org.revapi.FilterFinishResult;
+import org.revapi.FilterStartResult;
+import org.revapi.TreeFilter;
+
+/**
+ * Lazily walks the element forest in the depth-first order and produces the elements matching the tree filter.
+ *
+ * <p>
+ * The filter is started and finished on the elements only as the elements are consumed, so the consumers that stop
+ * early don't walk the rest of the forest. Because the tree filters are stateful, the spliterator can only be split if
+ * there is no filter. In that case, the elements on the top level are divided between the splits.
+ *
+ * @param <E>
+ *            the base type of the elements in the forest
+ * @param <T>
+ *            the type of the produced elements
+ *
+ * @author Lukas Krejci
+ */
+final class ForestSpliterator<E extends Element<E>, T extends Element<E>> implements Spliterator<T> {
+    private final Class<T> resultType;
+    private final boolean recurse;
+    private final @Nullable TreeFilter<E> filter;
+    private Iterator<E> topLevel;
+
+    private final Deque<Frame<E>> stack = new ArrayDeque<>();
+
+    /**
+     * The elements produced so far so that the matches decided only after the whole walk are not produced twice. Only
+     * needed if there is a filter.
+     */
+    private final @Nullable Set<E> produced;
+    private @Nullable Iterator<Map.Entry<E, FilterFinishResult>> finalMatches;
+
+    ForestSpliterator(Class<T> resultType, boolean recurse, @Nullable TreeFilter<E> filter, Iterator<E> topLevel) {
+        this.resultType = resultType;
+        this.recurse = recurse;
+        this.filter = filter;
+        this.topLevel = topLevel;
+        this.produced = filter == null ? null : Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (true) {
+            Frame<E> current = stack.peek();
+            E next;
+            if (current == null) {
+                if (topLevel.hasNext()) {
+                    next = topLevel.next();
+                } else {
+                    return advanceFinalMatches(action);
+                }
+            } else if (current.children != null && current.children.hasNext()) {
+                next = current.children.next();
+            } else {
+                stack.pop();
+                if (finish(current, action)) {
+                    return true;
+                }
+                continue;
+            }
+
+            if (start(next, action)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean start(E element, Consumer<? super T> action) {
+        FilterStartResult res = filter == null ? FilterStartResult.matchAndDescend() : filter.start(element);
+
+        boolean added = res.getMatch().toBoolean(true);
+
+        Iterator<E> children = recurse && res.getDescend().toBoolean(true) ? element.getChildren().iterator() : null;
+        stack.push(new Frame<>(element, added, children));
+
+        return added && produce(element, action);
+    }
+
+    private boolean finish(Frame<E> frame, Consumer<? super T> action) {
+        if (filter == null) {
+            return false;
+        }
+
+        FilterFinishResult finalMatch = filter.finish(frame.element);
+        return !frame.added && finalMatch.getMatch().toBoolean(true) && produce(frame.element, action);
+    }
+
+    private boolean advanceFinalMatches(Consumer<? super T> action) {
+        if (filter == null) {
+            return false;
+        }
+
+        if (finalMatches == null) {
+            finalMatches = filter.finish().entrySet().iterator();
+        }
+
+        while (finalMatches.hasNext()) {
+            Map.Entry<E, FilterFinishResult> e = finalMatches.next();
+            if (e.getValue().getMatch().toBoolean(true) && !produced.contains(e.getKey())
+                    && produce(e.getKey(), action)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean produce(E element, Consumer<? super T> action) {
+        if (!resultType.isInstance(element)) {
+            return false;
+        }
+
+        if (produced != null) {
+            produced.add(element);
+        }
+
+        action.accept(resultType.cast(element));
+        return true;
+    }
+
+    @Override
+    public @Nullable Spliterator<T> trySplit() {
+        if (filter != null || !stack.isEmpty()) {
+            return null;
+        }
+
+        List<E> rest = new ArrayList<>();
+        topLevel.forEachRemaining(rest::add);
+
+        if (rest.size() < 2) {
+            topLevel = rest.iterator();
+            return null;
+        }
+
+        int half = rest.size() / 2;
+        topLevel = rest.subList(half, rest.size()).iterator();
+        return new ForestSpliterator<>(resultType, recurse, null, rest.subList(0, half).iterator());
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+
+    private static final class Frame<E> {
+        final E element;
+        final boolean added;
+        final @Nullable Iterator<E> children;
+
+        Frame(E element, boolean added, @Nullable Iterator<E> children) {
+            this.element = element;
+            this.added = added;
+            this.children = children;
+        }
+    }
+}
@@ -16,13 +16,19 @@
  */
 package org.revapi.base;
 
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import javax.annotation.Nullable;
@@ -66,9 +72,81 @@ public abstract class ZipArchiveAnalyzer<F extends BaseElementForest<E>, E exten
         this.matchPatterns = matchPatterns;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * If the archive is backed by a file, the zip file is opened for random access and only the entries matching the
+     * {@link #matchPatterns} are read. These are parsed in parallel if {@link #isParallelEntryParsingSupported()}.
+     * Other archives are read sequentially as a zip stream. If there are no match patterns, the archive is read as a
+     * single uncompressed file.
+     */
     @Override
     protected Set<E> createElements(Archive archive) {
         Set<E> all = new HashSet<>();
+
+        if (matchPatterns.isEmpty()) {
+            // no entry in the zip could ever match, so the archive can only be considered a single file
+            try (InputStream in = archive.openStream()) {
+                all.addAll(createElements(archive, null, in));
+            } catch (IOException e) {
+                // well, we can't do much but to log and continue...
+                LOG.debug(getClass().getSimpleName() + ": failed to analyze archive '" + archive.getName()
+                        + "' as an uncompressed file.", e);
+            }
+
+            return all;
+        }
+
+        try {
+            File file = archive instanceof Archive.FileBacked ? ((Archive.FileBacked) archive).getFile() : null;
+            if (file != null && file.isFile()) {
+                createElementsFromZipFile(archive, file, all);
+            } else {
+                createElementsFromZipStream(archive, all);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            LOG.debug("Failed to read archive '" + archive + "' as a ZIP archive.", e);
+            all.clear();
+        }
+
+        return all;
+    }
+
+    /**
+     * Whether the {@link #createElements(Archive, ZipEntry, InputStream)} method can be called concurrently for the
+     * different entries of a zip file. Defaults to false.
+     *
+     * @return true if the entries of a zip file can be parsed in parallel, false otherwise
+     *
+     * @since 0.16.0
+     */
+    protected boolean isParallelEntryParsingSupported() {
+        return false;
+    }
+
+    private void createElementsFromZipFile(Archive archive, File file, Set<E> all) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            // the names are read from the central directory, so the non-matching entries are never inflated
+            List<? extends ZipEntry> entries = zip.stream().filter(this::nameMatches).collect(toList());
+
+            Stream<? extends ZipEntry> entryStream = entries.stream();
+            if (entries.size() > 1 && isParallelEntryParsingSupported()) {
+                // this uses the common fork-join pool that is bounded by the number of CPUs
+                entryStream = entryStream.parallel();
+            }
+
+            all.addAll(entryStream.flatMap(entry -> {
+                try (InputStream in = zip.getInputStream(entry)) {
+                    return createElements(archive, entry, in).stream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(toList()));
+        }
+    }
+
+    private void createElementsFromZipStream(Archive archive, Set<E> all) throws IOException {
         try (ZipInputStream in = new ZipInputStream(archive.openStream())) {
             ZipEntry entry;
             while ((entry = in.getNextEntry()) != null) {
@@ -77,25 +155,7 @@ public abstract class ZipArchiveAnalyzer<F extends BaseElementForest<E>, E exten
                 }
                 in.closeEntry();
             }
-        } catch (IOException e) {
-            // let's just not try to open the archive again while we have it still open... If I remember correctly,
-            // Windows might have trouble conforming...
-            LOG.debug("Failed to read archive '" + archive + "' as a ZIP archive. Retrying as an uncompressed stream.",
-                    e);
-            all.clear();
-        }
-
-        if (all.isEmpty() && matchPatterns.isEmpty()) {
-            try (InputStream in2 = archive.openStream()) {
-                all.addAll(createElements(archive, null, in2));
-            } catch (IOException e2) {
-                // well, we can't do much but to log and continue...
-                LOG.debug(getClass().getSimpleName() + ": failed to analyze archive '" + archive.getName()
-                        + "' both as a zip archive and as an uncompressed file.");
-            }
         }
-
-        return all;
     }
 
     /**
@@ -18,6 +18,8 @@ package org.revapi.configuration;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
@@ -41,6 +43,16 @@ import org.jboss.dmr.ModelNode;
  * @since 0.1
  */
 public final class ConfigurationValidator {
+    /**
+     * The maximum number of the compiled schemas kept in each of the caches.
+     */
+    private static final int MAX_CACHED_SCHEMAS = 128;
+
+    // compiling the schemas is expensive compared to the validation itself and the same schemas are validated against
+    // over and over again, e.g. by all the modules in a build. The compiled schemas are therefore shared in the whole
+    // JVM, keyed by the schema text as provided by the configurables or by the JSON representation of the schema.
+    private static final Map<String, JsonSchema> SCHEMAS_BY_TEXT = newSchemaCache();
+    private static final Map<JsonNode, JsonSchema> SCHEMAS_BY_JSON = newSchemaCache();
 
     /**
      * Validates that the full configuration contains valid configuration for given configurable.
@@ -134,27 +146,87 @@ public final class ConfigurationValidator {
     public ValidationResult validate(JsonNode extensionConfiguration, JsonNode configurationSchema)
             throws ConfigurationException {
         try {
-            JsonSchema jsonSchema = JsonSchemaFactory.getInstance(detectVersionOrV4(configurationSchema))
-                    .getSchema(configurationSchema);
-            Set<ValidationMessage> result = jsonSchema.validate(extensionConfiguration);
-            return ValidationResult.fromValidationMessages(result);
+            JsonSchema jsonSchema;
+            synchronized (SCHEMAS_BY_JSON) {
+                jsonSchema = SCHEMAS_BY_JSON.get(configurationSchema);
+            }
+
+            if (jsonSchema == null) {
+                jsonSchema = compile(configurationSchema);
+                synchronized (SCHEMAS_BY_JSON) {
+                    // the caller is free to modify the schema afterwards, so we need our own copy as the key
+                    SCHEMAS_BY_JSON.put(configurationSchema.deepCopy(), jsonSchema);
+                }
+            }
+
+            return validate(extensionConfiguration, jsonSchema);
         } catch (RuntimeException e) {
             throw new ConfigurationException("Failed to validate configuration.", e);
         }
     }
 
+    private static ValidationResult validate(JsonNode extensionConfiguration, JsonSchema schema) {
+        Set<ValidationMessage> result;
+        // the schemas initialize their validators lazily on the first use, so let's not share them between threads
+        // concurrently
+        synchronized (schema) {
+            result = schema.validate(extensionConfiguration);
+        }
+        return ValidationResult.fromValidationMessages(result);
+    }
+
+    private static JsonSchema compile(JsonNode schema) {
+        return JsonSchemaFactory.getInstance(detectVersionOrV4(schema)).getSchema(schema);
+    }
+
+    private static JsonSchema getSchema(String schemaText) {
+        JsonSchema ret;
+        synchronized (SCHEMAS_BY_TEXT) {
+            ret = SCHEMAS_BY_TEXT.get(schemaText);
+        }
+
+        if (ret == null) {
+            ret = compile(JSONUtil.parse(schemaText));
+            synchronized (SCHEMAS_BY_TEXT) {
+                SCHEMAS_BY_TEXT.put(schemaText, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    private static String readFully(Reader reader) throws IOException {
+        StringBuilder bld = new StringBuilder();
+        char[] buffer = new char[8192];
+        int cnt;
+        while ((cnt = reader.read(buffer)) != -1) {
+            bld.append(buffer, 0, cnt);
+        }
+
+        return bld.toString();
+    }
+
+    private static <K> Map<K, JsonSchema> newSchemaCache() {
+        return new LinkedHashMap<K, JsonSchema>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, JsonSchema> eldest) {
+                return size() > MAX_CACHED_SCHEMAS;
+            }
+        };
+    }
+
     private ValidationResult _validate(JsonNode fullConfiguration, Configurable configurable) throws IOException {
         String extensionId = configurable.getExtensionId();
         if (extensionId == null) {
             return ValidationResult.success();
         }
 
-        JsonNode schema;
+        String schema;
         try (Reader rdr = configurable.getJSONSchema()) {
             if (rdr == null) {
                 return ValidationResult.success();
             }
-            schema = JSONUtil.parse(rdr);
+            schema = readFully(rdr);
         }
 
         JsonNode extensionConfig = null;
@@ -177,7 +249,13 @@ public final class ConfigurationValidator {
             extensionConfig = JsonNodeFactory.instance.nullNode();
         }
 
-        ValidationResult result = validate(extensionConfig, schema);
+        ValidationResult result;
+        try {
+            result = validate(extensionConfig, getSchema(schema));
+        } catch (RuntimeException e) {
+            throw new ConfigurationException("Failed to validate configuration.", e);
+        }
+
         if (result.getErrors() != null) {
             for (int i = 0; i < result.getErrors().length; ++i) {
                 ValidationResult.Error e = result.getErrors()[i];
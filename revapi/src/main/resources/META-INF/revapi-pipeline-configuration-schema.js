@@ -37,6 +37,13 @@
     },
     "reporters": {
         "$ref": "#/definitions/extensionType"
+    },
+    "parallelTreeConstruction": {
+        "type": "boolean"
+    },
+    "differenceAnalysisThreads": {
+        "type": "integer",
+        "minimum": 1
     }
   },
   "definitions": {
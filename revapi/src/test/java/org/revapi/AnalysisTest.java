@@ -16,12 +16,22 @@
  */
 package org.revapi;
 
+import static java.util.stream.Collectors.toList;
+
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -32,9 +42,11 @@ import org.junit.Test;
 import org.revapi.base.BaseApiAnalyzer;
 import org.revapi.base.BaseArchiveAnalyzer;
 import org.revapi.base.BaseDifferenceAnalyzer;
+import org.revapi.base.BaseDifferenceTransform;
 import org.revapi.base.BaseElement;
 import org.revapi.base.BaseElementForest;
 import org.revapi.base.BaseReporter;
+import org.revapi.base.CollectingReporter;
 
 /**
  * @author Lukas Krejci
@@ -72,6 +84,144 @@ public class AnalysisTest {
         }
     }
 
+    @Test
+    public void testParallelTreeConstruction() throws Exception {
+        PipelineConfiguration cfg = PipelineConfiguration.builder().withAnalyzers(DummyAnalyzer.class)
+                .withReporters(CollectingReporter.class).withParallelTreeConstruction(true).build();
+        Revapi r = new Revapi(cfg);
+
+        AnalysisContext ctx = AnalysisContext.builder(r).withNewAPI(API.of().build()).withOldAPI(API.of().build())
+                .build();
+
+        try (AnalysisResult res = r.analyze(ctx)) {
+            Assert.assertTrue(res.isSuccess());
+
+            CollectingReporter reporter = res.getExtensions().getFirstExtension(CollectingReporter.class, null);
+            Assert.assertEquals(1, reporter.getReports().size());
+        }
+    }
+
+    @Test
+    public void testMetricsCollected() throws Exception {
+        Revapi r = Revapi.builder().withAnalyzers(DummyAnalyzer.class).withReporters(CollectingReporter.class).build();
+
+        AnalysisContext ctx = AnalysisContext.builder(r).withNewAPI(API.of().build()).withOldAPI(API.of().build())
+                .build();
+
+        try (AnalysisResult res = r.analyze(ctx)) {
+            Assert.assertTrue(res.isSuccess());
+
+            Metrics metrics = res.getMetrics();
+            Assert.assertEquals(1, metrics.timer("treeConstruction").getCount());
+            Assert.assertEquals(1, metrics.timer("oldTreeConstruction").getCount());
+            Assert.assertEquals(1, metrics.timer("newTreeConstruction").getCount());
+            Assert.assertEquals(1, metrics.counter("elementPairs").get());
+            Assert.assertEquals(1, metrics.timer("reporter " + CollectingReporter.class.getName()).getCount());
+        }
+    }
+
+    @Test
+    public void testParallelDifferenceAnalysisKeepsReportOrder() throws Exception {
+        List<String> sequential = analyzeNamedElements(1);
+        NamedDifferenceAnalyzer.THREADS.clear();
+        List<String> parallel = analyzeNamedElements(4);
+
+        Assert.assertEquals(4 * NamedArchiveAnalyzer.ROOTS, sequential.size());
+        Assert.assertEquals("child-0 of root-00", sequential.get(0));
+        Assert.assertEquals("grandchild of child-1 of root-00", sequential.get(1));
+        Assert.assertEquals("child-1 of root-00", sequential.get(2));
+        Assert.assertEquals("root-00", sequential.get(3));
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertTrue(NamedDifferenceAnalyzer.THREADS.stream()
+                .allMatch(t -> t.startsWith("Revapi Difference Analysis Thread")));
+    }
+
+    @Test
+    public void testParallelDifferenceAnalysisOpensAndClosesForks() throws Exception {
+        NamedDifferenceAnalyzer.OPENED.set(0);
+        NamedDifferenceAnalyzer.CLOSED.set(0);
+
+        // the forked analyzers refuse to analyze unless they're open
+        List<String> reports = analyzeNamedElements(4);
+
+        Assert.assertEquals(4 * NamedArchiveAnalyzer.ROOTS, reports.size());
+        // the analyzer itself and at least one fork
+        Assert.assertTrue(NamedDifferenceAnalyzer.OPENED.get() >= 2);
+        Assert.assertEquals(NamedDifferenceAnalyzer.OPENED.get(), NamedDifferenceAnalyzer.CLOSED.get());
+    }
+
+    @Test
+    public void testParallelDifferenceAnalysisClosesForksOnFailure() throws Exception {
+        NamedDifferenceAnalyzer.OPENED.set(0);
+        NamedDifferenceAnalyzer.CLOSED.set(0);
+        NamedDifferenceAnalyzer.FAIL_ON = "root-00";
+
+        try {
+            analyzeNamedElements(4);
+            Assert.fail("The analysis should have failed.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Failed on root-00", e.getMessage());
+        } finally {
+            NamedDifferenceAnalyzer.FAIL_ON = null;
+        }
+
+        Assert.assertEquals(NamedDifferenceAnalyzer.OPENED.get(), NamedDifferenceAnalyzer.CLOSED.get());
+    }
+
+    @Test
+    public void testReportsStreamedWithoutTraversalTrackers() throws Exception {
+        List<Integer> analyzedAtReport = analyzeNamedElementsCheckingStreaming();
+
+        Assert.assertEquals(4 * NamedArchiveAnalyzer.ROOTS, analyzedAtReport.size());
+        for (int i = 0; i < analyzedAtReport.size(); ++i) {
+            Assert.assertEquals(i + 1, (int) analyzedAtReport.get(i));
+        }
+    }
+
+    @Test
+    public void testReportsBufferedWithTraversalTrackers() throws Exception {
+        List<Integer> analyzedAtReport = analyzeNamedElementsCheckingStreaming(TrackingDifferenceTransform.class);
+
+        Assert.assertEquals(4 * NamedArchiveAnalyzer.ROOTS, analyzedAtReport.size());
+        Assert.assertTrue(analyzedAtReport.stream().allMatch(c -> c == 4 * NamedArchiveAnalyzer.ROOTS));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<Integer> analyzeNamedElementsCheckingStreaming(Class<? extends DifferenceTransform>... transforms)
+            throws Exception {
+        NamedDifferenceAnalyzer.ANALYZED.set(0);
+
+        PipelineConfiguration cfg = PipelineConfiguration.builder().withAnalyzers(NamedAnalyzer.class)
+                .withTransforms(Arrays.asList(transforms)).withReporters(StreamingCheckReporter.class).build();
+        Revapi r = new Revapi(cfg);
+
+        AnalysisContext ctx = AnalysisContext.builder(r).withNewAPI(API.of(new DummyArchive()).build())
+                .withOldAPI(API.of(new DummyArchive()).build()).build();
+
+        try (AnalysisResult res = r.analyze(ctx)) {
+            res.throwIfFailed();
+
+            return res.getExtensions().getFirstExtension(StreamingCheckReporter.class, null).analyzedAtReport;
+        }
+    }
+
+    private List<String> analyzeNamedElements(int threads) throws Exception {
+        PipelineConfiguration cfg = PipelineConfiguration.builder().withAnalyzers(NamedAnalyzer.class)
+                .withReporters(CollectingReporter.class).withDifferenceAnalysisThreads(threads).build();
+        Revapi r = new Revapi(cfg);
+
+        AnalysisContext ctx = AnalysisContext.builder(r).withNewAPI(API.of(new DummyArchive()).build())
+                .withOldAPI(API.of(new DummyArchive()).build()).build();
+
+        try (AnalysisResult res = r.analyze(ctx)) {
+            res.throwIfFailed();
+
+            CollectingReporter reporter = res.getExtensions().getFirstExtension(CollectingReporter.class, null);
+            return reporter.getReports().stream().map(rep -> ((NamedElement) rep.getNewElement()).name)
+                    .collect(toList());
+        }
+    }
+
     public static final class DummyElement extends BaseElement<DummyElement> {
         public DummyElement(API api, @Nullable Archive archive) {
             super(api, archive);
@@ -269,6 +419,157 @@ public class AnalysisTest {
         }
     }
 
+    public static final class NamedElement extends BaseElement<NamedElement> {
+        private final String name;
+
+        NamedElement(API api, @Nullable Archive archive, String name) {
+            super(api, archive);
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(NamedElement o) {
+            return name.compareTo(o.name);
+        }
+    }
+
+    public static final class NamedAnalyzer extends BaseApiAnalyzer<NamedElement> {
+        @Override
+        public @Nonnull ArchiveAnalyzer<NamedElement> getArchiveAnalyzer(@Nonnull API api) {
+            return new NamedArchiveAnalyzer(api, this);
+        }
+
+        @Override
+        public DifferenceAnalyzer<NamedElement> getDifferenceAnalyzer(@Nonnull ArchiveAnalyzer<NamedElement> oldArchive,
+                @Nonnull ArchiveAnalyzer<NamedElement> newArchive) {
+            return new NamedDifferenceAnalyzer();
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "named-analyzer";
+        }
+    }
+
+    public static final class NamedElementForest extends BaseElementForest<NamedElement> {
+        NamedElementForest(@Nonnull API api) {
+            super(api);
+        }
+    }
+
+    public static final class NamedArchiveAnalyzer extends BaseArchiveAnalyzer<NamedElementForest, NamedElement> {
+        static final int ROOTS = 20;
+
+        private NamedArchiveAnalyzer(API api, ApiAnalyzer<NamedElement> apiAnalyzer) {
+            super(apiAnalyzer, api);
+        }
+
+        @Override
+        protected NamedElementForest newElementForest() {
+            return new NamedElementForest(getApi());
+        }
+
+        @Override
+        protected Stream<NamedElement> discoverRoots(Object ctx) {
+            Archive archive = getApi().getArchives().iterator().next();
+            return IntStream.range(0, ROOTS)
+                    .mapToObj(i -> new NamedElement(getApi(), archive, String.format("root-%02d", i)));
+        }
+
+        @Override
+        protected Stream<NamedElement> discoverElements(Object ctx, NamedElement parent) {
+            if (parent.name.startsWith("root")) {
+                return Stream.of(new NamedElement(getApi(), parent.getArchive(), "child-0 of " + parent.name),
+                        new NamedElement(getApi(), parent.getArchive(), "child-1 of " + parent.name));
+            } else if (parent.name.startsWith("child-1")) {
+                return Stream.of(new NamedElement(getApi(), parent.getArchive(), "grandchild of " + parent.name));
+            } else {
+                return Stream.empty();
+            }
+        }
+    }
+
+    public static final class NamedDifferenceAnalyzer extends BaseDifferenceAnalyzer<NamedElement> {
+        static final Set<String> THREADS = ConcurrentHashMap.newKeySet();
+        static final AtomicInteger ANALYZED = new AtomicInteger();
+        static final AtomicInteger OPENED = new AtomicInteger();
+        static final AtomicInteger CLOSED = new AtomicInteger();
+        static volatile String FAIL_ON;
+
+        private boolean open;
+
+        @Override
+        public void open() {
+            open = true;
+            OPENED.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+            CLOSED.incrementAndGet();
+        }
+
+        @Override
+        public void beginAnalysis(@Nullable NamedElement oldElement, @Nullable NamedElement newElement) {
+            if (!open) {
+                throw new IllegalStateException("The difference analyzer is not open.");
+            }
+        }
+
+        @Override
+        public Report endAnalysis(@Nullable NamedElement oldElement, @Nullable NamedElement newElement) {
+            THREADS.add(Thread.currentThread().getName());
+            ANALYZED.incrementAndGet();
+            if (oldElement != null && oldElement.name.equals(FAIL_ON)) {
+                throw new IllegalStateException("Failed on " + FAIL_ON);
+            }
+            return Report.builder().withOld(oldElement).withNew(newElement).addDifference().withCode("code")
+                    .withName("name").done().build();
+        }
+
+        @Override
+        public DifferenceAnalyzer<NamedElement> fork() {
+            return new NamedDifferenceAnalyzer();
+        }
+    }
+
+    public static final class TrackingDifferenceTransform extends BaseDifferenceTransform<NamedElement> {
+        @Override
+        public <X extends Element<X>> Optional<TraversalTracker<X>> startTraversal(ApiAnalyzer<X> apiAnalyzer,
+                ArchiveAnalyzer<X> oldArchiveAnalyzer, ArchiveAnalyzer<X> newArchiveAnalyzer) {
+            return Optional.of(new TraversalTracker<X>() {
+            });
+        }
+
+        @Override
+        public Pattern[] getDifferenceCodePatterns() {
+            return new Pattern[0];
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "tracking-transform";
+        }
+    }
+
+    /**
+     * Records how many element pairs had been analyzed when each report was received.
+     */
+    public static final class StreamingCheckReporter extends BaseReporter {
+        final List<Integer> analyzedAtReport = new ArrayList<>();
+
+        @Override
+        public void report(@Nonnull Report report) {
+            analyzedAtReport.add(NamedDifferenceAnalyzer.ANALYZED.get());
+        }
+
+        @Override
+        public String getExtensionId() {
+            return "streaming-check-reporter";
+        }
+    }
+
     public static final class DummyReporter extends BaseReporter {
 
         @Override
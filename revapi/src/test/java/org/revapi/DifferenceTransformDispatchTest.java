@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.junit.jupiter.api.Test;
+import org.revapi.base.BaseDifferenceTransform;
+
+class DifferenceTransformDispatchTest {
+
+    @Test
+    void testBlocksRestrictedToMatchingTransforms() {
+        Transform a = new Transform("a.");
+        Transform b = new Transform("b.");
+        Transform ab = new Transform("");
+
+        DifferenceTransformDispatch dispatch = new DifferenceTransformDispatch(
+                asList(asList(a, b), singletonList(ab), singletonList(b)));
+
+        DifferenceTransformDispatch.Restricted all = dispatch.restrictTo(asList(a, b, ab));
+
+        List<DifferenceTransform<?>>[] blocks = all.getBlocks("a.code");
+        assertEquals(2, blocks.length);
+        assertEquals(singletonList(a), blocks[0]);
+        assertEquals(singletonList(ab), blocks[1]);
+
+        // the first and the last block are identical once restricted to b, so b processes the differences only once
+        blocks = all.getBlocks("b.code");
+        assertEquals(2, blocks.length);
+        assertEquals(singletonList(b), blocks[0]);
+        assertEquals(singletonList(ab), blocks[1]);
+
+        assertSame(all.getBlocks("a.code"), all.getBlocks("a.code"));
+    }
+
+    @Test
+    void testRestrictionDoesNotAffectOtherRestrictions() {
+        Transform a = new Transform("");
+        Transform b = new Transform("");
+
+        DifferenceTransformDispatch dispatch = new DifferenceTransformDispatch(singletonList(asList(a, b)));
+
+        List<DifferenceTransform<?>>[] onlyB = dispatch.restrictTo(singletonList(b)).getBlocks("code");
+        assertEquals(1, onlyB.length);
+        assertEquals(singletonList(b), onlyB[0]);
+
+        List<DifferenceTransform<?>>[] both = dispatch.restrictTo(asList(a, b)).getBlocks("code");
+        assertEquals(1, both.length);
+        assertEquals(asList(a, b), both[0]);
+
+        assertEquals(0, dispatch.restrictTo(singletonList(new Transform(""))).getBlocks("code").length);
+    }
+
+    private static final class Transform extends BaseDifferenceTransform<AnalysisTest.DummyElement> {
+        private final String prefix;
+
+        private Transform(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Nonnull
+        @Override
+        public List<Predicate<String>> getDifferenceCodePredicates() {
+            return singletonList(code -> code.startsWith(prefix));
+        }
+
+        @Override
+        public TransformationResult tryTransform(@Nullable AnalysisTest.DummyElement oldElement,
+                @Nullable AnalysisTest.DummyElement newElement, Difference difference) {
+            return TransformationResult.keep();
+        }
+
+        @Nullable
+        @Override
+        public String getExtensionId() {
+            return "transform-" + prefix;
+        }
+    }
+}
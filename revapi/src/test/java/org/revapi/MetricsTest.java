@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+
+    @Test
+    void testMetersAreReused() {
+        Metrics metrics = new Metrics();
+
+        assertSame(metrics.timer("a"), metrics.timer("a"));
+        assertSame(metrics.counter("a"), metrics.counter("a"));
+    }
+
+    @Test
+    void testCounter() {
+        Metrics.Counter counter = new Metrics().counter("c");
+        counter.increment();
+        counter.add(41);
+
+        assertEquals(42, counter.get());
+    }
+
+    @Test
+    void testTimerPercentiles() {
+        Metrics.Timer timer = new Metrics().timer("t");
+        for (int i = 1; i <= 1000; ++i) {
+            timer.record(i * 1000L);
+        }
+
+        assertEquals(1000, timer.getCount());
+        assertEquals(1_000_000, timer.getMaxNanos());
+        assertEquals(500_500, timer.getMeanNanos());
+
+        assertWithinPrecision(500_000, timer.getValueAtPercentile(50));
+        assertWithinPrecision(900_000, timer.getValueAtPercentile(90));
+        assertWithinPrecision(990_000, timer.getValueAtPercentile(99));
+        assertEquals(1_000_000, timer.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testEmptyTimer() {
+        Metrics.Timer timer = new Metrics().timer("t");
+
+        assertEquals(0, timer.getCount());
+        assertEquals(0, timer.getMeanNanos());
+        assertEquals(0, timer.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testHugeDurations() {
+        Metrics.Timer timer = new Metrics().timer("t");
+        timer.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, timer.getValueAtPercentile(50));
+    }
+
+    @Test
+    void testJSONExport() {
+        Metrics metrics = new Metrics();
+        metrics.timer("t").record(10);
+        metrics.counter("c").add(3);
+
+        JsonNode json = metrics.toJSON();
+
+        assertEquals(1, json.path("timers").path("t").path("count").asLong());
+        assertEquals(10, json.path("timers").path("t").path("maxNanos").asLong());
+        assertEquals(10, json.path("timers").path("t").path("percentiles").path("99").asLong());
+        assertEquals(3, json.path("counters").path("c").asLong());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 8,
+                "Expected " + actual + " to be within 12.5% of " + expected);
+    }
+}
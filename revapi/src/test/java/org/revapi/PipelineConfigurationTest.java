@@ -21,6 +21,7 @@ import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
@@ -183,6 +184,18 @@ public class PipelineConfigurationTest {
         assertTrue(blocks.stream().anyMatch(b -> containsInstancesInOrder(b, t3)));
     }
 
+    @Test
+    public void testParallelTreeConstructionParsed() {
+        assertFalse(configWithAllExtensions("{}").isParallelTreeConstruction());
+        assertTrue(configWithAllExtensions("{\"parallelTreeConstruction\": true}").isParallelTreeConstruction());
+    }
+
+    @Test
+    public void testDifferenceAnalysisThreadsParsed() {
+        assertEquals(1, configWithAllExtensions("{}").getDifferenceAnalysisThreads());
+        assertEquals(4, configWithAllExtensions("{\"differenceAnalysisThreads\": 4}").getDifferenceAnalysisThreads());
+    }
+
     private PipelineConfiguration configWithAllExtensions(String configJson) {
         return PipelineConfiguration.parse(JSONUtil.parse(configJson), singleton(analyzerType),
                 asList(filter1Type, filter2Type, filter3Type), asList(transform1Type, transform2Type, transform3Type),
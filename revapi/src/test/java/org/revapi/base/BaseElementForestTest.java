@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014-2026 Lukas Krejci
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.revapi.base;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.revapi.FilterFinishResult;
+import org.revapi.FilterStartResult;
+import org.revapi.Ternary;
+import org.revapi.TreeFilter;
+import org.revapi.base.BaseArchiveAnalyzerTest.TestElement;
+import org.revapi.base.BaseArchiveAnalyzerTest.TestForest;
+
+class BaseElementForestTest {
+    TestForest forest = new BaseArchiveAnalyzerTest.TestArchiveAnalyzer(null, null).withRoots("a", "b", "c")
+            .withChildren("a", "aa", "ab").withChildren("b", "ba", "bb").withChildren("c", "ca", "cb")
+            .analyze(TreeFilter.matchAndDescend());
+
+    @Test
+    void streamsInDepthFirstOrder() {
+        List<String> names = forest.stream(TestElement.class, true, null, null)
+                .map(TestElement::getFullHumanReadableString).collect(toList());
+
+        assertEquals(Arrays.asList("a", "aa", "ab", "b", "ba", "bb", "c", "ca", "cb"), names);
+    }
+
+    @Test
+    void streamsOnlyChildrenWithoutRecursion() {
+        TestElement b = forest.getRoots().stream().filter(e -> e.getFullHumanReadableString().equals("b")).findFirst()
+                .get();
+
+        List<String> names = forest.stream(TestElement.class, false, null, b)
+                .map(TestElement::getFullHumanReadableString).collect(toList());
+
+        assertEquals(Arrays.asList("ba", "bb"), names);
+    }
+
+    @Test
+    void walksOnlyTheConsumedPartOfTheForest() {
+        List<String> started = new ArrayList<>();
+        TreeFilter<TestElement> filter = new IndependentTreeFilter<TestElement>() {
+            @Override
+            protected FilterStartResult doStart(TestElement element) {
+                started.add(element.getFullHumanReadableString());
+                return FilterStartResult.matchAndDescend();
+            }
+        };
+
+        Optional<TestElement> first = forest.stream(TestElement.class, true, filter, null)
+                .filter(e -> e.getFullHumanReadableString().startsWith("a")).skip(1).findFirst();
+
+        assertEquals("aa", first.get().getFullHumanReadableString());
+        assertEquals(Arrays.asList("a", "aa"), started);
+    }
+
+    @Test
+    void leavesStatefulFilterUnfinishedOnEarlyTermination() {
+        List<String> unfinished = new ArrayList<>();
+        List<Boolean> walkFinished = new ArrayList<>();
+        TreeFilter<TestElement> filter = new BaseTreeFilter<TestElement>() {
+            @Override
+            public FilterStartResult start(TestElement element) {
+                unfinished.add(element.getFullHumanReadableString());
+                return FilterStartResult.matchAndDescend();
+            }
+
+            @Override
+            public FilterFinishResult finish(TestElement element) {
+                unfinished.remove(element.getFullHumanReadableString());
+                return FilterFinishResult.matches();
+            }
+
+            @Override
+            public Map<TestElement, FilterFinishResult> finish() {
+                walkFinished.add(true);
+                return emptyMap();
+            }
+        };
+
+        Optional<TestElement> first = forest.stream(TestElement.class, true, filter, null)
+                .filter(e -> e.getFullHumanReadableString().startsWith("b")).findFirst();
+
+        assertEquals("b", first.get().getFullHumanReadableString());
+        // "b" has been started but the walk stopped before its children were walked
+        assertEquals(singletonList("b"), unfinished);
+        assertTrue(walkFinished.isEmpty());
+
+        unfinished.clear();
+        assertEquals(9, forest.stream(TestElement.class, true, filter, null).count());
+        assertTrue(unfinished.isEmpty());
+        assertEquals(singletonList(true), walkFinished);
+    }
+
+    @Test
+    void producesTheLateMatchesOnlyOnce() {
+        // "a" and "ba" only match at the end of the walk, the rest of the elements are matched immediately
+        TreeFilter<TestElement> filter = new BaseTreeFilter<TestElement>() {
+            @Override
+            public FilterStartResult start(TestElement element) {
+                return isLate(element) ? FilterStartResult.direct(Ternary.FALSE, Ternary.TRUE)
+                        : FilterStartResult.matchAndDescend();
+            }
+
+            @Override
+            public FilterFinishResult finish(TestElement element) {
+                return isLate(element) ? FilterFinishResult.doesntMatch() : FilterFinishResult.matches();
+            }
+
+            @Override
+            public Map<TestElement, FilterFinishResult> finish() {
+                return forest.stream(TestElement.class, true, null, null)
+                        .collect(Collectors.toMap(Function.identity(), __ -> FilterFinishResult.matches()));
+            }
+
+            private boolean isLate(TestElement element) {
+                return element.getFullHumanReadableString().equals("a")
+                        || element.getFullHumanReadableString().equals("ba");
+            }
+        };
+
+        List<String> names = forest.stream(TestElement.class, true, filter, null)
+                .map(TestElement::getFullHumanReadableString).collect(toList());
+
+        assertEquals(9, names.size());
+        assertEquals(new HashSet<>(Arrays.asList("a", "aa", "ab", "b", "ba", "bb", "c", "ca", "cb")),
+                new HashSet<>(names));
+        assertEquals(Arrays.asList("a", "ba"), names.subList(7, 9));
+    }
+
+    @Test
+    void splitsWithoutFilter() {
+        assertEquals(forest.stream(TestElement.class, true, null, null).collect(toSet()),
+                forest.stream(TestElement.class, true, null, null).parallel().collect(toSet()));
+        assertEquals(9, forest.stream(TestElement.class, true, null, null).parallel().count());
+    }
+}
@@ -23,14 +23,18 @@ import static java.util.Collections.singletonList;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -98,10 +102,54 @@ class ZipArchiveAnalyzerTest {
         assertArrayEquals(UNCOMPRESSED_DATA, forest.getRoots().first().data);
     }
 
+    @Test
+    void testReadsOnlyMatchingEntriesOfZipFiles() throws Exception {
+        File zip = File.createTempFile("zip-archive-analyzer-test", ".zip");
+        try {
+            try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+                for (int i = 0; i < 100; ++i) {
+                    out.putNextEntry(new ZipEntry("ignored/" + i));
+                    out.write(42);
+                    out.closeEntry();
+
+                    out.putNextEntry(new ZipEntry("data/" + i));
+                    out.write(("kachna" + i).getBytes(UTF_8));
+                    out.closeEntry();
+                }
+            }
+
+            API api = API.of(new FileArchive(zip)).build();
+            DummyZipArchiveAnalyzer an = new DummyZipArchiveAnalyzer(api, singletonList(Pattern.compile("data/.*")),
+                    true);
+
+            an.analyze(TreeFilter.matchAndDescend());
+
+            assertEquals(100, an.parsedData.size());
+            for (int i = 0; i < 100; ++i) {
+                assertTrue(an.parsedData.contains("kachna" + i));
+            }
+        } finally {
+            assertTrue(zip.delete());
+        }
+    }
+
     private static final class DummyZipArchiveAnalyzer
             extends ZipArchiveAnalyzer<BaseElementForest<DataElement>, DataElement> {
+        private final boolean parallel;
+        final Set<String> parsedData = ConcurrentHashMap.newKeySet();
+
         public DummyZipArchiveAnalyzer(API api, List<Pattern> matchPatterns) {
+            this(api, matchPatterns, false);
+        }
+
+        public DummyZipArchiveAnalyzer(API api, List<Pattern> matchPatterns, boolean parallel) {
             super(null, api, matchPatterns);
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected boolean isParallelEntryParsingSupported() {
+            return parallel;
         }
 
         @Override
@@ -117,6 +165,7 @@ class ZipArchiveAnalyzerTest {
             while ((c = data.read()) >= 0) {
                 out.write(c);
             }
+            parsedData.add(new String(out.toByteArray(), UTF_8));
             return singleton(new DataElement(out.toByteArray()));
         }
     }
@@ -23,6 +23,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Assert;
 import org.junit.Test;
 import org.revapi.API;
@@ -122,6 +123,22 @@ public class ConfigurationValidatorTest {
         Assert.assertTrue(result.toString(), result.isSuccessful());
     }
 
+    @Test
+    public void testSchemaModifiedAfterValidation() throws Exception {
+        ConfigurationValidator validator = new ConfigurationValidator();
+
+        JsonNode schema = JSONUtil.parse("{\"properties\": {\"id\": {\"type\": \"integer\"}}}");
+        JsonNode config = JSONUtil.parse("{\"id\": 3}");
+
+        Assert.assertTrue(validator.validate(config, schema).isSuccessful());
+
+        // the compiled schema is cached, but must not be used once the schema changes
+        ((ObjectNode) schema.get("properties").get("id")).put("type", "string");
+
+        Assert.assertFalse(validator.validate(config, schema).isSuccessful());
+        Assert.assertTrue(validator.validate(JSONUtil.parse("{\"id\": \"3\"}"), schema).isSuccessful());
+    }
+
     @Test
     public void testRevapiValidation() throws Exception {
         String config = "[" + "{\"extension\": \"my-config\", \"configuration\": {\"id\": 3, \"kachna\": \"duck\"}},"